@@ -0,0 +1,50 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds repositories of owners whose calendars are pre-filled across the 15-day horizon.
+ */
+final class BenchmarkFixtures {
+
+    /** Hourly slots between tomorrow and the 15-day cutoff. */
+    static final int MAX_APPOINTMENTS_PER_CALENDAR = 15 * 24;
+
+    private BenchmarkFixtures() {}
+
+    static List<CalendarOwner> populate(CalendarOwnerRepository repository, int ownerCount, int appointmentsPerCalendar) {
+        if (appointmentsPerCalendar > MAX_APPOINTMENTS_PER_CALENDAR) {
+            throw new IllegalArgumentException("At most " + MAX_APPOINTMENTS_PER_CALENDAR + " appointments fit in a calendar");
+        }
+        Invitee invitee = new Invitee("Bench Invitee", "bench-invitee@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        List<CalendarOwner> owners = new ArrayList<>(ownerCount);
+        for (int i = 0; i < ownerCount; i++) {
+            CalendarOwner owner = newOwner("owner-" + i);
+            for (int a = 0; a < appointmentsPerCalendar; a++) {
+                // Spread round-robin over the days so every day gets a share of the load
+                LocalDate day = tomorrow.plusDays(a % 15);
+                int hour = (a / 15 + 8) % 24;
+                owner.getCalendar().addAppointment(new Appointment(day.atTime(hour, 0), "Bench", invitee, owner));
+            }
+            repository.save(owner);
+            owners.add(owner);
+        }
+        return owners;
+    }
+
+    static CalendarOwner newOwner(String name) {
+        CalendarOwner owner = new CalendarOwner(name, name + "@example.com");
+        owner.setWorkHours(LocalTime.of(8, 0), LocalTime.of(20, 0));
+        return owner;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.calendar_booking_system.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH suite once per thread count listed in -Djmh.threads (e.g. "1,4,8").
+ * Any regular JMH command line options are passed through; results land in target/jmh-threads-N.json.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        for (String t : System.getProperty("jmh.threads", "1").split(",")) {
+            int threads = Integer.parseInt(t.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder().parent(cli).threads(threads);
+            if (!cli.getResult().hasValue()) {
+                options.result("target/jmh-threads-" + threads + ".json").resultFormat(ResultFormatType.JSON);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRequest;
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.CalendarService;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import com.example.calendar_booking_system.service.InviteeService;
+import com.example.calendar_booking_system.service.InviteeServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * bookOwnOwner: every thread books through its own owner's free slots, so threads never share a calendar.
+ * bookHotOwner: all threads race for random slots of one owner, exercising the "Already occupied" path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"1000", "10000"})
+        int ownerCount;
+
+        @Param({"0", "100"})
+        int appointmentsPerCalendar;
+
+        CalendarOwnerRepository repository;
+        CalendarService calendarService;
+        InviteeService inviteeService;
+        CalendarOwner hotOwner;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            repository = new CalendarOwnerRepository();
+            BenchmarkFixtures.populate(repository, ownerCount, appointmentsPerCalendar);
+            calendarService = new CalendarServiceImpl(repository);
+            inviteeService = new InviteeServiceImpl(calendarService, repository);
+            hotOwner = BenchmarkFixtures.newOwner("hot-owner");
+            repository.save(hotOwner);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Booker {
+        InviteeService inviteeService;
+        Invitee invitee;
+        CalendarOwner owner;
+        LocalDate tomorrow;
+        int dayOffset;
+        int hour;
+
+        @Setup(Level.Trial)
+        public void setUp(Shared shared) {
+            // Every thread is its own invitee session on the shared service
+            inviteeService = shared.inviteeService;
+            invitee = (Invitee) inviteeService.createInvitee(new Invitee("Booker", "booker@example.com")).getBody();
+            owner = BenchmarkFixtures.newOwner("booker-" + UUID.randomUUID());
+            shared.repository.save(owner);
+            tomorrow = LocalDate.now().plusDays(1);
+            hour = 8;
+            lookup(owner, tomorrow);
+        }
+
+        void lookup(CalendarOwner target, LocalDate date) {
+            SlotRequest req = new SlotRequest(target.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            req.setInviteeId(invitee.getId());
+            inviteeService.getAvailableSlots(req);
+        }
+
+        Object book(CalendarOwner target, String subject, LocalDate date, int hour) {
+            AppointmentRequest req = new AppointmentRequest(target.getId(), subject,
+                    date.getDayOfMonth(), date.getMonthValue(), date.getYear(), hour);
+            req.setInviteeId(invitee.getId());
+            return inviteeService.bookAppointment(req).getBody();
+        }
+    }
+
+    @Benchmark
+    public Object bookOwnOwner(Booker booker) {
+        LocalDate date = booker.tomorrow.plusDays(booker.dayOffset);
+        Object result = booker.book(booker.owner, "Bench", date, booker.hour);
+
+        // Walk the working hours, then the days; start over on a fresh calendar once all are booked
+        if (++booker.hour == 20) {
+            booker.hour = 8;
+            if (++booker.dayOffset == 15) {
+                booker.dayOffset = 0;
+                booker.owner.setCalendar(new Calendar());
+                booker.invitee.getAppointments().clear();
+            }
+            booker.lookup(booker.owner, booker.tomorrow.plusDays(booker.dayOffset));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Object bookHotOwner(Shared shared, Booker booker) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate date = booker.tomorrow.plusDays(random.nextInt(15));
+        booker.lookup(shared.hotOwner, date);
+        return booker.book(shared.hotOwner, "Hot", date, 8 + random.nextInt(12));
+    }
+}
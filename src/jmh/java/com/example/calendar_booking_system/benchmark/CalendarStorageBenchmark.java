@@ -0,0 +1,132 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.CalendarService;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same multi-year calendars held in each {@link CalendarStorage}: conflict checks, free slots
+ * and gaps, week listings and a reserve/release write against them, plus a full collection with
+ * all of them live. Add {@code -prof gc} for allocation and collection time per operation:
+ * {@code mvn -Pjmh -DskipTests verify -Djmh.threads=1 -Djmh.args="CalendarStorage -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarStorageBenchmark {
+
+    /** Two years of six morning bookings a day, leaving the afternoons of the 08:00-20:00 day free. */
+    static final int DAYS = 730;
+    static final int BOOKINGS_PER_DAY = 6;
+
+    @Param({"OBJECTS", "COMPACT", "OFF_HEAP"})
+    CalendarStorage storage;
+
+    @Param({"1000000"})
+    int bookings;
+
+    CalendarService calendarService;
+    CalendarOwner[] owners;
+    LocalDate tomorrow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CalendarOwnerRepository repository = new CalendarOwnerRepository();
+        calendarService = new CalendarServiceImpl(repository);
+        tomorrow = LocalDate.now().plusDays(1);
+
+        Invitee[] invitees = new Invitee[500];
+        for (int i = 0; i < invitees.length; i++) invitees[i] = new Invitee("Invitee " + i, "invitee" + i + "@example.com");
+
+        int perCalendar = DAYS * BOOKINGS_PER_DAY;
+        owners = new CalendarOwner[Math.max(1, bookings / perCalendar)];
+        int booked = 0;
+        for (int o = 0; o < owners.length; o++) {
+            CalendarOwner owner = BenchmarkFixtures.newOwner("storage-owner-" + o);
+            owner.setCalendar(new Calendar("storage-calendar-" + o, storage));
+            for (int a = 0; a < perCalendar; a++) {
+                LocalDateTime start = tomorrow.plusDays(a / BOOKINGS_PER_DAY).atTime(8 + a % BOOKINGS_PER_DAY, 0);
+                owner.getCalendar().addAppointment(new Appointment(start, Duration.ofMinutes(45),
+                        new String("Sync " + booked % 20), invitees[booked % invitees.length], owner));
+                booked++;
+            }
+            repository.save(owner);
+            owners[o] = owner;
+        }
+    }
+
+    @Benchmark
+    public boolean overlaps() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = tomorrow.plusDays(random.nextInt(DAYS)).atTime(8 + random.nextInt(12), 0);
+        return randomOwner(random).getCalendar().overlaps(start, start.plusHours(1));
+    }
+
+    @Benchmark
+    public List<Integer> freeSlots() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return calendarService.getFreeSlots(randomOwner(random), tomorrow.plusDays(random.nextInt(14)));
+    }
+
+    @Benchmark
+    public SortedMap<LocalTime, LocalTime> freeGaps() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return calendarService.getFreeGaps(randomOwner(random), tomorrow.plusDays(random.nextInt(14)), Duration.ofMinutes(30));
+    }
+
+    // Read the way a summary reads them; the object store's listing is a lazy view until then
+    @Benchmark
+    public void weekAppointments(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate from = tomorrow.plusDays(random.nextInt(DAYS - 7));
+        for (Appointment appointment : randomOwner(random).getCalendar().getAppointmentsBetween(from, from.plusDays(6))) {
+            blackhole.consume(appointment.getStartTime());
+            blackhole.consume(appointment.getSubject());
+            blackhole.consume(appointment.getInvitee());
+        }
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CalendarOwner owner = randomOwner(random);
+        List<Appointment> batch = List.of(new Appointment(tomorrow.plusDays(random.nextInt(DAYS)).atTime(18, 0),
+                "Hold", null, owner));
+        boolean reserved = owner.getCalendar().tryReserve(batch);
+        if (reserved) owner.getCalendar().releaseReservation(batch);
+        return reserved;
+    }
+
+    /** A stop-the-world collection of the whole heap with every calendar live. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public void fullCollection() {
+        System.gc();
+    }
+
+    private CalendarOwner randomOwner(ThreadLocalRandom random) {
+        return owners[random.nextInt(owners.length)];
+    }
+}
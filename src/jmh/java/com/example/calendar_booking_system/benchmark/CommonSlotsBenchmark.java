@@ -0,0 +1,58 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.CalendarService;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common free hours of a panel of owners over the whole 15-day window. Panels of 128 or more
+ * owners take the parallel path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonSlotsBenchmark {
+
+    private static final int PANELS = 64;
+
+    @Param({"10", "100", "500"})
+    int panelSize;
+
+    CalendarService calendarService;
+    List<List<CalendarOwner>> panels;
+    LocalDate from;
+    LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CalendarOwnerRepository repository = new CalendarOwnerRepository();
+        List<CalendarOwner> owners = BenchmarkFixtures.populate(repository, 10_000, 100);
+        calendarService = new CalendarServiceImpl(repository);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        panels = new ArrayList<>(PANELS);
+        for (int p = 0; p < PANELS; p++) {
+            List<CalendarOwner> panel = new ArrayList<>(panelSize);
+            for (int i = 0; i < panelSize; i++) panel.add(owners.get(random.nextInt(owners.size())));
+            panels.add(panel);
+        }
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(15);
+    }
+
+    @Benchmark
+    public SortedMap<LocalDate, List<Integer>> getCommonFreeSlots() {
+        return calendarService.getCommonFreeSlots(panels.get(ThreadLocalRandom.current().nextInt(PANELS)), from, to);
+    }
+}
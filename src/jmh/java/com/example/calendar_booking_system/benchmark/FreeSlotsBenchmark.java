@@ -0,0 +1,46 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.CalendarService;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreeSlotsBenchmark {
+
+    @Param({"1000", "10000"})
+    int ownerCount;
+
+    @Param({"0", "100", "360"})
+    int appointmentsPerCalendar;
+
+    CalendarService calendarService;
+    CalendarOwner[] owners;
+    LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CalendarOwnerRepository repository = new CalendarOwnerRepository();
+        owners = BenchmarkFixtures.populate(repository, ownerCount, appointmentsPerCalendar).toArray(new CalendarOwner[0]);
+        calendarService = new CalendarServiceImpl(repository);
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public List<Integer> getFreeSlots() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CalendarOwner owner = owners[random.nextInt(owners.length)];
+        return calendarService.getFreeSlots(owner, today.plusDays(1 + random.nextInt(15)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.repository.journal.JournaledCalendarOwnerRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of the journal profile: rebuilding owners and calendars from {@code eventCount}
+ * journal records (one owner record per 100 appointments), either by replaying the whole journal
+ * or by loading a snapshot taken after the last record.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class JournalRecoveryBenchmark {
+
+    private static final int APPOINTMENTS_PER_OWNER = 100;
+
+    @Param({"1000000", "3000000"})
+    int eventCount;
+
+    @Param({"journal", "snapshot"})
+    String startFrom;
+
+    Path directory;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        Invitee invitee = new Invitee("Bench Invitee", "bench-invitee@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(
+                directory, JournaledCalendarOwnerRepository.DEFAULT_SEGMENT_SIZE)) {
+            int owners = eventCount / (APPOINTMENTS_PER_OWNER + 1);
+            for (int i = 0; i < owners; i++) {
+                CalendarOwner owner = BenchmarkFixtures.newOwner("owner-" + i);
+                repository.save(owner);
+                List<Appointment> booked = new ArrayList<>(APPOINTMENTS_PER_OWNER);
+                for (int a = 0; a < APPOINTMENTS_PER_OWNER; a++) {
+                    Appointment appointment = new Appointment(tomorrow.plusDays(a % 15).atTime((a / 15 + 8) % 24, 0),
+                            "Bench", invitee, owner);
+                    owner.getCalendar().addAppointment(appointment); // in memory first, as the booking path does
+                    booked.add(appointment);
+                }
+                repository.onAppointmentsBooked(new AppointmentsBookedEvent(booked));
+            }
+            if (startFrom.equals("snapshot")) {
+                repository.takeSnapshot();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int replay() throws IOException {
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(
+                directory, JournaledCalendarOwnerRepository.DEFAULT_SEGMENT_SIZE)) {
+            return repository.findAll().size();
+        }
+    }
+}
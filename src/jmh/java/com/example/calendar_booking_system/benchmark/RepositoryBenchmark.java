@@ -0,0 +1,36 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    int ownerCount;
+
+    CalendarOwnerRepository repository;
+    String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new CalendarOwnerRepository();
+        List<CalendarOwner> owners = BenchmarkFixtures.populate(repository, ownerCount, 0);
+        ids = owners.stream().map(CalendarOwner::getId).toArray(String[]::new);
+    }
+
+    @Benchmark
+    public CalendarOwner findById() {
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.calendar_booking_system.benchmark;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.CalendarOwnerService;
+import com.example.calendar_booking_system.service.CalendarOwnerServiceImpl;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+
+    @Param({"1000"})
+    int ownerCount;
+
+    @Param({"10", "100", "360"})
+    int appointmentsPerCalendar;
+
+    CalendarOwnerService calendarOwnerService;
+    String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CalendarOwnerRepository repository = new CalendarOwnerRepository();
+        ids = BenchmarkFixtures.populate(repository, ownerCount, appointmentsPerCalendar).stream()
+                .map(CalendarOwner::getId)
+                .toArray(String[]::new);
+        calendarOwnerService = new CalendarOwnerServiceImpl(repository, new CalendarServiceImpl(repository));
+    }
+
+    @Benchmark
+    public Object fullSummary() {
+        return calendarOwnerService.getFullSummary(ids[ThreadLocalRandom.current().nextInt(ids.length)]).getBody();
+    }
+
+    @Benchmark
+    public Object todaySummary() {
+        return calendarOwnerService.getTodaySummary(ids[ThreadLocalRandom.current().nextInt(ids.length)]).getBody();
+    }
+
+    @Benchmark
+    public void fullSummaryStreamed(Blackhole bh) throws IOException {
+        StreamingResponseBody body = (StreamingResponseBody) calendarOwnerService
+                .streamFullSummary(ids[ThreadLocalRandom.current().nextInt(ids.length)]).getBody();
+        body.writeTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                bh.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bh.consume(len);
+            }
+        });
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.calendar_booking_system.loadgen;
+
+import com.example.calendar_booking_system.CalendarBookingSystemApplication;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts the application on a random port and drives it with a weighted mix of owner creation,
+ * {@code available-slots} lookups, {@code book-appointment} calls and summary reads from many
+ * concurrent clients. A share of the traffic targets a few hot owners so bookings race for the
+ * same hours. After the warm-up only the measured window is recorded; the report lands in
+ * {@code target/loadgen-report.json} unless {@code report=} says otherwise.
+ *
+ * <p>Exits with status 1 when the server answered 5xx or when the stored appointments do not
+ * match the bookings the clients saw accepted.
+ */
+public final class LoadGenerator {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int FIRST_HOUR = 9;
+    private static final int HOURS = 8;
+
+    private final Workload workload;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<String> ownerIds = new CopyOnWriteArrayList<>();
+    private final AtomicInteger ownerSequence = new AtomicInteger();
+    private final AtomicLong acceptedBookings = new AtomicLong();
+    private String base;
+
+    private LoadGenerator(Workload workload) {
+        this.workload = workload;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Workload workload = Workload.parse(args);
+        int status = new LoadGenerator(workload).run();
+        System.exit(status);
+    }
+
+    private int run() throws Exception {
+        SpringApplicationBuilder app = new SpringApplicationBuilder(CalendarBookingSystemApplication.class);
+        // Passed as command-line arguments, which (unlike builder defaults) win over application*.properties
+        List<String> properties = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=warn"));
+        if (!workload.profiles.isBlank()) {
+            app.profiles(workload.profiles.split(","));
+            if (workload.profiles.contains("journal") && !workload.springProperties.containsKey("calendar.journal.dir")) {
+                properties.add("--calendar.journal.dir=" + Files.createTempDirectory("loadgen-journal"));
+            }
+        }
+        workload.springProperties.forEach((k, v) -> properties.add("--" + k + "=" + v));
+
+        try (ServletWebServerApplicationContext context =
+                     (ServletWebServerApplicationContext) app.run(properties.toArray(String[]::new))) {
+            base = "http://localhost:" + context.getWebServer().getPort();
+            for (int i = 0; i < workload.owners; i++) {
+                String id = createOwner();
+                if (id == null) throw new IllegalStateException("Could not create seed owner " + i);
+                ownerIds.add(id);
+            }
+
+            long warmupNanos = workload.warmup.toNanos();
+            long measureNanos = workload.duration.toNanos();
+            ExecutorService pool = Executors.newFixedThreadPool(workload.clients);
+            CountDownLatch start = new CountDownLatch(1);
+            List<LoadRecorder> recorders = new ArrayList<>();
+            List<Future<?>> done = new ArrayList<>();
+            long[] window = new long[2];
+            for (int c = 0; c < workload.clients; c++) {
+                Client client = new Client(createInvitee(c));
+                recorders.add(client.recorder);
+                done.add(pool.submit(() -> {
+                    start.await();
+                    client.loop(window[0], window[1]);
+                    return null;
+                }));
+            }
+
+            System.out.printf("Load generator: %d clients against %s, %ds warm-up, %ds measured%n",
+                    workload.clients, base, workload.warmup.toSeconds(), workload.duration.toSeconds());
+            window[0] = System.nanoTime() + warmupNanos;
+            window[1] = window[0] + measureNanos;
+            start.countDown();
+            for (Future<?> f : done) f.get();
+            pool.shutdown();
+
+            LoadRecorder total = new LoadRecorder();
+            recorders.forEach(r -> r.mergeInto(total));
+
+            @SuppressWarnings("unchecked")
+            GenericRepository<CalendarOwner, String> repository = (GenericRepository<CalendarOwner, String>)
+                    context.getBeanProvider(ResolvableType.forClassWithGenerics(GenericRepository.class,
+                            CalendarOwner.class, String.class)).getObject();
+            long stored = repository.findAll().stream()
+                    .mapToLong(o -> o.getCalendar().getAppointments().size()).sum();
+
+            LoadReport report = new LoadReport(workload, total, measureNanos / 1e9, acceptedBookings.get(), stored);
+            report.write(workload.report, json);
+            report.print();
+            System.out.println("Report written to " + workload.report.toAbsolutePath());
+            return report.serverErrors() == 0 && report.consistent() ? 0 : 1;
+        }
+    }
+
+    /** One simulated invitee; its last availability lookup decides what it tries to book. */
+    private final class Client {
+
+        final String inviteeId;
+        final LoadRecorder recorder = new LoadRecorder();
+        String lookupOwner;
+        LocalDate lookupDate;
+        List<Integer> lookupHours = List.of();
+
+        Client(String inviteeId) {
+            this.inviteeId = inviteeId;
+        }
+
+        void loop(long measureFrom, long measureUntil) {
+            Random random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < measureUntil) {
+                boolean measured = now >= measureFrom;
+                Operation op = workload.next(random);
+                if (op == Operation.BOOK && lookupOwner == null) op = Operation.LOOKUP;
+                long began = System.nanoTime();
+                try {
+                    HttpResponse<String> response = send(op, random);
+                    long elapsed = System.nanoTime() - began;
+                    if (measured && began + elapsed <= measureUntil) {
+                        recorder.record(op, elapsed, response.statusCode(), response.body());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    if (measured) recorder.recordIoError(op, System.nanoTime() - began, e);
+                }
+            }
+        }
+
+        private HttpResponse<String> send(Operation op, Random random) throws Exception {
+            return switch (op) {
+                case CREATE_OWNER -> {
+                    HttpResponse<String> response = post("/api/owners", newOwner());
+                    if (response.statusCode() == 200) ownerIds.add((String) json.readValue(response.body(), Map.class).get("id"));
+                    yield response;
+                }
+                case LOOKUP -> {
+                    String ownerId = pickOwner(random);
+                    LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(workload.days));
+                    HttpResponse<String> response = post("/api/invitees/available-slots", Map.of(
+                            "inviteeId", inviteeId, "ownerId", ownerId,
+                            "year", date.getYear(), "month", date.getMonthValue(), "day", date.getDayOfMonth()));
+                    lookupOwner = ownerId;
+                    lookupDate = date;
+                    lookupHours = response.statusCode() == 200 ? freeHours(response.body()) : List.of();
+                    yield response;
+                }
+                case BOOK -> {
+                    int hour = lookupHours.isEmpty()
+                            ? FIRST_HOUR + random.nextInt(HOURS)
+                            : lookupHours.get(random.nextInt(lookupHours.size()));
+                    HttpResponse<String> response = post("/api/invitees/book-appointment", Map.of(
+                            "inviteeId", inviteeId, "ownerId", lookupOwner, "subject", "Load",
+                            "year", lookupDate.getYear(), "month", lookupDate.getMonthValue(),
+                            "day", lookupDate.getDayOfMonth(), "hour", hour));
+                    if (response.statusCode() == 200) {
+                        acceptedBookings.incrementAndGet();
+                        List<Integer> remaining = new ArrayList<>(lookupHours);
+                        remaining.remove(Integer.valueOf(hour));
+                        lookupHours = remaining;
+                    }
+                    yield response;
+                }
+                case SUMMARY -> get("/api/owners/" + pickOwner(random) + "/appointments/summary");
+            };
+        }
+    }
+
+    private String pickOwner(Random random) {
+        if (workload.hotOwners > 0 && random.nextDouble() < workload.hotShare) {
+            return ownerIds.get(random.nextInt(workload.hotOwners));
+        }
+        return ownerIds.get(random.nextInt(ownerIds.size()));
+    }
+
+    private Map<String, String> newOwner() {
+        int n = ownerSequence.getAndIncrement();
+        return Map.of("name", "Load Owner " + n, "email", "load-owner" + n + "@example.com");
+    }
+
+    private String createOwner() throws Exception {
+        HttpResponse<String> response = post("/api/owners", newOwner());
+        return response.statusCode() == 200 ? (String) json.readValue(response.body(), Map.class).get("id") : null;
+    }
+
+    private String createInvitee(int n) throws Exception {
+        HttpResponse<String> response = post("/api/invitees",
+                Map.of("name", "Load Client " + n, "email", "load-client" + n + "@example.com"));
+        if (response.statusCode() != 200) throw new IllegalStateException("Could not create invitee: " + response.body());
+        return (String) json.readValue(response.body(), Map.class).get("id");
+    }
+
+    /** Parses "On 2024-05-02 the available hour slots are: 9, 10, 14"; other answers mean no free hours. */
+    static List<Integer> freeHours(String body) {
+        int colon = body.lastIndexOf(':');
+        if (colon < 0 || !body.contains("available hour slots")) return List.of();
+        List<Integer> hours = new ArrayList<>();
+        for (String h : body.substring(colon + 1).split(",")) {
+            hours.add(Integer.parseInt(h.trim()));
+        }
+        return hours;
+    }
+
+    private HttpResponse<String> post(String path, Map<String, ?> body) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(base + path)).timeout(REQUEST_TIMEOUT).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.calendar_booking_system.loadgen;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes for one client thread, so recording never contends; the per-client
+ * recorders are merged once the run is over. Rejections are keyed by the response body so the
+ * report can tell "Already occupied" races apart from other 4xx answers.
+ */
+final class LoadRecorder {
+
+    static final int MAX_REJECTION_LENGTH = 80;
+
+    final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    LoadRecorder() {
+        for (Operation op : Operation.values()) stats.put(op, new Stats());
+    }
+
+    void record(Operation op, long nanos, int status, String body) {
+        Stats s = stats.get(op);
+        s.add(nanos);
+        s.statuses.merge(Integer.toString(status), 1L, Long::sum);
+        if (status >= 400 && status < 500) {
+            String reason = body == null || body.isBlank() ? "(empty)" : body.strip();
+            if (reason.length() > MAX_REJECTION_LENGTH) reason = reason.substring(0, MAX_REJECTION_LENGTH);
+            s.rejections.merge(reason, 1L, Long::sum);
+        }
+    }
+
+    void recordIoError(Operation op, long nanos, Exception e) {
+        Stats s = stats.get(op);
+        s.add(nanos);
+        s.ioErrors.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+    }
+
+    void mergeInto(LoadRecorder total) {
+        stats.forEach((op, s) -> s.mergeInto(total.stats.get(op)));
+    }
+
+    static final class Stats {
+        long[] latencies = new long[1024];
+        int count;
+        final Map<String, Long> statuses = new TreeMap<>();
+        final Map<String, Long> rejections = new TreeMap<>();
+        final Map<String, Long> ioErrors = new TreeMap<>();
+
+        void add(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+
+        long sum(Map<String, Long> counts) {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        long serverErrors() {
+            return statuses.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith("5"))
+                    .mapToLong(Map.Entry::getValue).sum();
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private void mergeInto(Stats total) {
+            for (int i = 0; i < count; i++) total.add(latencies[i]);
+            statuses.forEach((k, v) -> total.statuses.merge(k, v, Long::sum));
+            rejections.forEach((k, v) -> total.rejections.merge(k, v, Long::sum));
+            ioErrors.forEach((k, v) -> total.ioErrors.merge(k, v, Long::sum));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.calendar_booking_system.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns the merged recorder into the JSON report and the console table. Latencies are in
+ * milliseconds; throughput is per second of the measured window (warm-up excluded).
+ */
+final class LoadReport {
+
+    static final String ALREADY_OCCUPIED = "Already occupied";
+
+    private final Workload workload;
+    private final LoadRecorder total;
+    private final double seconds;
+    private final long acceptedBookings;
+    private final long storedAppointments;
+
+    LoadReport(Workload workload, LoadRecorder total, double seconds, long acceptedBookings, long storedAppointments) {
+        this.workload = workload;
+        this.total = total;
+        this.seconds = seconds;
+        this.acceptedBookings = acceptedBookings;
+        this.storedAppointments = storedAppointments;
+    }
+
+    boolean consistent() {
+        return acceptedBookings == storedAppointments;
+    }
+
+    long serverErrors() {
+        return total.stats.values().stream().mapToLong(LoadRecorder.Stats::serverErrors).sum();
+    }
+
+    void write(Path path, ObjectMapper json) throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("finishedAt", Instant.now().toString());
+        root.put("java", Runtime.version().toString());
+        root.put("workload", workload.describe());
+        root.put("measuredSeconds", round(seconds));
+
+        long requests = 0;
+        long errors = 0;
+        long occupied = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Map.Entry<Operation, LoadRecorder.Stats> e : total.stats.entrySet()) {
+            LoadRecorder.Stats s = e.getValue();
+            if (s.count == 0) continue;
+            requests += s.count;
+            errors += s.serverErrors() + s.sum(s.ioErrors);
+            occupied += alreadyOccupied(s);
+            operations.put(e.getKey().key, operation(s));
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", requests);
+        totals.put("throughputPerSecond", round(requests / seconds));
+        totals.put("errors", errors);
+        totals.put("alreadyOccupied", occupied);
+        root.put("totals", totals);
+        root.put("operations", operations);
+
+        Map<String, Object> consistency = new LinkedHashMap<>();
+        consistency.put("acceptedBookings", acceptedBookings);
+        consistency.put("storedAppointments", storedAppointments);
+        consistency.put("consistent", consistent());
+        root.put("consistency", consistency);
+
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        json.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), root);
+    }
+
+    void print() {
+        System.out.println("operation | requests |  req/sec | p50 ms | p90 ms | p99 ms | p99.9 ms |  max ms | 4xx    | occupied | errors");
+        total.stats.forEach((op, s) -> {
+            if (s.count == 0) return;
+            long[] sorted = s.sortedLatencies();
+            System.out.printf("%-9s | %8d | %8.0f | %6.2f | %6.2f | %6.2f | %8.2f | %7.2f | %-6d | %8d | %d%n",
+                    op.key, s.count, s.count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6,
+                    s.sum(s.rejections), alreadyOccupied(s), s.serverErrors() + s.sum(s.ioErrors));
+        });
+        System.out.printf("accepted bookings %d, stored appointments %d%n", acceptedBookings, storedAppointments);
+    }
+
+    private Map<String, Object> operation(LoadRecorder.Stats s) {
+        long[] sorted = s.sortedLatencies();
+        long sum = 0;
+        for (long l : sorted) sum += l;
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(sum / (double) sorted.length / 1e6));
+        latency.put("p50", round(percentile(sorted, 0.50)));
+        latency.put("p90", round(percentile(sorted, 0.90)));
+        latency.put("p99", round(percentile(sorted, 0.99)));
+        latency.put("p999", round(percentile(sorted, 0.999)));
+        latency.put("max", round(sorted[sorted.length - 1] / 1e6));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("requests", s.count);
+        out.put("throughputPerSecond", round(s.count / seconds));
+        out.put("latencyMs", latency);
+        out.put("statusCodes", s.statuses);
+        out.put("alreadyOccupied", alreadyOccupied(s));
+        out.put("rejections", s.rejections);
+        out.put("ioErrors", s.ioErrors);
+        return out;
+    }
+
+    private static long alreadyOccupied(LoadRecorder.Stats s) {
+        return s.rejections.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(ALREADY_OCCUPIED))
+                .mapToLong(Map.Entry::getValue).sum();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.max(0, Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1))] / 1e6;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
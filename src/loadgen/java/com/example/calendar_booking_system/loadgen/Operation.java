@@ -0,0 +1,26 @@
+package com.example.calendar_booking_system.loadgen;
+
+/**
+ * The request kinds a load-generator client can issue; {@link #key} is the name used in the
+ * {@code mix=} argument and in the report.
+ */
+enum Operation {
+
+    CREATE_OWNER("create"),
+    LOOKUP("lookup"),
+    BOOK("book"),
+    SUMMARY("summary");
+
+    final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation op : values()) {
+            if (op.key.equalsIgnoreCase(key)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of create, lookup, book, summary");
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.calendar_booking_system.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Load-generator settings, parsed from {@code key=value} arguments. Keys containing a dot
+ * (e.g. {@code spring.threads.virtual.enabled=true}) are handed to the application as Spring properties.
+ */
+final class Workload {
+
+    int clients = 32;
+    int owners = 20;
+    int hotOwners = 4;
+    double hotShare = 0.5;
+    int days = 14;
+    Duration warmup = Duration.ofSeconds(5);
+    Duration duration = Duration.ofSeconds(20);
+    String profiles = "";
+    Path report = Path.of("target", "loadgen-report.json");
+    final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    final Map<String, String> springProperties = new LinkedHashMap<>();
+
+    private int totalWeight;
+
+    private Workload() {
+        mix.put(Operation.CREATE_OWNER, 1);
+        mix.put(Operation.LOOKUP, 10);
+        mix.put(Operation.BOOK, 6);
+        mix.put(Operation.SUMMARY, 3);
+    }
+
+    static Workload parse(String[] args) {
+        Workload w = new Workload();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got '" + arg + "'");
+            String key = arg.substring(0, eq).trim();
+            String value = arg.substring(eq + 1).trim();
+            switch (key) {
+                case "clients" -> w.clients = positive(key, Integer.parseInt(value));
+                case "owners" -> w.owners = positive(key, Integer.parseInt(value));
+                case "hotOwners" -> w.hotOwners = Integer.parseInt(value);
+                case "hotShare" -> w.hotShare = Double.parseDouble(value);
+                case "days" -> w.days = positive(key, Integer.parseInt(value));
+                case "warmup" -> w.warmup = seconds(value);
+                case "duration" -> w.duration = seconds(value);
+                case "profiles" -> w.profiles = value;
+                case "report" -> w.report = Path.of(value);
+                case "mix" -> w.parseMix(value);
+                default -> {
+                    if (!key.contains(".")) throw new IllegalArgumentException("Unknown setting '" + key + "'");
+                    w.springProperties.put(key, value);
+                }
+            }
+        }
+        if (w.hotOwners < 0 || w.hotOwners > w.owners) {
+            throw new IllegalArgumentException("hotOwners must be between 0 and owners");
+        }
+        if (w.hotShare < 0 || w.hotShare > 1) {
+            throw new IllegalArgumentException("hotShare must be between 0 and 1");
+        }
+        if (w.days > 15) {
+            throw new IllegalArgumentException("days must be at most 15, the booking horizon");
+        }
+        w.totalWeight = w.mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (w.totalWeight == 0) throw new IllegalArgumentException("mix needs at least one positive weight");
+        return w;
+    }
+
+    /** Draws the next operation according to the mix weights. */
+    Operation next(Random random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> e : mix.entrySet()) {
+            ticket -= e.getValue();
+            if (ticket < 0) return e.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("clients", clients);
+        out.put("owners", owners);
+        out.put("hotOwners", hotOwners);
+        out.put("hotShare", hotShare);
+        out.put("days", days);
+        out.put("warmupSeconds", warmup.toSeconds());
+        out.put("durationSeconds", duration.toSeconds());
+        out.put("profiles", profiles);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((op, weight) -> weights.put(op.key, weight));
+        out.put("mix", weights);
+        out.put("springProperties", springProperties);
+        return out;
+    }
+
+    private void parseMix(String value) {
+        mix.replaceAll((op, weight) -> 0);
+        for (String part : value.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("mix entries look like lookup:10, got '" + part + "'");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("mix weights must not be negative");
+            mix.put(Operation.fromKey(kv[0].trim()), weight);
+        }
+    }
+
+    private static Duration seconds(String value) {
+        String digits = value.endsWith("s") ? value.substring(0, value.length() - 1) : value;
+        long s = Long.parseLong(digits);
+        if (s < 0) throw new IllegalArgumentException("durations must not be negative");
+        return Duration.ofSeconds(s);
+    }
+
+    private static int positive(String key, int value) {
+        if (value <= 0) throw new IllegalArgumentException(key + " must be positive");
+        return value;
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.calendar_booking_system.controller;
 
+import com.example.calendar_booking_system.datatransferobject.OwnerPage;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.service.CalendarOwnerService;
 import com.example.calendar_booking_system.service.CalendarService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 import java.util.Set;
@@ -29,8 +33,9 @@ public class CalendarOwnerController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllOwners() {
-        return calendarOwnerService.getAllOwners();
+    public ResponseEntity<?> getOwners(@RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "" + OwnerPage.DEFAULT_SIZE) int limit) {
+        return calendarOwnerService.getOwners(cursor, limit);
     }
 
     @GetMapping("/settings/work-details/{id}")
@@ -52,4 +57,24 @@ public class CalendarOwnerController {
     public ResponseEntity<?> getTodaySummary(@PathVariable String id) {
         return calendarOwnerService.getTodaySummary(id);
     }
+
+    @GetMapping(value = "/{id}/appointments/summary", params = "format=json")
+    public ResponseEntity<StreamingResponseBody> streamFullSummary(@PathVariable String id, WebRequest request) {
+        return notModifiedOr(calendarOwnerService.streamFullSummary(id), request);
+    }
+
+    @GetMapping(value = "/{id}/appointments/today", params = "format=json")
+    public ResponseEntity<StreamingResponseBody> streamTodaySummary(@PathVariable String id, WebRequest request) {
+        return notModifiedOr(calendarOwnerService.streamTodaySummary(id), request);
+    }
+
+    // Spring skips its If-None-Match check for streamed bodies, so the ETag is compared here
+    private static ResponseEntity<StreamingResponseBody> notModifiedOr(ResponseEntity<StreamingResponseBody> response,
+                                                                       WebRequest request) {
+        String etag = response.getHeaders().getETag();
+        if (etag != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return response;
+    }
 }
\ No newline at end of file
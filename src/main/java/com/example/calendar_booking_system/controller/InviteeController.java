@@ -2,11 +2,19 @@ package com.example.calendar_booking_system.controller;
 
 import com.example.calendar_booking_system.datatransferobject.SlotRequest;
 import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsRequest;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsRequest;
+import com.example.calendar_booking_system.datatransferobject.SeriesRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeRequest;
 import com.example.calendar_booking_system.entity.Invitee;
 import com.example.calendar_booking_system.service.InviteeService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/invitees")
 public class InviteeController {
@@ -23,8 +31,13 @@ public class InviteeController {
     }
 
     @GetMapping
-    public ResponseEntity<?> getInvitee() {
-        return inviteeService.getInvitee();
+    public ResponseEntity<?> findInvitee(@RequestParam(required = false) String inviteeId) {
+        return inviteeService.getInvitee(inviteeId);
+    }
+
+    @GetMapping("/{inviteeId}")
+    public ResponseEntity<?> getInvitee(@PathVariable String inviteeId) {
+        return inviteeService.getInvitee(inviteeId);
     }
 
     @PostMapping("/available-slots")
@@ -32,18 +45,49 @@ public class InviteeController {
         return inviteeService.getAvailableSlots(req);
     }
 
+    @GetMapping("/available-slots/range")
+    public ResponseEntity<?> getAvailableSlotRange(SlotRangeRequest req) {
+        return inviteeService.getAvailableSlotRange(req);
+    }
+
+    @PostMapping("/available-slots/common")
+    public ResponseEntity<?> getCommonAvailableSlots(@RequestBody CommonSlotsRequest req) {
+        return inviteeService.getCommonAvailableSlots(req);
+    }
+
+    @GetMapping("/available-slots/gaps")
+    public ResponseEntity<?> getFreeGaps(FreeGapsRequest req) {
+        return inviteeService.getFreeGaps(req);
+    }
+
     @PostMapping("/book-appointment")
     public ResponseEntity<?> bookAppointment(@RequestBody AppointmentRequest req) {
         return inviteeService.bookAppointment(req);
     }
 
+    @PostMapping("/book-appointments")
+    public ResponseEntity<?> bookAppointments(@RequestBody BatchAppointmentRequest req) {
+        return inviteeService.bookAppointments(req);
+    }
+
+    @PostMapping("/book-series")
+    public ResponseEntity<?> bookSeries(@RequestBody SeriesRequest req) {
+        return inviteeService.bookSeries(req);
+    }
+
+    @PostMapping("/series/{seriesId}/cancellations")
+    public ResponseEntity<?> cancelSeriesOccurrence(@PathVariable String seriesId, @RequestParam String ownerId,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return inviteeService.cancelSeriesOccurrence(ownerId, seriesId, date);
+    }
+
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<?> getOwner(@PathVariable String ownerId) {
         return inviteeService.getOwner(ownerId);
     }
 
     @GetMapping("/invitee")
-    public ResponseEntity<?> getMeetingInvitee() {
-        return inviteeService.getInvitee();
+    public ResponseEntity<?> getMeetingInvitee(@RequestParam(required = false) String inviteeId) {
+        return inviteeService.getInvitee(inviteeId);
     }
 }
\ No newline at end of file
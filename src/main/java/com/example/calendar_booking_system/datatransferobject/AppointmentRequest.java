@@ -1,12 +1,15 @@
 package com.example.calendar_booking_system.datatransferobject;
 
 public class AppointmentRequest {
+    private String inviteeId; // required; the id returned when the invitee was created
     private String ownerId;
     private String subject;
     private int day;
     private int month;
     private int year;
     private int hour;
+    private int minute;          // optional; a quarter hour, defaults to 0
+    private int durationMinutes; // optional; 15-minute steps, defaults to one hour
 
     public AppointmentRequest() {}
 
@@ -19,7 +22,17 @@ public class AppointmentRequest {
         this.hour = hour;
     }
 
+    public AppointmentRequest(String ownerId, String subject, int day, int month, int year, int hour,
+                              int minute, int durationMinutes) {
+        this(ownerId, subject, day, month, year, hour);
+        this.minute = minute;
+        this.durationMinutes = durationMinutes;
+    }
+
     // Getters and Setters
+    public String getInviteeId() { return inviteeId; }
+    public void setInviteeId(String inviteeId) { this.inviteeId = inviteeId; }
+
     public String getOwnerId() { return ownerId; }
     public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
 
@@ -37,4 +50,10 @@ public class AppointmentRequest {
 
     public int getHour() { return hour; }
     public void setHour(int hour) { this.hour = hour; }
-}
\ No newline at end of file
+
+    public int getMinute() { return minute; }
+    public void setMinute(int minute) { this.minute = minute; }
+
+    public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+}
@@ -0,0 +1,22 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.util.List;
+
+public class BatchAppointmentRequest {
+    private String inviteeId; // required; the id returned when the invitee was created
+    private List<AppointmentRequest> appointments;
+
+    public BatchAppointmentRequest() {}
+
+    public BatchAppointmentRequest(String inviteeId, List<AppointmentRequest> appointments) {
+        this.inviteeId = inviteeId;
+        this.appointments = appointments;
+    }
+
+    // Getters and Setters
+    public String getInviteeId() { return inviteeId; }
+    public void setInviteeId(String inviteeId) { this.inviteeId = inviteeId; }
+
+    public List<AppointmentRequest> getAppointments() { return appointments; }
+    public void setAppointments(List<AppointmentRequest> appointments) { this.appointments = appointments; }
+}
@@ -0,0 +1,28 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class CommonSlotsRequest {
+    private List<String> ownerIds;
+    private LocalDate from; // optional; defaults to today
+    private LocalDate to;   // optional; defaults to the end of the 15-day booking window
+
+    public CommonSlotsRequest() {}
+
+    public CommonSlotsRequest(List<String> ownerIds, LocalDate from, LocalDate to) {
+        this.ownerIds = ownerIds;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and Setters
+    public List<String> getOwnerIds() { return ownerIds; }
+    public void setOwnerIds(List<String> ownerIds) { this.ownerIds = ownerIds; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,38 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class CommonSlotsResponse {
+    private List<String> ownerIds;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DaySlots> days;
+
+    // Constructor
+    public CommonSlotsResponse(List<String> ownerIds, LocalDate from, LocalDate to, List<DaySlots> days) {
+        this.ownerIds = ownerIds;
+        this.from = from;
+        this.to = to;
+        this.days = days;
+    }
+
+    // Getters
+    public List<String> getOwnerIds() { return ownerIds; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public List<DaySlots> getDays() { return days; }
+
+    public static class DaySlots {
+        private LocalDate date;
+        private List<Integer> freeHours; // hours free for every owner
+
+        public DaySlots(LocalDate date, List<Integer> freeHours) {
+            this.date = date;
+            this.freeHours = freeHours;
+        }
+
+        public LocalDate getDate() { return date; }
+        public List<Integer> getFreeHours() { return freeHours; }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public class FreeGapsRequest {
+    private String inviteeId; // required; the id returned when the invitee was created
+    private String ownerId;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate date;
+    private int durationMinutes; // optional; shortest gap wanted, defaults to 15
+
+    public FreeGapsRequest() {}
+
+    public FreeGapsRequest(String ownerId, LocalDate date, int durationMinutes) {
+        this.ownerId = ownerId;
+        this.date = date;
+        this.durationMinutes = durationMinutes;
+    }
+
+    // Getters and Setters
+    public String getInviteeId() { return inviteeId; }
+    public void setInviteeId(String inviteeId) { this.inviteeId = inviteeId; }
+
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+}
@@ -0,0 +1,39 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class FreeGapsResponse {
+    private String ownerId;
+    private LocalDate date;
+    private int durationMinutes;
+    private List<Gap> gaps;
+
+    // Constructor
+    public FreeGapsResponse(String ownerId, LocalDate date, int durationMinutes, List<Gap> gaps) {
+        this.ownerId = ownerId;
+        this.date = date;
+        this.durationMinutes = durationMinutes;
+        this.gaps = gaps;
+    }
+
+    // Getters
+    public String getOwnerId() { return ownerId; }
+    public LocalDate getDate() { return date; }
+    public int getDurationMinutes() { return durationMinutes; }
+    public List<Gap> getGaps() { return gaps; }
+
+    public static class Gap {
+        private LocalTime start;
+        private LocalTime end;
+
+        public Gap(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalTime getStart() { return start; }
+        public LocalTime getEnd() { return end; }
+    }
+}
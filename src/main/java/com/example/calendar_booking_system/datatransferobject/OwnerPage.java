@@ -0,0 +1,53 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class OwnerPage {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<Owner> owners;
+    private String nextCursor; // null on the last page
+
+    // Constructor
+    public OwnerPage(List<Owner> owners, String nextCursor) {
+        this.owners = owners;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Owner> getOwners() { return owners; }
+    public String getNextCursor() { return nextCursor; }
+
+    // Owner details without the calendar, which the summary endpoints serve
+    public static class Owner {
+        private String id;
+        private String name;
+        private String email;
+        private LocalTime workDayStart;
+        private LocalTime workDayEnd;
+        private Set<DayOfWeek> offDays;
+
+        public Owner(CalendarOwner owner) {
+            this.id = owner.getId();
+            this.name = owner.getName();
+            this.email = owner.getEmail();
+            this.workDayStart = owner.getWorkDayStart();
+            this.workDayEnd = owner.getWorkDayEnd();
+            this.offDays = new TreeSet<>(owner.getOffDays());
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public String getEmail() { return email; }
+        public LocalTime getWorkDayStart() { return workDayStart; }
+        public LocalTime getWorkDayEnd() { return workDayEnd; }
+        public Set<DayOfWeek> getOffDays() { return offDays; }
+    }
+}
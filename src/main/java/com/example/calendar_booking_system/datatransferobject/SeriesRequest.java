@@ -0,0 +1,37 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.time.LocalDate;
+
+/**
+ * A recurring appointment: the first occurrence as in {@link AppointmentRequest}, plus its rule.
+ */
+public class SeriesRequest extends AppointmentRequest {
+    private String frequency;  // DAILY or WEEKLY
+    private int interval;      // optional; every N days or weeks, defaults to 1
+    private LocalDate until;   // last possible date, inclusive; this and/or count is required
+    private int count;         // number of occurrences
+
+    public SeriesRequest() {}
+
+    public SeriesRequest(String ownerId, String subject, int day, int month, int year, int hour,
+                         String frequency, int interval, LocalDate until, int count) {
+        super(ownerId, subject, day, month, year, hour);
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getFrequency() { return frequency; }
+    public void setFrequency(String frequency) { this.frequency = frequency; }
+
+    public int getInterval() { return interval; }
+    public void setInterval(int interval) { this.interval = interval; }
+
+    public LocalDate getUntil() { return until; }
+    public void setUntil(LocalDate until) { this.until = until; }
+
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
@@ -0,0 +1,35 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public class SlotRangeRequest {
+    private String inviteeId; // required; the id returned when the invitee was created
+    private String ownerId;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from; // optional; defaults to today
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;   // optional; defaults to the end of the 15-day booking window
+
+    public SlotRangeRequest() {}
+
+    public SlotRangeRequest(String ownerId, LocalDate from, LocalDate to) {
+        this.ownerId = ownerId;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters and Setters
+    public String getInviteeId() { return inviteeId; }
+    public void setInviteeId(String inviteeId) { this.inviteeId = inviteeId; }
+
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+}
@@ -0,0 +1,41 @@
+package com.example.calendar_booking_system.datatransferobject;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class SlotRangeResponse {
+    private String ownerId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DaySlots> days;
+
+    // Constructor
+    public SlotRangeResponse(String ownerId, LocalDate from, LocalDate to, List<DaySlots> days) {
+        this.ownerId = ownerId;
+        this.from = from;
+        this.to = to;
+        this.days = days;
+    }
+
+    // Getters
+    public String getOwnerId() { return ownerId; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public List<DaySlots> getDays() { return days; }
+
+    public static class DaySlots {
+        private LocalDate date;
+        private boolean offDay;
+        private List<Integer> freeHours;
+
+        public DaySlots(LocalDate date, boolean offDay, List<Integer> freeHours) {
+            this.date = date;
+            this.offDay = offDay;
+            this.freeHours = freeHours;
+        }
+
+        public LocalDate getDate() { return date; }
+        public boolean isOffDay() { return offDay; }
+        public List<Integer> getFreeHours() { return freeHours; }
+    }
+}
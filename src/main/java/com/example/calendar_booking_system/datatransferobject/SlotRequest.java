@@ -1,11 +1,14 @@
 package com.example.calendar_booking_system.datatransferobject;
 
 public class SlotRequest {
+    private String inviteeId; // required; the id returned when the invitee was created
     private String ownerId;
     private int year;
     private int month;
     private int day;
 
+    public SlotRequest() {}
+
     public SlotRequest(String ownerId, int year, int month, int day) {
         this.ownerId = ownerId;
         this.year = year;
@@ -14,6 +17,9 @@ public class SlotRequest {
     }
 
     // getters and setters
+    public String getInviteeId() { return inviteeId; }
+    public void setInviteeId(String inviteeId) { this.inviteeId = inviteeId; }
+
     public String getOwnerId() { return ownerId; }
     public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
 
@@ -1,5 +1,8 @@
 package com.example.calendar_booking_system.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -9,16 +12,52 @@ public class Appointment implements Comparable<Appointment>{
     private final String subject;      // new field for appointment subject
     private final Invitee invitee;     // who created the appointment
     private final CalendarOwner owner; // whose calendar is being booked
-    private final int appointmentDuration = 1;
+    private final LocalDateTime endTime; // exclusive
+
+    public static final Duration DEFAULT_DURATION = Duration.ofHours(1);
 
     public Appointment(LocalDateTime startTime, String subject, Invitee invitee, CalendarOwner owner) {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), startTime, DEFAULT_DURATION, subject, invitee, owner);
+    }
+
+    public Appointment(LocalDateTime startTime, Duration duration, String subject, Invitee invitee, CalendarOwner owner) {
+        this(UUID.randomUUID().toString(), startTime, duration, subject, invitee, owner);
+    }
+
+    // Restores an appointment loaded from storage under its original id
+    public Appointment(String id, LocalDateTime startTime, String subject, Invitee invitee, CalendarOwner owner) {
+        this(id, startTime, DEFAULT_DURATION, subject, invitee, owner);
+    }
+
+    public Appointment(String id, LocalDateTime startTime, Duration duration, String subject, Invitee invitee,
+                       CalendarOwner owner) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Appointment duration must be positive: " + duration);
+        }
+        this.id = id;
         this.startTime = startTime;
+        this.endTime = startTime.plus(duration);
         this.subject = subject;
         this.invitee = invitee;
         this.owner = owner;
     }
 
+    private Appointment(LocalDateTime startTime) {
+        this.id = null;
+        this.startTime = startTime;
+        this.endTime = startTime;
+        this.subject = null;
+        this.invitee = null;
+        this.owner = null;
+    }
+
+    /**
+     * Search key for range queries over start-ordered sets; never stored.
+     */
+    static Appointment probe(LocalDateTime startTime) {
+        return new Appointment(startTime);
+    }
+
     // Getters
     public String getId() {
         return id;
@@ -32,15 +71,21 @@ public class Appointment implements Comparable<Appointment>{
         return subject;
     }
 
-    // Derived value: endTime = startTime + 1 hour
     public LocalDateTime getEndTime() {
-        return startTime.plusHours(appointmentDuration);
+        return endTime;
+    }
+
+    public long getDurationMinutes() {
+        return Duration.between(startTime, endTime).toMinutes();
     }
 
+    // Back-references are rendered without their appointment collections to avoid a cycle
+    @JsonIgnoreProperties("appointments")
     public Invitee getInvitee() {
         return invitee;
     }
 
+    @JsonIgnoreProperties("calendar")
     public CalendarOwner getOwner() {
         return owner;
     }
@@ -0,0 +1,120 @@
+package com.example.calendar_booking_system.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A recurring appointment stored once. Its occurrences are only turned into {@link Appointment}s
+ * for the window being looked at; cancelled occurrences are the only per-date state kept.
+ */
+public class AppointmentSeries {
+    private final String id;
+    private final LocalDateTime firstStart;
+    private final Duration duration;
+    private final RecurrenceRule rule;
+    private final String subject;
+    private final Invitee invitee;
+    private final CalendarOwner owner;
+    private final LocalDate lastDate;
+    private final Set<LocalDate> cancelled = ConcurrentHashMap.newKeySet();
+
+    public AppointmentSeries(LocalDateTime firstStart, Duration duration, RecurrenceRule rule, String subject,
+                             Invitee invitee, CalendarOwner owner) {
+        this(UUID.randomUUID().toString(), firstStart, duration, rule, subject, invitee, owner, List.of());
+    }
+
+    // Restores a series loaded from storage under its original id, with its cancellations
+    public AppointmentSeries(String id, LocalDateTime firstStart, Duration duration, RecurrenceRule rule, String subject,
+                             Invitee invitee, CalendarOwner owner, Collection<LocalDate> cancelledDates) {
+        int occurrences = rule.occurrenceCount(firstStart.toLocalDate());
+        if (occurrences == 0) throw new IllegalArgumentException("The recurrence ends before its first occurrence");
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(Duration.ofDays(rule.stepDays())) >= 0) {
+            throw new IllegalArgumentException("Occurrences must be shorter than the time between them: " + duration);
+        }
+        this.id = id;
+        this.firstStart = firstStart;
+        this.duration = duration;
+        this.rule = rule;
+        this.subject = subject;
+        this.invitee = invitee;
+        this.owner = owner;
+        this.lastDate = firstStart.toLocalDate().plusDays((long) (occurrences - 1) * rule.stepDays());
+        this.cancelled.addAll(cancelledDates);
+    }
+
+    public String getId() { return id; }
+    public LocalDateTime getFirstStart() { return firstStart; }
+    public long getDurationMinutes() { return duration.toMinutes(); }
+    public RecurrenceRule getRule() { return rule; }
+    public String getSubject() { return subject; }
+
+    @JsonIgnoreProperties("appointments")
+    public Invitee getInvitee() { return invitee; }
+
+    @JsonIgnoreProperties("calendar")
+    public CalendarOwner getOwner() { return owner; }
+
+    public LocalDate getLastDate() { return lastDate; }
+
+    /** End of the last occurrence, cancelled or not: the series is over after it. */
+    public LocalDateTime getLastEnd() {
+        return lastDate.atTime(firstStart.toLocalTime()).plus(duration);
+    }
+
+    public SortedSet<LocalDate> getCancelledDates() {
+        return new TreeSet<>(cancelled);
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    /** True if the rule puts an occurrence on {@code date}, cancelled or not. */
+    public boolean isOccurrenceDate(LocalDate date) {
+        LocalDate first = firstStart.toLocalDate();
+        if (date.isBefore(first) || date.isAfter(lastDate)) return false;
+        return ChronoUnit.DAYS.between(first, date) % rule.stepDays() == 0;
+    }
+
+    /**
+     * The live occurrences starting on any day from {@code from} to {@code to} inclusive, in order,
+     * as appointments with the id {@code <series id>@<date>}. Only this window is expanded.
+     */
+    public List<Appointment> occurrencesBetween(LocalDate from, LocalDate to) {
+        LocalDate first = firstStart.toLocalDate();
+        LocalDate end = to.isAfter(lastDate) ? lastDate : to;
+        List<Appointment> occurrences = new ArrayList<>();
+        for (LocalDate date = first.plusDays(rule.firstIndexOnOrAfter(first, from) * rule.stepDays());
+             !date.isAfter(end); date = date.plusDays(rule.stepDays())) {
+            if (cancelled.contains(date)) continue;
+            occurrences.add(new Appointment(id + "@" + date, date.atTime(firstStart.toLocalTime()), duration,
+                    subject, invitee, owner));
+        }
+        return occurrences;
+    }
+
+    /** True if a live occurrence overlaps {@code [start, end)}. */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        for (Appointment occurrence : occurrencesBetween(start.minus(duration).toLocalDate(), end.toLocalDate())) {
+            if (occurrence.getStartTime().isBefore(end) && occurrence.getEndTime().isAfter(start)) return true;
+        }
+        return false;
+    }
+
+    // Only through the calendar, which versions the change
+    boolean cancel(LocalDate date) {
+        return isOccurrenceDate(date) && cancelled.add(date);
+    }
+}
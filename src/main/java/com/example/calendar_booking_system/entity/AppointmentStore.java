@@ -0,0 +1,55 @@
+package com.example.calendar_booking_system.entity;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * Where a {@link Calendar} keeps its booked and reserved appointments. Claimed times never overlap,
+ * so each claim is identified by its start. Writes are made under the calendar's write lock; reads
+ * take no lock and see either the state before or after a write.
+ */
+interface AppointmentStore {
+
+    /**
+     * Claims the times of start-ordered appointments that overlap nothing claimed; booked ones also
+     * join the ordered view, reserved ones wait for {@link #publish}.
+     */
+    void claim(List<Appointment> sorted, boolean booked);
+
+    /**
+     * Moves reserved appointments into the ordered view.
+     */
+    void publish(Collection<Appointment> reserved);
+
+    /**
+     * Gives back the claims of the given appointments and returns those that were still claimed.
+     */
+    List<Appointment> release(Collection<Appointment> appointments);
+
+    /**
+     * Removes booked appointments that ended at or before {@code now} and returns them.
+     */
+    List<Appointment> removeEnded(LocalDateTime now);
+
+    /**
+     * True if a claim overlaps {@code [start, end)}.
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Claims overlapping {@code [start, end)} in start order.
+     */
+    List<Appointment> claimsOverlapping(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Read-only, start-ordered booked appointments starting in {@code [from, to)}.
+     */
+    NavigableSet<Appointment> booked(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Read-only, start-ordered booked appointments.
+     */
+    NavigableSet<Appointment> booked();
+}
@@ -1,27 +1,443 @@
 package com.example.calendar_booking_system.entity;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.UUID;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 
 public class Calendar {
     private final String id;
-    private final Set<Appointment> appointments = Collections.synchronizedSet(new TreeSet<>());
+    private final CalendarStorage storage;
+
+    // Booked and reserved appointments and the interval index over their times. Written under writeLock, read without it
+    private final AppointmentStore store;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Recurring appointments, one entry per series however many occurrences it has; written under writeLock
+    private final List<AppointmentSeries> series = new CopyOnWriteArrayList<>();
+
+    // epoch day -> bitmask of hours overlapped by a claim (bit h set = some of hour h is taken),
+    // derived from the index for the hour-slot queries
+    private final Map<Long, AtomicLong> occupiedHoursByDay = new ConcurrentHashMap<>();
+
+    // Bumped after (never before) each change, so a version read before a computation is never newer than its input
+    private final AtomicLong version = new AtomicLong();
 
     public Calendar() {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString());
+    }
+
+    // Restores a calendar loaded from storage under its original id
+    public Calendar(String id) {
+        this(id, CalendarStorage.OBJECTS);
+    }
+
+    public Calendar(String id, CalendarStorage storage) {
+        this.id = id;
+        this.storage = storage;
+        this.store = storage.newStore();
     }
 
     public String getId() {
         return id;
     }
 
-    public Set<Appointment> getAppointments() {
-        return appointments;
+    public CalendarStorage getStorage() {
+        return storage;
+    }
+
+    public NavigableSet<Appointment> getAppointments() {
+        return store.booked();
+    }
+
+    /**
+     * Monotonically increasing counter that changes whenever appointments or booked hours change.
+     * Anything derived from this calendar can be cached under the version read before deriving it.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Read-only view of the appointments starting on any day from {@code from} to {@code to}
+     * inclusive, in start order, series occurrences included. Without series the object store copies
+     * nothing; otherwise the occurrences in the range are expanded and merged into a copy.
+     */
+    public NavigableSet<Appointment> getAppointmentsBetween(LocalDate from, LocalDate to) {
+        NavigableSet<Appointment> single = store.booked(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        if (series.isEmpty()) return single;
+
+        NavigableSet<Appointment> merged = new TreeSet<>(single);
+        for (AppointmentSeries s : series) merged.addAll(s.occurrencesBetween(from, to));
+        return Collections.unmodifiableNavigableSet(merged);
+    }
+
+    public List<AppointmentSeries> getSeries() {
+        return Collections.unmodifiableList(series);
     }
 
+    public AppointmentSeries findSeries(String seriesId) {
+        for (AppointmentSeries s : series) {
+            if (s.getId().equals(seriesId)) return s;
+        }
+        return null;
+    }
+
+    /**
+     * Adds a series if none of its occurrences overlaps a booked, reserved or recurring appointment.
+     * Every occurrence is checked once here, so later checks only expand the window they look at.
+     */
+    public boolean tryAddSeries(AppointmentSeries added) {
+        return tryAddSeries(added, LockTimings.NONE);
+    }
+
+    /**
+     * As {@link #tryAddSeries(AppointmentSeries)}, reporting the write lock's wait and hold times.
+     */
+    public boolean tryAddSeries(AppointmentSeries added, LockTimings timings) {
+        long requested = System.nanoTime();
+        long acquired = lock();
+        try {
+            for (Appointment occurrence : added.occurrencesBetween(added.getFirstStart().toLocalDate(), added.getLastDate())) {
+                if (overlaps(occurrence.getStartTime(), occurrence.getEndTime())) return false;
+            }
+            series.add(added);
+        } finally {
+            unlock(timings, requested, acquired);
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Adds a series unconditionally, replacing one with the same id (e.g. restored with newer cancellations).
+     */
+    public void addSeries(AppointmentSeries restored) {
+        writeLock.lock();
+        try {
+            series.removeIf(s -> s.getId().equals(restored.getId()));
+            series.add(restored);
+        } finally {
+            writeLock.unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Cancels the occurrence of a series on one date, freeing its time. Returns false if the series
+     * has no live occurrence that day.
+     */
+    public boolean cancelOccurrence(AppointmentSeries cancelled, LocalDate date) {
+        writeLock.lock();
+        try {
+            if (!series.contains(cancelled) || !cancelled.cancel(date)) return false;
+        } finally {
+            writeLock.unlock();
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Adds an appointment unconditionally, marking its time as taken.
+     */
     public void addAppointment(Appointment appointment) {
-        this.appointments.add(appointment);
+        writeLock.lock();
+        try {
+            claim(List.of(appointment), true);
+        } finally {
+            writeLock.unlock();
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Books the appointment only if nothing booked, reserved or recurring overlaps it: its time is
+     * claimed in the interval index and it joins the ordered view under the calendar's write lock.
+     * Returns false when the time is already taken. A time that is already taken when the call
+     * starts is rejected by a lock-free read of the index, without waiting for the lock; only
+     * attempts that may win take it, and check again under it.
+     */
+    public boolean tryBook(Appointment appointment) {
+        return tryBook(appointment, LockTimings.NONE);
+    }
+
+    /**
+     * As {@link #tryBook(Appointment)}, reporting the write lock's wait and hold times.
+     */
+    public boolean tryBook(Appointment appointment, LockTimings timings) {
+        if (overlaps(appointment.getStartTime(), appointment.getEndTime())) return false;
+        long requested = System.nanoTime();
+        long acquired = lock();
+        try {
+            if (overlaps(appointment.getStartTime(), appointment.getEndTime())) return false;
+            claim(List.of(appointment), true);
+        } finally {
+            unlock(timings, requested, acquired);
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Claims the times of all given appointments without inserting them, all at once: if any of them
+     * overlaps a booked or reserved appointment, or another appointment of the batch, nothing is
+     * claimed and false is returned. A successful reservation must be followed by
+     * {@link #commitReservation} or {@link #releaseReservation}. Like {@link #tryBook}, a batch
+     * overlapping a time already taken is turned away before the lock.
+     */
+    public boolean tryReserve(Collection<Appointment> batch) {
+        return tryReserve(batch, LockTimings.NONE);
+    }
+
+    /**
+     * As {@link #tryReserve(Collection)}, reporting the write lock's wait and hold times.
+     */
+    public boolean tryReserve(Collection<Appointment> batch, LockTimings timings) {
+        List<Appointment> sorted = new ArrayList<>(batch);
+        sorted.sort(null);
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime())) return false;
+        }
+        for (Appointment appointment : sorted) {
+            if (overlaps(appointment.getStartTime(), appointment.getEndTime())) return false;
+        }
+
+        long requested = System.nanoTime();
+        long acquired = lock();
+        try {
+            for (Appointment appointment : sorted) {
+                if (overlaps(appointment.getStartTime(), appointment.getEndTime())) return false;
+            }
+            claim(sorted, false);
+        } finally {
+            unlock(timings, requested, acquired);
+        }
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Inserts appointments whose times were claimed by {@link #tryReserve} into the ordered view.
+     */
+    public void commitReservation(Collection<Appointment> batch) {
+        commitReservation(batch, LockTimings.NONE);
+    }
+
+    /**
+     * As {@link #commitReservation(Collection)}, reporting the write lock's wait and hold times.
+     */
+    public void commitReservation(Collection<Appointment> batch, LockTimings timings) {
+        long requested = System.nanoTime();
+        long acquired = lock();
+        try {
+            store.publish(batch);
+        } finally {
+            unlock(timings, requested, acquired);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Gives back times claimed by {@link #tryReserve} that will not be committed.
+     */
+    public void releaseReservation(Collection<Appointment> batch) {
+        releaseReservation(batch, LockTimings.NONE);
+    }
+
+    /**
+     * As {@link #releaseReservation(Collection)}, reporting the write lock's wait and hold times.
+     */
+    public void releaseReservation(Collection<Appointment> batch, LockTimings timings) {
+        long requested = System.nanoTime();
+        long acquired = lock();
+        try {
+            release(store.release(batch));
+        } finally {
+            unlock(timings, requested, acquired);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * True while the appointment's time is held by {@link #tryReserve}: neither committed nor
+     * released yet. Read without the lock, so a reservation settling meanwhile may still show as held.
+     */
+    public boolean isReserved(Appointment appointment) {
+        LocalDateTime start = appointment.getStartTime();
+        boolean claimed = false;
+        for (Appointment claim : store.claimsOverlapping(start, appointment.getEndTime())) {
+            if (claim.getId().equals(appointment.getId())) claimed = true;
+        }
+        if (!claimed) return false;
+        for (Appointment booked : store.booked(start, start.plusMinutes(1))) {
+            if (booked.getId().equals(appointment.getId())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes every appointment that has ended at or before the given time.
+     * Returns the number of appointments removed.
+     */
+    public int removeEndedAppointments(LocalDateTime now) {
+        int removed;
+        writeLock.lock();
+        try {
+            List<Appointment> ended = store.removeEnded(now);
+            release(ended);
+            // Past days can no longer be booked, so an empty word is safe to drop
+            for (Appointment app : ended) {
+                for (LocalDate day = app.getStartTime().toLocalDate(); day.isBefore(now.toLocalDate()); day = day.plusDays(1)) {
+                    AtomicLong word = occupiedHoursByDay.get(day.toEpochDay());
+                    if (word != null && word.get() == 0) occupiedHoursByDay.remove(day.toEpochDay(), word);
+                }
+            }
+            removed = ended.size();
+        } finally {
+            writeLock.unlock();
+        }
+        for (AppointmentSeries s : series) {
+            if (s.getLastEnd().isAfter(now)) continue;
+            writeLock.lock();
+            try {
+                if (series.remove(s)) removed++;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        if (removed > 0) version.incrementAndGet();
+        return removed;
+    }
+
+    /**
+     * True if any booked, reserved or recurring appointment overlaps {@code [start, end)}. Booked
+     * times never overlap each other, so only the last one starting before {@code end} needs
+     * checking: one O(log n) lookup in the interval index. Each series only expands the
+     * occurrences that could reach the range.
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        if (store.overlaps(start, end)) return true;
+        for (AppointmentSeries s : series) {
+            if (s.overlaps(start, end)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Booked, reserved and recurring appointments overlapping {@code [start, end)}, in start order:
+     * the one running into {@code start}, if any, and those starting inside the range.
+     */
+    public List<Appointment> getClaimsOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Appointment> overlapping = store.claimsOverlapping(start, end);
+        if (series.isEmpty()) return overlapping;
+        for (AppointmentSeries s : series) {
+            for (Appointment occurrence : s.occurrencesBetween(start.minus(s.duration()).toLocalDate(), end.toLocalDate())) {
+                if (occurrence.getStartTime().isBefore(end) && occurrence.getEndTime().isAfter(start)) overlapping.add(occurrence);
+            }
+        }
+        overlapping.sort(null);
+        return overlapping;
+    }
+
+    /**
+     * Bitmask of the hours of the given date that any booked time overlaps, bit h standing for hour h.
+     * Series occurrences on the date (or running into it) are expanded and added in.
+     */
+    public long getOccupiedHours(LocalDate date) {
+        AtomicLong word = occupiedHoursByDay.get(date.toEpochDay());
+        long hours = word != null ? word.get() : 0L;
+        for (AppointmentSeries s : series) {
+            for (Appointment occurrence : s.occurrencesBetween(date.atStartOfDay().minus(s.duration()).toLocalDate(), date)) {
+                hours |= hoursTouched(occurrence, date.toEpochDay());
+            }
+        }
+        return hours;
+    }
+
+    public boolean isHourOccupied(LocalDate date, int hour) {
+        return (getOccupiedHours(date) & (1L << hour)) != 0;
+    }
+
+    // Takes the write lock and returns when it got it
+    private long lock() {
+        writeLock.lock();
+        return System.nanoTime();
+    }
+
+    private void unlock(LockTimings timings, long requested, long acquired) {
+        writeLock.unlock();
+        timings.record(acquired - requested, System.nanoTime() - acquired);
+    }
+
+    // Caller holds the write lock
+    private void claim(List<Appointment> sorted, boolean booked) {
+        store.claim(sorted, booked);
+        for (Appointment appointment : sorted) {
+            forEachDay(appointment, (day, mask) -> dayWord(day).getAndAccumulate(mask, (a, b) -> a | b));
+        }
+    }
+
+    // Caller holds the write lock and has already removed the claims from the store. An hour can be
+    // shared by several short appointments, so the affected days' words are rebuilt from what is
+    // still claimed rather than cleared bit by bit
+    private void release(List<Appointment> released) {
+        for (Appointment appointment : released) {
+            forEachDay(appointment, (day, mask) -> {
+                LocalDateTime dayStart = LocalDate.ofEpochDay(day).atStartOfDay();
+                long word = 0;
+                for (Appointment other : store.claimsOverlapping(dayStart, dayStart.plusDays(1))) {
+                    word |= hoursTouched(other, day);
+                }
+                dayWord(day).set(word);
+            });
+        }
+    }
+
+    private AtomicLong dayWord(long day) {
+        AtomicLong word = occupiedHoursByDay.get(day);
+        return word != null ? word : occupiedHoursByDay.computeIfAbsent(day, d -> new AtomicLong());
+    }
+
+    private static void forEachDay(Appointment appointment, BiConsumer<Long, Long> action) {
+        long first = appointment.getStartTime().toLocalDate().toEpochDay();
+        long last = appointment.getEndTime().minusNanos(1).toLocalDate().toEpochDay();
+        for (long day = first; day <= last; day++) {
+            action.accept(day, hoursTouched(appointment, day));
+        }
+    }
+
+    // Bits of the hours of the given day that the appointment overlaps
+    private static long hoursTouched(Appointment appointment, long day) {
+        LocalDateTime dayStart = LocalDate.ofEpochDay(day).atStartOfDay();
+        LocalDateTime start = appointment.getStartTime().isBefore(dayStart) ? dayStart : appointment.getStartTime();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        LocalDateTime end = appointment.getEndTime().isAfter(dayEnd) ? dayEnd : appointment.getEndTime();
+        if (!end.isAfter(start)) return 0L;
+        int firstHour = start.getHour();
+        int lastHour = end.equals(dayEnd) ? 23 : end.minusNanos(1).getHour();
+        return (-1L >>> (63 - (lastHour - firstHour))) << firstHour;
+    }
+
+    /**
+     * Told, after a booking write, how long it waited for the calendar's write lock and then held it.
+     */
+    @FunctionalInterface
+    public interface LockTimings {
+
+        LockTimings NONE = (waitNanos, holdNanos) -> {};
+
+        void record(long waitNanos, long holdNanos);
     }
-}
\ No newline at end of file
+}
@@ -1,37 +1,45 @@
 package com.example.calendar_booking_system.entity;
 
 import java.time.LocalTime;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.UUID;
 import java.time.DayOfWeek;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CalendarOwner {
     private final String id;     // auto-generated UUID
     private String name;
     private String email;
     private Calendar calendar;   // one-to-one relation
-    private LocalTime workDayStart;
-    private LocalTime workDayEnd;
-    private Set<DayOfWeek> offDays;
+    // Working hours and off days, replaced as a whole so readers always see one consistent week
+    private final AtomicReference<WorkWeek> workWeek = new AtomicReference<>(WorkWeek.DEFAULT);
 
     public CalendarOwner() {
         this.id = UUID.randomUUID().toString();
         this.name = "Bob";
         this.email = "example@com";
         this.calendar = new Calendar(); // auto-generate calendar
-        this.workDayStart = LocalTime.of(9, 0); // default 9 AM
-        this.workDayEnd = LocalTime.of(17, 0);  // default 5 PM
-        this.offDays = new HashSet<>();
     }
     public CalendarOwner(String name, String email) {
-        this.id = UUID.randomUUID().toString();
+        this(name, email, CalendarStorage.OBJECTS);
+    }
+
+    // A new owner whose calendar keeps its appointments in the given storage
+    public CalendarOwner(String name, String email, CalendarStorage storage) {
+        this(UUID.randomUUID().toString(), name, email, new Calendar(UUID.randomUUID().toString(), storage));
+    }
+
+    // Restores an owner loaded from storage under its original id (with a fresh calendar until one is set)
+    public CalendarOwner(String id, String name, String email) {
+        this(id, name, email, new Calendar());
+    }
+
+    private CalendarOwner(String id, String name, String email, Calendar calendar) {
+        this.id = id;
         this.name = name;
         this.email = email;
-        this.calendar = new Calendar(); // auto-generate calendar
-        this.workDayStart = LocalTime.of(9, 0); // default 9 AM
-        this.workDayEnd = LocalTime.of(17, 0);  // default 5 PM
-        this.offDays = new HashSet<>();
+        this.calendar = calendar;
     }
 
     // Getters only for id
@@ -48,30 +56,45 @@ public class CalendarOwner {
         this.name = name;
     }
 
-    public LocalTime getWorkDayStart() { return workDayStart; }
+    public LocalTime getWorkDayStart() { return workWeek.get().getStart(); }
 
     public void setWorkHours(LocalTime start, LocalTime end) {
-        if (end.isBefore(start)) {
-            throw new IllegalArgumentException("End time must be after start time");
-        }
-        this.workDayStart = start;
-        this.workDayEnd = end;
+        workWeek.updateAndGet(week -> week.withHours(start, end));
     }
 
-    public LocalTime getWorkDayEnd() { return workDayEnd; }
+    public LocalTime getWorkDayEnd() { return workWeek.get().getEnd(); }
 
-    public Set<DayOfWeek> getOffDays() { return offDays; }
+    public Set<DayOfWeek> getOffDays() { return workWeek.get().getOffDays(); }
 
     public void setOffDays(Set<DayOfWeek> offDays) {
-        this.offDays = offDays;
+        workWeek.updateAndGet(week -> week.withOffDays(offDays));
     }
 
     public void addOffDay(DayOfWeek day) {
-        this.offDays.add(day);
+        workWeek.updateAndGet(week -> {
+            Set<DayOfWeek> days = EnumSet.of(day);
+            days.addAll(week.getOffDays());
+            return week.withOffDays(days);
+        });
     }
 
     public void removeOffDay(DayOfWeek day) {
-        this.offDays.remove(day);
+        workWeek.updateAndGet(week -> {
+            Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+            days.addAll(week.getOffDays());
+            days.remove(day);
+            return week.withOffDays(days);
+        });
+    }
+
+    // Hours and off days in one step, so no reader sees the new hours with the old off days
+    public void setWorkDetails(LocalTime start, LocalTime end, Set<DayOfWeek> offDays) {
+        workWeek.set(new WorkWeek(start, end, offDays));
+    }
+
+    // The current compiled week; read it once and use that instance for a whole computation
+    public WorkWeek workWeek() {
+        return workWeek.get();
     }
 
     public String getEmail() {
@@ -0,0 +1,39 @@
+package com.example.calendar_booking_system.entity;
+
+/**
+ * How a calendar keeps its booked and reserved appointments, chosen with {@code calendar.storage}.
+ */
+public enum CalendarStorage {
+
+    /** Appointment objects in skip lists; reads share them without copying. */
+    OBJECTS {
+        @Override
+        AppointmentStore newStore() {
+            return new ObjectAppointmentStore();
+        }
+    },
+
+    /**
+     * Parallel primitive columns (epoch minutes, UUID bits, shared subject and invitee references);
+     * appointment objects are only built for the results of a read.
+     */
+    COMPACT {
+        @Override
+        AppointmentStore newStore() {
+            return new CompactAppointmentStore();
+        }
+    },
+
+    /**
+     * Fixed-width records in direct buffers outside the heap, found through an on-heap index of
+     * starts; for large calendars whose bookings should not add to collection work.
+     */
+    OFF_HEAP {
+        @Override
+        AppointmentStore newStore() {
+            return new OffHeapAppointmentStore();
+        }
+    };
+
+    abstract AppointmentStore newStore();
+}
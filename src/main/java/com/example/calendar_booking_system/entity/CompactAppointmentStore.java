@@ -0,0 +1,307 @@
+package com.example.calendar_booking_system.entity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Appointments as rows of parallel primitive columns ordered by start: start as epoch minutes, length
+ * in minutes, the id's UUID bits, and references to the (interned) subject and the invitee. The
+ * owner is kept once per calendar. About 33 bytes a row instead of the few hundred that an
+ * appointment object, its times and id string, and its skip-list nodes take.
+ *
+ * <p>Rows are published as an immutable {@link Table}: a write builds a new one (or appends past
+ * the end of the current one's arrays, which no published table reads) and swaps it in, so readers
+ * take no lock. Appointment objects are only built for what a read returns. Times are kept to the
+ * minute; anything finer is rejected.
+ */
+final class CompactAppointmentStore implements AppointmentStore {
+
+    private static final byte BOOKED = 1;
+
+    // Written under the calendar's write lock
+    private volatile Table table = Table.EMPTY;
+
+    @Override
+    public void claim(List<Appointment> sorted, boolean booked) {
+        if (sorted.isEmpty()) return;
+        Table current = table;
+        CalendarOwner owner = current.size > 0 ? current.owner : sorted.get(0).getOwner();
+        boolean oddIds = false;
+        boolean otherOwners = false;
+        for (Appointment appointment : sorted) {
+            minuteOf(appointment.getStartTime());
+            minuteOf(appointment.getEndTime());
+            oddIds |= uuidOf(appointment.getId()) == null;
+            otherOwners |= appointment.getOwner() != owner;
+        }
+
+        int first = minuteOf(sorted.get(0).getStartTime());
+        int size = current.size;
+        if (size > 0 && first > current.starts[size - 1] && size + sorted.size() <= current.starts.length
+                && (!oddIds || current.oddIds != null) && (!otherOwners || current.owners != null)) {
+            // Appending: rows past the current size are read by no published table
+            for (Appointment appointment : sorted) current.set(size++, appointment, booked);
+            table = current.withSize(size);
+            return;
+        }
+
+        Table next = new Table(grow(size + sorted.size()), owner,
+                oddIds || current.oddIds != null, otherOwners || current.owners != null);
+        int row = 0;
+        int i = 0;
+        for (Appointment appointment : sorted) {
+            int start = minuteOf(appointment.getStartTime());
+            while (i < size && current.starts[i] < start) next.copy(row++, current, i++);
+            // An unconditional add at a taken start replaces the claim there
+            if (i < size && current.starts[i] == start) i++;
+            next.set(row++, appointment, booked);
+        }
+        while (i < size) next.copy(row++, current, i++);
+        table = next.withSize(row);
+    }
+
+    @Override
+    public void publish(Collection<Appointment> reserved) {
+        Table current = table;
+        byte[] flags = current.flags.clone();
+        for (Appointment appointment : reserved) {
+            int row = current.rowOf(appointment);
+            if (row >= 0) flags[row] |= BOOKED;
+        }
+        table = current.withFlags(flags);
+    }
+
+    @Override
+    public List<Appointment> release(Collection<Appointment> appointments) {
+        Table current = table;
+        boolean[] dropped = new boolean[current.size];
+        List<Appointment> released = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            int row = current.rowOf(appointment);
+            if (row >= 0 && !dropped[row]) {
+                dropped[row] = true;
+                released.add(appointment);
+            }
+        }
+        if (!released.isEmpty()) table = current.without(dropped, released.size());
+        return released;
+    }
+
+    @Override
+    public List<Appointment> removeEnded(LocalDateTime now) {
+        Table current = table;
+        long minute = floorMinute(now);
+        boolean[] dropped = new boolean[current.size];
+        List<Appointment> removed = new ArrayList<>();
+        // Ordered by start: nothing starting after now has ended, but a long appointment can outlast later short ones
+        for (int row = 0; row < current.size && current.starts[row] <= minute; row++) {
+            if ((current.flags[row] & BOOKED) == 0 || current.end(row) > minute) continue;
+            dropped[row] = true;
+            removed.add(current.appointment(row));
+        }
+        if (!removed.isEmpty()) table = current.without(dropped, removed.size());
+        return removed;
+    }
+
+    @Override
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Table current = table;
+        int before = current.firstAtOrAfter(ceilMinute(end)) - 1;
+        return before >= 0 && current.end(before) > floorMinute(start);
+    }
+
+    @Override
+    public List<Appointment> claimsOverlapping(LocalDateTime start, LocalDateTime end) {
+        Table current = table;
+        List<Appointment> overlapping = new ArrayList<>();
+        int row = current.firstAtOrAfter(ceilMinute(start));
+        if (row > 0 && current.end(row - 1) > floorMinute(start)) overlapping.add(current.appointment(row - 1));
+        for (long until = ceilMinute(end); row < current.size && current.starts[row] < until; row++) {
+            overlapping.add(current.appointment(row));
+        }
+        return overlapping;
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked(LocalDateTime from, LocalDateTime to) {
+        Table current = table;
+        return current.booked(current.firstAtOrAfter(ceilMinute(from)), current.firstAtOrAfter(ceilMinute(to)));
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked() {
+        Table current = table;
+        return current.booked(0, current.size);
+    }
+
+    private static int grow(int needed) {
+        return Math.max(8, needed + (needed >> 1));
+    }
+
+    private static long floorMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long ceilMinute(LocalDateTime time) {
+        long minute = floorMinute(time);
+        return time.getSecond() == 0 && time.getNano() == 0 ? minute : minute + 1;
+    }
+
+    private static int minuteOf(LocalDateTime time) {
+        long minute = floorMinute(time);
+        if (time.getSecond() != 0 || time.getNano() != 0 || minute != (int) minute) {
+            throw new IllegalArgumentException("Compact storage keeps whole minutes within int range: " + time);
+        }
+        return (int) minute;
+    }
+
+    // The UUID an id is the canonical text of, or null if it is anything else
+    private static UUID uuidOf(String id) {
+        if (id == null || id.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rows {@code [0, size)} of the column arrays, which may be longer. Never changed below its size
+     * once published.
+     */
+    private static final class Table {
+
+        static final Table EMPTY = new Table(0, null, false, false);
+
+        final int size;
+        final int[] starts;         // epoch minutes
+        final int[] lengths;        // minutes
+        final long[] idHigh;
+        final long[] idLow;
+        final String[] oddIds;      // ids that are not a canonical UUID; null until one is stored
+        final String[] subjects;    // interned, so repeated subjects share one string
+        final Invitee[] invitees;
+        final byte[] flags;
+        final CalendarOwner owner;
+        final CalendarOwner[] owners; // null while every row belongs to owner
+
+        Table(int capacity, CalendarOwner owner, boolean oddIds, boolean owners) {
+            this(0, new int[capacity], new int[capacity], new long[capacity], new long[capacity],
+                    oddIds ? new String[capacity] : null, new String[capacity], new Invitee[capacity],
+                    new byte[capacity], owner, owners ? new CalendarOwner[capacity] : null);
+        }
+
+        private Table(int size, int[] starts, int[] lengths, long[] idHigh, long[] idLow, String[] oddIds,
+                      String[] subjects, Invitee[] invitees, byte[] flags, CalendarOwner owner, CalendarOwner[] owners) {
+            this.size = size;
+            this.starts = starts;
+            this.lengths = lengths;
+            this.idHigh = idHigh;
+            this.idLow = idLow;
+            this.oddIds = oddIds;
+            this.subjects = subjects;
+            this.invitees = invitees;
+            this.flags = flags;
+            this.owner = owner;
+            this.owners = owners;
+        }
+
+        Table withSize(int newSize) {
+            return new Table(newSize, starts, lengths, idHigh, idLow, oddIds, subjects, invitees, flags, owner, owners);
+        }
+
+        Table withFlags(byte[] newFlags) {
+            return new Table(size, starts, lengths, idHigh, idLow, oddIds, subjects, invitees, newFlags, owner, owners);
+        }
+
+        Table without(boolean[] dropped, int count) {
+            Table next = new Table(size - count, owner, oddIds != null, owners != null);
+            int row = 0;
+            for (int i = 0; i < size; i++) {
+                if (!dropped[i]) next.copy(row++, this, i);
+            }
+            return next.withSize(row);
+        }
+
+        void set(int row, Appointment appointment, boolean booked) {
+            int start = minuteOf(appointment.getStartTime());
+            starts[row] = start;
+            lengths[row] = minuteOf(appointment.getEndTime()) - start;
+            UUID uuid = uuidOf(appointment.getId());
+            if (uuid != null) {
+                idHigh[row] = uuid.getMostSignificantBits();
+                idLow[row] = uuid.getLeastSignificantBits();
+            } else {
+                oddIds[row] = appointment.getId();
+            }
+            String subject = appointment.getSubject();
+            subjects[row] = subject == null ? null : subject.intern();
+            invitees[row] = appointment.getInvitee();
+            flags[row] = booked ? BOOKED : 0;
+            if (owners != null) owners[row] = appointment.getOwner();
+        }
+
+        void copy(int row, Table from, int fromRow) {
+            starts[row] = from.starts[fromRow];
+            lengths[row] = from.lengths[fromRow];
+            idHigh[row] = from.idHigh[fromRow];
+            idLow[row] = from.idLow[fromRow];
+            if (from.oddIds != null) oddIds[row] = from.oddIds[fromRow];
+            subjects[row] = from.subjects[fromRow];
+            invitees[row] = from.invitees[fromRow];
+            flags[row] = from.flags[fromRow];
+            if (owners != null) owners[row] = from.owners != null ? from.owners[fromRow] : from.owner;
+        }
+
+        long end(int row) {
+            return (long) starts[row] + lengths[row];
+        }
+
+        int firstAtOrAfter(long minute) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < minute) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        // The row holding this appointment's claim: same start and same id; -1 if none
+        int rowOf(Appointment appointment) {
+            long start = floorMinute(appointment.getStartTime());
+            int row = firstAtOrAfter(start);
+            if (row == size || starts[row] != start) return -1;
+            String id = appointment.getId();
+            if (oddIds != null && oddIds[row] != null) return oddIds[row].equals(id) ? row : -1;
+            UUID uuid = uuidOf(id);
+            return uuid != null && uuid.getMostSignificantBits() == idHigh[row]
+                    && uuid.getLeastSignificantBits() == idLow[row] ? row : -1;
+        }
+
+        Appointment appointment(int row) {
+            String id = oddIds != null && oddIds[row] != null ? oddIds[row] : new UUID(idHigh[row], idLow[row]).toString();
+            return new Appointment(id, LocalDateTime.ofEpochSecond(starts[row] * 60L, 0, ZoneOffset.UTC),
+                    Duration.ofMinutes(lengths[row]), subjects[row], invitees[row],
+                    owners != null ? owners[row] : owner);
+        }
+
+        NavigableSet<Appointment> booked(int from, int to) {
+            NavigableSet<Appointment> booked = new TreeSet<>();
+            for (int row = from; row < to; row++) {
+                if ((flags[row] & BOOKED) != 0) booked.add(appointment(row));
+            }
+            return Collections.unmodifiableNavigableSet(booked);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.calendar_booking_system.entity;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Invitee {
     private final String id;      // auto-generated UUID
@@ -14,14 +14,20 @@ public class Invitee {
         this.id = UUID.randomUUID().toString();
         this.name = "Bob Invitee";
         this.email = "bob@example.com";
-        this.appointments = new ArrayList<>();
+        this.appointments = new CopyOnWriteArrayList<>();
     }
 
     public Invitee(String name, String email) {
-        this.id = UUID.randomUUID().toString();
+        this(UUID.randomUUID().toString(), name, email);
+    }
+
+    // Restores an invitee loaded from storage under its original id
+    public Invitee(String id, String name, String email) {
+        this.id = id;
         this.name = name;
         this.email = email;
-        this.appointments = new ArrayList<>(); // start with empty list
+        // Lock-free reads (JSON rendering iterates it) and no monitor for virtual threads to pin on
+        this.appointments = new CopyOnWriteArrayList<>(); // start with empty list
     }
 
     // Getters only for id
@@ -0,0 +1,86 @@
+package com.example.calendar_booking_system.entity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The default store: the appointment objects themselves in a start-ordered skip-list set, plus an
+ * interval index of every claim by start. Views are live and copy nothing.
+ */
+final class ObjectAppointmentStore implements AppointmentStore {
+
+    private final NavigableSet<Appointment> appointments = new ConcurrentSkipListSet<>();
+
+    // Interval index: booked and reserved appointments by start. They never overlap, so ends are in start order too
+    private final NavigableMap<LocalDateTime, Appointment> claimed = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void claim(List<Appointment> sorted, boolean booked) {
+        for (Appointment appointment : sorted) {
+            claimed.put(appointment.getStartTime(), appointment);
+        }
+        if (booked) appointments.addAll(sorted);
+    }
+
+    @Override
+    public void publish(Collection<Appointment> reserved) {
+        appointments.addAll(reserved);
+    }
+
+    @Override
+    public List<Appointment> release(Collection<Appointment> released) {
+        List<Appointment> removed = new ArrayList<>(released.size());
+        for (Appointment appointment : released) {
+            if (claimed.remove(appointment.getStartTime(), appointment)) removed.add(appointment);
+        }
+        return removed;
+    }
+
+    @Override
+    public List<Appointment> removeEnded(LocalDateTime now) {
+        List<Appointment> removed = new ArrayList<>();
+        for (Appointment app : appointments) {
+            // Ordered by start: nothing starting after now has ended, but a long appointment can outlast later short ones
+            if (app.getStartTime().isAfter(now)) break;
+            if (app.getEndTime().isAfter(now)) continue;
+            if (!appointments.remove(app)) continue;
+            claimed.remove(app.getStartTime(), app);
+            removed.add(app);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Appointment> before = claimed.lowerEntry(end);
+        return before != null && before.getValue().getEndTime().isAfter(start);
+    }
+
+    @Override
+    public List<Appointment> claimsOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Appointment> overlapping = new ArrayList<>();
+        Map.Entry<LocalDateTime, Appointment> before = claimed.lowerEntry(start);
+        if (before != null && before.getValue().getEndTime().isAfter(start)) overlapping.add(before.getValue());
+        overlapping.addAll(claimed.subMap(start, true, end, false).values());
+        return overlapping;
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked(LocalDateTime from, LocalDateTime to) {
+        return Collections.unmodifiableNavigableSet(
+                appointments.subSet(Appointment.probe(from), true, Appointment.probe(to), false));
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked() {
+        return Collections.unmodifiableNavigableSet(appointments);
+    }
+}
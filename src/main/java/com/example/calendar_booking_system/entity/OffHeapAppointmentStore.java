@@ -0,0 +1,349 @@
+package com.example.calendar_booking_system.entity;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Appointments as fixed-width records in a direct (off-heap) buffer, found through an on-heap index
+ * ordered by start. The index holds each row's start, record slot and its subject and invitee
+ * references, which stay on the heap because they point at shared objects; the owner is kept once
+ * per calendar. A calendar of years of bookings is then a few arrays for the collector rather than
+ * objects to trace and copy.
+ *
+ * <p>Records are only appended: a released or ended appointment leaves its record behind until the
+ * arena is full, when the live records are copied into a new arena. A published {@link Index} and
+ * the arena it points to are never changed where the index can see them (except for the booked flag
+ * set by {@link #publish}), so readers take no lock; an arena is freed once no index refers to it.
+ * Times are kept to the minute, as in {@link CompactAppointmentStore}.
+ */
+final class OffHeapAppointmentStore implements AppointmentStore {
+
+    // Record layout, native byte order; longs first so every field stays aligned
+    private static final int ID_HIGH = 0;   // UUID bits; zero when the id is held in the index instead
+    private static final int ID_LOW = 8;
+    private static final int START = 16;    // epoch minutes
+    private static final int LENGTH = 20;   // minutes
+    private static final int FLAGS = 24;
+    static final int RECORD_BYTES = 32;
+
+    private static final int BOOKED = 1;
+    private static final int ODD_ID = 2;
+
+    // Written under the calendar's write lock
+    private volatile Index index = Index.EMPTY;
+
+    @Override
+    public void claim(List<Appointment> sorted, boolean booked) {
+        if (sorted.isEmpty()) return;
+        Index current = index;
+        CalendarOwner owner = current.size > 0 ? current.owner : sorted.get(0).getOwner();
+        boolean oddIds = false;
+        boolean otherOwners = false;
+        for (Appointment appointment : sorted) {
+            minuteOf(appointment.getStartTime());
+            minuteOf(appointment.getEndTime());
+            oddIds |= uuidOf(appointment.getId()) == null;
+            otherOwners |= appointment.getOwner() != owner;
+        }
+        ByteBuffer arena = current.arena;
+        int used = current.used;
+        if (used + sorted.size() > arena.capacity() / RECORD_BYTES) {
+            current = current.compacted(sorted.size());
+            arena = current.arena;
+            used = current.used;
+        }
+
+        int size = current.size;
+        int first = minuteOf(sorted.get(0).getStartTime());
+        if (size > 0 && first > current.starts[size - 1] && size + sorted.size() <= current.starts.length
+                && (!oddIds || current.oddIds != null) && (!otherOwners || current.owners != null)) {
+            // Appending: index rows and arena slots past the current ones are read by no published index
+            for (Appointment appointment : sorted) current.set(size++, used++, appointment, booked);
+            index = current.with(size, used);
+            return;
+        }
+
+        Index next = new Index(grow(size + sorted.size()), arena, owner,
+                oddIds || current.oddIds != null, otherOwners || current.owners != null);
+        int row = 0;
+        int i = 0;
+        for (Appointment appointment : sorted) {
+            int start = minuteOf(appointment.getStartTime());
+            while (i < size && current.starts[i] < start) next.copy(row++, current, i++);
+            // An unconditional add at a taken start replaces the claim there
+            if (i < size && current.starts[i] == start) i++;
+            next.set(row++, used++, appointment, booked);
+        }
+        while (i < size) next.copy(row++, current, i++);
+        index = next.with(row, used);
+    }
+
+    @Override
+    public void publish(Collection<Appointment> reserved) {
+        Index current = index;
+        for (Appointment appointment : reserved) {
+            int row = current.rowOf(appointment);
+            if (row < 0) continue;
+            int at = current.slots[row] * RECORD_BYTES + FLAGS;
+            current.arena.putInt(at, current.arena.getInt(at) | BOOKED);
+        }
+        // Republished so that a reader loading the index afterwards also sees the flags
+        index = current;
+    }
+
+    @Override
+    public List<Appointment> release(Collection<Appointment> appointments) {
+        Index current = index;
+        boolean[] dropped = new boolean[current.size];
+        List<Appointment> released = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            int row = current.rowOf(appointment);
+            if (row >= 0 && !dropped[row]) {
+                dropped[row] = true;
+                released.add(appointment);
+            }
+        }
+        if (!released.isEmpty()) index = current.without(dropped, released.size());
+        return released;
+    }
+
+    @Override
+    public List<Appointment> removeEnded(LocalDateTime now) {
+        Index current = index;
+        long minute = floorMinute(now);
+        boolean[] dropped = new boolean[current.size];
+        List<Appointment> removed = new ArrayList<>();
+        // Ordered by start: nothing starting after now has ended, but a long appointment can outlast later short ones
+        for (int row = 0; row < current.size && current.starts[row] <= minute; row++) {
+            if (!current.isBooked(row) || current.end(row) > minute) continue;
+            dropped[row] = true;
+            removed.add(current.appointment(row));
+        }
+        if (!removed.isEmpty()) index = current.without(dropped, removed.size());
+        return removed;
+    }
+
+    @Override
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Index current = index;
+        int before = current.firstAtOrAfter(ceilMinute(end)) - 1;
+        return before >= 0 && current.end(before) > floorMinute(start);
+    }
+
+    @Override
+    public List<Appointment> claimsOverlapping(LocalDateTime start, LocalDateTime end) {
+        Index current = index;
+        List<Appointment> overlapping = new ArrayList<>();
+        int row = current.firstAtOrAfter(ceilMinute(start));
+        if (row > 0 && current.end(row - 1) > floorMinute(start)) overlapping.add(current.appointment(row - 1));
+        for (long until = ceilMinute(end); row < current.size && current.starts[row] < until; row++) {
+            overlapping.add(current.appointment(row));
+        }
+        return overlapping;
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked(LocalDateTime from, LocalDateTime to) {
+        Index current = index;
+        return current.booked(current.firstAtOrAfter(ceilMinute(from)), current.firstAtOrAfter(ceilMinute(to)));
+    }
+
+    @Override
+    public NavigableSet<Appointment> booked() {
+        Index current = index;
+        return current.booked(0, current.size);
+    }
+
+    private static int grow(int needed) {
+        return Math.max(8, needed + (needed >> 1));
+    }
+
+    private static long floorMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long ceilMinute(LocalDateTime time) {
+        long minute = floorMinute(time);
+        return time.getSecond() == 0 && time.getNano() == 0 ? minute : minute + 1;
+    }
+
+    private static int minuteOf(LocalDateTime time) {
+        long minute = floorMinute(time);
+        if (time.getSecond() != 0 || time.getNano() != 0 || minute != (int) minute) {
+            throw new IllegalArgumentException("Off-heap storage keeps whole minutes within int range: " + time);
+        }
+        return (int) minute;
+    }
+
+    // The UUID an id is the canonical text of, or null if it is anything else
+    private static UUID uuidOf(String id) {
+        if (id == null || id.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer arena(int records) {
+        return ByteBuffer.allocateDirect(records * RECORD_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Rows {@code [0, size)} of the index arrays, which may be longer, over arena slots
+     * {@code [0, used)}. Never changed below those bounds once published.
+     */
+    private static final class Index {
+
+        static final Index EMPTY = new Index(0, arena(0), null, false, false);
+
+        final int size;
+        final int used;
+        final ByteBuffer arena;
+        final int[] starts;           // epoch minutes, ascending
+        final int[] slots;            // record slot in the arena
+        final String[] subjects;      // interned, so repeated subjects share one string
+        final Invitee[] invitees;
+        final String[] oddIds;        // ids that are not a canonical UUID; null until one is stored
+        final CalendarOwner owner;
+        final CalendarOwner[] owners; // null while every row belongs to owner
+
+        Index(int capacity, ByteBuffer arena, CalendarOwner owner, boolean oddIds, boolean owners) {
+            this(0, 0, arena, new int[capacity], new int[capacity], new String[capacity], new Invitee[capacity],
+                    oddIds ? new String[capacity] : null, owner, owners ? new CalendarOwner[capacity] : null);
+        }
+
+        private Index(int size, int used, ByteBuffer arena, int[] starts, int[] slots, String[] subjects,
+                      Invitee[] invitees, String[] oddIds, CalendarOwner owner, CalendarOwner[] owners) {
+            this.size = size;
+            this.used = used;
+            this.arena = arena;
+            this.starts = starts;
+            this.slots = slots;
+            this.subjects = subjects;
+            this.invitees = invitees;
+            this.oddIds = oddIds;
+            this.owner = owner;
+            this.owners = owners;
+        }
+
+        Index with(int newSize, int newUsed) {
+            return new Index(newSize, newUsed, arena, starts, slots, subjects, invitees, oddIds, owner, owners);
+        }
+
+        // The same rows over a new arena holding only their records, with room for more
+        Index compacted(int more) {
+            ByteBuffer next = arena(grow(size + more));
+            int[] moved = new int[starts.length];
+            for (int row = 0; row < size; row++) {
+                next.put(row * RECORD_BYTES, arena, slots[row] * RECORD_BYTES, RECORD_BYTES);
+                moved[row] = row;
+            }
+            return new Index(size, size, next, starts.clone(), moved, subjects.clone(), invitees.clone(),
+                    oddIds == null ? null : oddIds.clone(), owner, owners == null ? null : owners.clone());
+        }
+
+        Index without(boolean[] dropped, int count) {
+            Index next = new Index(size - count, arena, owner, oddIds != null, owners != null);
+            int row = 0;
+            for (int i = 0; i < size; i++) {
+                if (!dropped[i]) next.copy(row++, this, i);
+            }
+            return next.with(row, used);
+        }
+
+        void set(int row, int slot, Appointment appointment, boolean booked) {
+            int at = slot * RECORD_BYTES;
+            int start = minuteOf(appointment.getStartTime());
+            int flags = booked ? BOOKED : 0;
+            UUID uuid = uuidOf(appointment.getId());
+            if (uuid != null) {
+                arena.putLong(at + ID_HIGH, uuid.getMostSignificantBits());
+                arena.putLong(at + ID_LOW, uuid.getLeastSignificantBits());
+                if (oddIds != null) oddIds[row] = null;
+            } else {
+                arena.putLong(at + ID_HIGH, 0L);
+                arena.putLong(at + ID_LOW, 0L);
+                oddIds[row] = appointment.getId();
+                flags |= ODD_ID;
+            }
+            arena.putInt(at + START, start);
+            arena.putInt(at + LENGTH, minuteOf(appointment.getEndTime()) - start);
+            arena.putInt(at + FLAGS, flags);
+
+            starts[row] = start;
+            slots[row] = slot;
+            String subject = appointment.getSubject();
+            subjects[row] = subject == null ? null : subject.intern();
+            invitees[row] = appointment.getInvitee();
+            if (owners != null) owners[row] = appointment.getOwner();
+        }
+
+        void copy(int row, Index from, int fromRow) {
+            starts[row] = from.starts[fromRow];
+            slots[row] = from.slots[fromRow];
+            subjects[row] = from.subjects[fromRow];
+            invitees[row] = from.invitees[fromRow];
+            if (oddIds != null) oddIds[row] = from.oddIds != null ? from.oddIds[fromRow] : null;
+            if (owners != null) owners[row] = from.owners != null ? from.owners[fromRow] : from.owner;
+        }
+
+        long end(int row) {
+            return (long) starts[row] + arena.getInt(slots[row] * RECORD_BYTES + LENGTH);
+        }
+
+        boolean isBooked(int row) {
+            return (arena.getInt(slots[row] * RECORD_BYTES + FLAGS) & BOOKED) != 0;
+        }
+
+        int firstAtOrAfter(long minute) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < minute) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        // The row holding this appointment's claim: same start and same id; -1 if none
+        int rowOf(Appointment appointment) {
+            long start = floorMinute(appointment.getStartTime());
+            int row = firstAtOrAfter(start);
+            if (row == size || starts[row] != start) return -1;
+            return id(row).equals(appointment.getId()) ? row : -1;
+        }
+
+        Appointment appointment(int row) {
+            return new Appointment(id(row), LocalDateTime.ofEpochSecond(starts[row] * 60L, 0, ZoneOffset.UTC),
+                    Duration.ofMinutes(arena.getInt(slots[row] * RECORD_BYTES + LENGTH)), subjects[row],
+                    invitees[row], owners != null ? owners[row] : owner);
+        }
+
+        NavigableSet<Appointment> booked(int from, int to) {
+            NavigableSet<Appointment> booked = new TreeSet<>();
+            for (int row = from; row < to; row++) {
+                if (isBooked(row)) booked.add(appointment(row));
+            }
+            return Collections.unmodifiableNavigableSet(booked);
+        }
+
+        private String id(int row) {
+            int at = slots[row] * RECORD_BYTES;
+            if ((arena.getInt(at + FLAGS) & ODD_ID) != 0) return oddIds[row];
+            return new UUID(arena.getLong(at + ID_HIGH), arena.getLong(at + ID_LOW)).toString();
+        }
+    }
+}
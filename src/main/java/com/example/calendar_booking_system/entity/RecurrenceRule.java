@@ -0,0 +1,59 @@
+package com.example.calendar_booking_system.entity;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * When a series repeats: every {@code interval} days or weeks from its first date, up to and
+ * including {@code until}, or for {@code count} occurrences, whichever ends first. At least one of
+ * the two bounds is required, so a series always has a last occurrence.
+ */
+public class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDate until; // inclusive; null when bounded by count only
+    private final int count;       // 0 when bounded by until only
+
+    public RecurrenceRule(Frequency frequency, int interval, LocalDate until, int count) {
+        if (frequency == null) throw new IllegalArgumentException("A recurrence needs a frequency");
+        if (interval < 1) throw new IllegalArgumentException("Recurrence interval must be at least 1: " + interval);
+        if (count < 0) throw new IllegalArgumentException("Recurrence count must not be negative: " + count);
+        if (until == null && count == 0) throw new IllegalArgumentException("A recurrence needs an until date or a count");
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+        this.count = count;
+    }
+
+    public Frequency getFrequency() { return frequency; }
+    public int getInterval() { return interval; }
+    public LocalDate getUntil() { return until; }
+    public int getCount() { return count; }
+
+    /** Days from one occurrence to the next. */
+    public int stepDays() {
+        return frequency == Frequency.WEEKLY ? 7 * interval : interval;
+    }
+
+    /**
+     * Number of occurrences when the first falls on {@code first}; 0 if {@code until} is before it.
+     * An {@code until} so distant that the count would not fit an int yields {@link Integer#MAX_VALUE}.
+     */
+    public int occurrenceCount(LocalDate first) {
+        long byUntil = until == null ? Long.MAX_VALUE
+                : until.isBefore(first) ? 0 : ChronoUnit.DAYS.between(first, until) / stepDays() + 1;
+        return Math.toIntExact(Math.min(Math.min(byUntil, count == 0 ? Long.MAX_VALUE : count), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Index of the first occurrence on or after {@code date}, counting the one on {@code first} as 0.
+     * Computed directly, so a window far into the series costs no more than one near its start.
+     */
+    long firstIndexOnOrAfter(LocalDate first, LocalDate date) {
+        long days = ChronoUnit.DAYS.between(first, date);
+        return days <= 0 ? 0 : (days + stepDays() - 1) / stepDays();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.calendar_booking_system.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * An owner's working hours and off days, compiled once into a bookable-hour mask per weekday.
+ * Immutable: the owner swaps in a new instance on every change, so a reader holding one never sees
+ * a new start paired with an old end, and a day's free hours are one AND-NOT against its occupancy.
+ */
+public final class WorkWeek {
+
+    public static final WorkWeek DEFAULT = new WorkWeek(LocalTime.of(9, 0), LocalTime.of(17, 0), Set.of());
+
+    private final LocalTime start;
+    private final LocalTime end;
+    private final Set<DayOfWeek> offDays;
+    private final long[] hourMasks = new long[7]; // indexed by DayOfWeek.ordinal(), 0 on off days
+    private final int offDayBits;
+
+    public WorkWeek(LocalTime start, LocalTime end, Set<DayOfWeek> offDays) {
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        this.start = start;
+        this.end = end;
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        days.addAll(offDays);
+        this.offDays = Collections.unmodifiableSet(days);
+
+        long working = bookableHours(start, end);
+        int bits = 0;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (days.contains(day)) {
+                bits |= 1 << day.ordinal();
+            } else {
+                hourMasks[day.ordinal()] = working;
+            }
+        }
+        this.offDayBits = bits;
+    }
+
+    public WorkWeek withHours(LocalTime start, LocalTime end) {
+        return new WorkWeek(start, end, offDays);
+    }
+
+    public WorkWeek withOffDays(Set<DayOfWeek> offDays) {
+        return new WorkWeek(start, end, offDays);
+    }
+
+    public LocalTime getStart() { return start; }
+
+    public LocalTime getEnd() { return end; }
+
+    public Set<DayOfWeek> getOffDays() { return offDays; }
+
+    public boolean isOffDay(DayOfWeek day) {
+        return (offDayBits & 1 << day.ordinal()) != 0;
+    }
+
+    /** Off days as bits by DayOfWeek.ordinal(). */
+    public int getOffDayBits() { return offDayBits; }
+
+    /** Hours (bit n = n:00) that lie wholly inside working time on that weekday. */
+    public long hourMask(DayOfWeek day) {
+        return hourMasks[day.ordinal()];
+    }
+
+    // With a 09:30 start the 9:00 slot would begin before working time, so a part hour at either end is left out
+    private static long bookableHours(LocalTime start, LocalTime end) {
+        int startHour = start.getMinute() > 0 ? start.getHour() + 1 : start.getHour();
+        int endHour = end.getHour();
+        if (startHour >= endHour) return 0L;
+        return (-1L >>> (64 - (endHour - startHour))) << startHour;
+    }
+}
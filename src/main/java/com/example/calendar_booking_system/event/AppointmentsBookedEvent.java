@@ -0,0 +1,14 @@
+package com.example.calendar_booking_system.event;
+
+import com.example.calendar_booking_system.entity.Appointment;
+
+import java.util.List;
+
+/**
+ * Published once per booking request. Lets persistent stores record bookings without the booking
+ * path knowing about them. When the owner repository stores bookings, the event is published while
+ * the appointments are held on their calendars, before they are committed: a listener that throws
+ * fails the booking, and the held times are given back. Otherwise it follows the booking.
+ */
+public record AppointmentsBookedEvent(List<Appointment> appointments) {
+}
@@ -0,0 +1,10 @@
+package com.example.calendar_booking_system.event;
+
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+
+/**
+ * Published after a recurring series has been added to its calendar or had an occurrence
+ * cancelled. Carries the series itself, so stores can record its full current state.
+ */
+public record SeriesChangedEvent(AppointmentSeries series) {
+}
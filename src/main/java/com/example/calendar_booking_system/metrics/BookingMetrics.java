@@ -0,0 +1,84 @@
+package com.example.calendar_booking_system.metrics;
+
+import com.example.calendar_booking_system.entity.Calendar;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the booking pipeline, published through the actuator
+ * (/actuator/prometheus) with percentile histograms.
+ */
+@Component
+public class BookingMetrics {
+
+    private final Timer availableSlotsTimer;
+    private final Timer bookingTimer;
+    private final Timer bookingClaimTimer;
+    private final Timer bookingLockWaitTimer;
+    private final Timer bookingLockHoldTimer;
+    private final Calendar.LockTimings bookingLock;
+    private final Timer batchBookingTimer;
+    private final Timer freeSlotsTimer;
+    private final Timer commonFreeSlotsTimer;
+    private final Timer cleanupTimer;
+    private final Timer summaryBuildTimer;
+    private final Counter bookingsRejectedOccupied;
+    private final Counter appointmentsExpired;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.availableSlotsTimer = timer(registry, "calendar.available_slots", "Invitee availability lookups");
+        this.bookingTimer = timer(registry, "calendar.booking", "End-to-end bookAppointment calls");
+        this.bookingClaimTimer = timer(registry, "calendar.booking.claim", "Slot claim on the calendar (lock-free conflict check, then locked insert)");
+        this.bookingLockWaitTimer = timer(registry, "calendar.booking.lock.wait", "Wait for a calendar's write lock by a booking write");
+        this.bookingLockHoldTimer = timer(registry, "calendar.booking.lock.hold", "Time a booking write holds a calendar's write lock");
+        this.bookingLock = (waitNanos, holdNanos) -> {
+            bookingLockWaitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            bookingLockHoldTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+        };
+        this.batchBookingTimer = timer(registry, "calendar.booking.batch", "All-or-nothing batch bookings");
+        this.freeSlotsTimer = timer(registry, "calendar.free_slots", "Free-slot computation for one owner and day");
+        this.commonFreeSlotsTimer = timer(registry, "calendar.common_free_slots", "Free hours shared by several owners over a date range");
+        this.cleanupTimer = timer(registry, "calendar.cleanup", "Removal of ended appointments from one calendar");
+        this.summaryBuildTimer = timer(registry, "calendar.summary.build", "Rendering of an owner's appointment summary");
+        this.bookingsRejectedOccupied = Counter.builder("calendar.booking.rejected")
+                .description("Bookings rejected because the slot was already taken")
+                .tag("reason", "occupied")
+                .register(registry);
+        this.appointmentsExpired = Counter.builder("calendar.appointments.expired")
+                .description("Appointments removed by cleanup")
+                .register(registry);
+    }
+
+    /**
+     * Metrics backed by a private in-memory registry, for services built outside Spring.
+     */
+    public static BookingMetrics standalone() {
+        return new BookingMetrics(new SimpleMeterRegistry());
+    }
+
+    public Timer availableSlots() { return availableSlotsTimer; }
+    public Timer booking() { return bookingTimer; }
+    public Timer bookingClaim() { return bookingClaimTimer; }
+    public Calendar.LockTimings bookingLock() { return bookingLock; }
+    public Timer batchBooking() { return batchBookingTimer; }
+    public Timer freeSlots() { return freeSlotsTimer; }
+    public Timer commonFreeSlots() { return commonFreeSlotsTimer; }
+    public Timer cleanup() { return cleanupTimer; }
+    public Timer summaryBuild() { return summaryBuildTimer; }
+
+    public void bookingRejectedOccupied() { bookingsRejectedOccupied.increment(); }
+    public void appointmentsExpired(int count) { appointmentsExpired.increment(count); }
+
+    private static Timer timer(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
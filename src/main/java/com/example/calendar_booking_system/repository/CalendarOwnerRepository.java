@@ -1,30 +1,96 @@
 package com.example.calendar_booking_system.repository;
 
 import com.example.calendar_booking_system.entity.CalendarOwner;
-import java.util.List;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Repository
+@Profile("!jpa & !journal")
 public class CalendarOwnerRepository implements GenericRepository<CalendarOwner, String>{
-    private final List<CalendarOwner> owners = new CopyOnWriteArrayList<>();
+    private final Map<String, CalendarOwner> ownersById = new ConcurrentHashMap<>();
+    private final Map<String, String> ownerIdsByEmail = new ConcurrentHashMap<>(); // unique email index
+    private final Map<String, String> indexedEmails = new ConcurrentHashMap<>();   // id -> email it is indexed under
+    private final NavigableSet<String> idsInOrder = new ConcurrentSkipListSet<>();  // stable order for paging
+
+    // Snapshot handed out by findAll, rebuilt lazily after the next write
+    private volatile List<CalendarOwner> snapshot = List.of();
+    private volatile boolean snapshotStale = false;
+    // A j.u.c lock rather than a monitor, so a virtual thread waiting on a rebuild does not pin its carrier
+    private final ReentrantLock snapshotLock = new ReentrantLock();
 
     @Override
     public List<CalendarOwner> findAll() {
-        return List.copyOf(owners); // return an immutable copy
+        if (snapshotStale) {
+            snapshotLock.lock();
+            try {
+                if (snapshotStale) {
+                    snapshotStale = false;
+                    snapshot = List.copyOf(ownersById.values()); // return an immutable copy
+                }
+            } finally {
+                snapshotLock.unlock();
+            }
+        }
+        return snapshot;
     }
 
     @Override
     public CalendarOwner findById(String id) {
-        return owners.stream()
-                .filter(o -> o.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        if (id == null) return null;
+        return ownersById.get(id);
+    }
+
+    @Override
+    public List<CalendarOwner> findPage(String afterId, int limit) {
+        NavigableSet<String> ids = afterId == null ? idsInOrder : idsInOrder.tailSet(afterId, false);
+        List<CalendarOwner> page = new ArrayList<>(Math.min(limit, 64));
+        for (String id : ids) {
+            if (page.size() == limit) break;
+            CalendarOwner owner = ownersById.get(id);
+            if (owner != null) page.add(owner);
+        }
+        return page;
+    }
+
+    public CalendarOwner findByEmail(String email) {
+        if (email == null) return null;
+        String id = ownerIdsByEmail.get(normalize(email));
+        return id != null ? ownersById.get(id) : null;
     }
 
     @Override
     public void save(CalendarOwner owner) {
-        owners.add(owner);
+        String email = normalize(owner.getEmail());
+        if (email != null) {
+            String existingId = ownerIdsByEmail.putIfAbsent(email, owner.getId());
+            if (existingId != null && !existingId.equals(owner.getId())) {
+                throw new IllegalArgumentException("Email already registered: " + owner.getEmail());
+            }
+        }
+
+        String previousEmail = email != null
+                ? indexedEmails.put(owner.getId(), email)
+                : indexedEmails.remove(owner.getId());
+        if (previousEmail != null && !previousEmail.equals(email)) {
+            ownerIdsByEmail.remove(previousEmail, owner.getId());
+        }
+
+        // Re-saving the stored instance (e.g. after a work-details update) leaves the snapshot as is
+        if (ownersById.put(owner.getId(), owner) != owner) {
+            idsInOrder.add(owner.getId());
+            snapshotStale = true;
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -6,4 +6,18 @@ public interface GenericRepository<T, ID> {
     List<T> findAll();
     T findById(ID id);
     void save(T entity);
-}
\ No newline at end of file
+
+    /**
+     * Up to {@code limit} entities in ascending id order, starting after {@code afterId}
+     * (from the first one when it is null). Walks the index in place rather than copying all entities.
+     */
+    List<T> findPage(ID afterId, int limit);
+
+    /**
+     * True if this repository writes bookings out when an {@code AppointmentsBookedEvent} is
+     * published, so the booking path must hold their times until that has succeeded.
+     */
+    default boolean storesBookings() {
+        return false;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of typed records in fixed-size, memory-mapped segment files
+ * ({@code 00000000000000000000.journal}, {@code ...001.journal}, ...).
+ *
+ * <p>Each record is {@code [int length][int crc32][byte type][payload]}; a zero length marks the
+ * end of the written part of a segment. Appending only copies into the mapping. Durability is
+ * requested separately with {@link #awaitDurable}: a single flusher thread forces the mapping to
+ * disk on behalf of every caller waiting at that moment, so concurrent bookings share one fsync
+ * (group commit).
+ *
+ * <p>Positions are global byte offsets ({@code segment index * segment size + offset}); a record's
+ * position is where it ends, so replaying from a position skips everything up to it.
+ */
+public final class BookingJournal implements AutoCloseable {
+
+    /** Receives each intact record during replay; the payload buffer is only valid during the call. */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(byte type, ByteBuffer payload);
+    }
+
+    private static final int HEADER_BYTES = 4 + 4 + 1;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // Guards the current segment, the write offset and the flush bookkeeping
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    private Segment current;
+    private long requestedPosition;
+    private volatile long durablePosition;
+    private boolean closed;
+    private final Thread flusher;
+
+    private BookingJournal(Path directory, int segmentSize, Segment current) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.current = current;
+        this.durablePosition = current.position();
+        this.requestedPosition = durablePosition;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the journal in {@code directory} (created if missing), hands every intact record after
+     * {@code fromPosition} to {@code handler} in append order, and positions the writer right after
+     * the last intact record. A torn record at the tail (a crash mid-append) ends the replay and is
+     * overwritten by the next append; damage in any earlier segment is reported as an error.
+     */
+    public static BookingJournal open(Path directory, int segmentSize, long fromPosition, RecordHandler handler)
+            throws IOException {
+        if (segmentSize < 1024) {
+            throw new IllegalArgumentException("Journal segments must be at least 1024 bytes");
+        }
+        Files.createDirectories(directory);
+        List<Long> indexes = segmentIndexes(directory);
+        if (indexes.isEmpty()) {
+            // Start at or after fromPosition, so new records are never mistaken for ones already replayed
+            long first = (fromPosition + segmentSize - 1) / segmentSize;
+            return new BookingJournal(directory, segmentSize, Segment.open(directory, first, segmentSize));
+        }
+
+        Segment last = null;
+        for (int i = 0; i < indexes.size(); i++) {
+            long index = indexes.get(i);
+            boolean isLast = i == indexes.size() - 1;
+            if (!isLast && (index + 1) * segmentSize <= fromPosition) continue;
+
+            Segment segment = Segment.open(directory, index, segmentSize);
+            int start = index * segmentSize >= fromPosition ? 0 : (int) (fromPosition - index * segmentSize);
+            int end = segment.replay(start, handler);
+            if (!isLast) {
+                if (segment.tornAt(end)) {
+                    segment.close();
+                    throw new IOException("Journal segment " + index + " is damaged at offset " + end);
+                }
+                segment.close();
+            } else {
+                segment.truncateTo(end);
+                last = segment;
+            }
+        }
+        return new BookingJournal(directory, segmentSize, last);
+    }
+
+    /**
+     * Appends one record and returns its position, to be passed to {@link #awaitDurable}.
+     * The payload is read from its position to its limit.
+     */
+    public long append(byte type, ByteBuffer payload) {
+        int length = 1 + payload.remaining();
+        if (HEADER_BYTES - 1 + length > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds the segment size");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload.duplicate());
+
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Journal is closed");
+            if (current.remaining() < HEADER_BYTES - 1 + length + 4) { // keep room for the end marker
+                roll();
+            }
+            return current.write(length, (int) crc.getValue(), type, payload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record up to {@code position} has been forced to disk.
+     */
+    public void awaitDurable(long position) {
+        if (durablePosition >= position) return;
+        lock.lock();
+        try {
+            if (requestedPosition < position) {
+                requestedPosition = position;
+                flushRequested.signal();
+            }
+            while (durablePosition < position) {
+                if (closed) throw new IllegalStateException("Journal closed before the record was flushed");
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Position just after the last appended record. */
+    public long position() {
+        lock.lock();
+        try {
+            return current.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segment files that lie entirely before {@code position}; the current segment is
+     * always kept. Returns the number of files deleted.
+     */
+    public int deleteSegmentsBefore(long position) throws IOException {
+        long currentIndex;
+        lock.lock();
+        try {
+            currentIndex = current.index;
+        } finally {
+            lock.unlock();
+        }
+        int deleted = 0;
+        for (long index : segmentIndexes(directory)) {
+            if (index >= currentIndex || (index + 1) * segmentSize > position) break;
+            Files.deleteIfExists(segmentFile(directory, index));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            flushRequested.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        current.buffer.force();
+        current.close();
+    }
+
+    // Called with the lock held. The full segment is forced here, so the flusher only ever has the current one to force.
+    private void roll() {
+        try {
+            current.buffer.force();
+            Segment next = Segment.open(directory, current.index + 1, segmentSize);
+            current.close();
+            current = next;
+            durablePosition = Math.max(durablePosition, next.position());
+            flushed.signalAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start journal segment " + (current.index + 1), e);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            Segment segment;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && requestedPosition <= durablePosition) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (closed) return;
+                // Everything appended so far rides along with this force, not only what was requested
+                segment = current;
+                target = segment.position();
+            } finally {
+                lock.unlock();
+            }
+
+            // Appenders keep writing while the pages go to disk
+            segment.buffer.force();
+
+            lock.lock();
+            try {
+                if (target > durablePosition) durablePosition = target;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static List<Long> segmentIndexes(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        }
+    }
+
+    private static Path segmentFile(Path directory, long index) {
+        return directory.resolve(String.format("%020d%s", index, SUFFIX));
+    }
+
+    private static final class Segment {
+        final long index;
+        final long base;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        private Segment(long index, long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path directory, long index, int size) throws IOException {
+            FileChannel channel = FileChannel.open(segmentFile(directory, index),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Mapping past the end grows the file; the new bytes read as zero, i.e. as the end marker
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(index, index * size, channel, buffer);
+        }
+
+        long position() {
+            return base + buffer.position();
+        }
+
+        int remaining() {
+            return buffer.remaining();
+        }
+
+        long write(int length, int crc, byte type, ByteBuffer payload) {
+            int start = buffer.position();
+            // Length last: until it lands, replay reads this slot as the end marker
+            buffer.position(start + 4);
+            buffer.putInt(crc).put(type).put(payload);
+            int end = buffer.position();
+            buffer.putInt(start, length);
+            return base + end;
+        }
+
+        /** Replays intact records from {@code offset}; returns the offset after the last one. */
+        int replay(int offset, RecordHandler handler) {
+            ByteBuffer view = buffer.duplicate();
+            int position = offset;
+            CRC32 crc = new CRC32();
+            while (position + HEADER_BYTES <= view.capacity()) {
+                int length = view.getInt(position);
+                if (length <= 0 || position + 8 + length > view.capacity()) break;
+                int expected = view.getInt(position + 4);
+                ByteBuffer body = view.duplicate().position(position + 8).limit(position + 8 + length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != expected) break;
+                handler.accept(body.get(), body.slice());
+                position += 8 + length;
+            }
+            return position;
+        }
+
+        boolean tornAt(int offset) {
+            return offset + 4 <= buffer.capacity() && buffer.getInt(offset) != 0;
+        }
+
+        /**
+         * Makes {@code offset} the append point. Any leftover bytes after it (a torn write) are
+         * zeroed so they can never line up with a later record boundary.
+         */
+        void truncateTo(int offset) {
+            int end = buffer.capacity();
+            int dirty = offset;
+            while (dirty + 8 <= end && buffer.getLong(dirty) == 0L) dirty += 8;
+            if (dirty < end) {
+                for (int i = offset; i < end; i++) buffer.put(i, (byte) 0);
+            }
+            buffer.position(offset);
+        }
+
+        void close() throws IOException {
+            // The mapping itself is released when the buffer is collected; there is no public unmap on Java 17
+            channel.close();
+        }
+    }
+}
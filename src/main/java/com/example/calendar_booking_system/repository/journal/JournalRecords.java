@@ -0,0 +1,217 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.WorkWeek;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary payloads of the journal records. Strings are an int byte count followed by UTF-8
+ * (-1 for null), times are seconds, durations are minutes, and off days are a bitmask over
+ * {@link DayOfWeek#ordinal()}.
+ */
+final class JournalRecords {
+
+    /** Full state of an owner: written on create and on every later save (e.g. work details). */
+    static final byte OWNER = 1;
+    /** One booked one-hour appointment, with its invitee inlined. Read only: superseded by {@link #TIMED_APPOINTMENT}. */
+    static final byte APPOINTMENT = 2;
+    /** Snapshot only: an invitee, numbered by its order of appearance in the snapshot. */
+    static final byte INVITEE = 3;
+    /** Snapshot only: a one-hour appointment of the preceding owner. Read only: superseded by {@link #TIMED_CALENDAR_APPOINTMENT}. */
+    static final byte CALENDAR_APPOINTMENT = 4;
+    /** One booked appointment, with its duration after its start and its invitee inlined. */
+    static final byte TIMED_APPOINTMENT = 5;
+    /** Snapshot only: an appointment in the calendar of the preceding owner record, invitee by number. */
+    static final byte TIMED_CALENDAR_APPOINTMENT = 6;
+    /** Full state of a recurring series, cancellations included: written on create and on every cancellation. */
+    static final byte SERIES = 7;
+
+    private static final long NO_UNTIL = Long.MIN_VALUE;
+
+    private JournalRecords() {}
+
+    static ByteBuffer owner(CalendarOwner owner) {
+        byte[] id = utf8(owner.getId());
+        byte[] name = utf8(owner.getName());
+        byte[] email = utf8(owner.getEmail());
+        byte[] calendarId = utf8(owner.getCalendar().getId());
+        ByteBuffer buffer = ByteBuffer.allocate(size(id) + size(name) + size(email) + size(calendarId) + 4 + 4 + 1);
+        putString(buffer, id);
+        putString(buffer, name);
+        putString(buffer, email);
+        putString(buffer, calendarId);
+        WorkWeek week = owner.workWeek(); // one read, so hours and off days belong together
+        buffer.putInt(week.getStart().toSecondOfDay());
+        buffer.putInt(week.getEnd().toSecondOfDay());
+        buffer.put(offDayMask(week.getOffDays()));
+        return buffer.flip();
+    }
+
+    static ByteBuffer appointment(Appointment appointment) {
+        Invitee invitee = appointment.getInvitee();
+        byte[] id = utf8(appointment.getId());
+        byte[] ownerId = utf8(appointment.getOwner().getId());
+        byte[] subject = utf8(appointment.getSubject());
+        byte[] inviteeId = utf8(invitee != null ? invitee.getId() : null);
+        byte[] inviteeName = utf8(invitee != null ? invitee.getName() : null);
+        byte[] inviteeEmail = utf8(invitee != null ? invitee.getEmail() : null);
+        ByteBuffer buffer = ByteBuffer.allocate(size(id) + size(ownerId) + 8 + 4 + size(subject)
+                + size(inviteeId) + size(inviteeName) + size(inviteeEmail));
+        putString(buffer, id);
+        putString(buffer, ownerId);
+        buffer.putLong(toEpochSecond(appointment.getStartTime()));
+        buffer.putInt((int) appointment.getDurationMinutes());
+        putString(buffer, subject);
+        putString(buffer, inviteeId);
+        putString(buffer, inviteeName);
+        putString(buffer, inviteeEmail);
+        return buffer.flip();
+    }
+
+    static ByteBuffer series(AppointmentSeries series) {
+        Invitee invitee = series.getInvitee();
+        RecurrenceRule rule = series.getRule();
+        Set<LocalDate> cancelled = series.getCancelledDates();
+        byte[] id = utf8(series.getId());
+        byte[] ownerId = utf8(series.getOwner().getId());
+        byte[] subject = utf8(series.getSubject());
+        byte[] inviteeId = utf8(invitee != null ? invitee.getId() : null);
+        byte[] inviteeName = utf8(invitee != null ? invitee.getName() : null);
+        byte[] inviteeEmail = utf8(invitee != null ? invitee.getEmail() : null);
+        ByteBuffer buffer = ByteBuffer.allocate(size(id) + size(ownerId) + 8 + 4 + 1 + 4 + 8 + 4
+                + size(subject) + size(inviteeId) + size(inviteeName) + size(inviteeEmail) + 4 + 8 * cancelled.size());
+        putString(buffer, id);
+        putString(buffer, ownerId);
+        buffer.putLong(toEpochSecond(series.getFirstStart()));
+        buffer.putInt((int) series.getDurationMinutes());
+        buffer.put((byte) rule.getFrequency().ordinal());
+        buffer.putInt(rule.getInterval());
+        buffer.putLong(rule.getUntil() != null ? rule.getUntil().toEpochDay() : NO_UNTIL);
+        buffer.putInt(rule.getCount());
+        putString(buffer, subject);
+        putString(buffer, inviteeId);
+        putString(buffer, inviteeName);
+        putString(buffer, inviteeEmail);
+        buffer.putInt(cancelled.size());
+        for (LocalDate date : cancelled) buffer.putLong(date.toEpochDay());
+        return buffer.flip();
+    }
+
+    static RecurrenceRule getRule(ByteBuffer buffer) {
+        RecurrenceRule.Frequency frequency = RecurrenceRule.Frequency.values()[buffer.get()];
+        int interval = buffer.getInt();
+        long until = buffer.getLong();
+        int count = buffer.getInt();
+        return new RecurrenceRule(frequency, interval, until == NO_UNTIL ? null : LocalDate.ofEpochDay(until), count);
+    }
+
+    static List<LocalDate> getDates(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        List<LocalDate> dates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) dates.add(LocalDate.ofEpochDay(buffer.getLong()));
+        return dates;
+    }
+
+    static ByteBuffer invitee(Invitee invitee) {
+        byte[] id = utf8(invitee.getId());
+        byte[] name = utf8(invitee.getName());
+        byte[] email = utf8(invitee.getEmail());
+        ByteBuffer buffer = ByteBuffer.allocate(size(id) + size(name) + size(email));
+        putString(buffer, id);
+        putString(buffer, name);
+        putString(buffer, email);
+        return buffer.flip();
+    }
+
+    static ByteBuffer calendarAppointment(Appointment appointment, int inviteeNumber) {
+        byte[] id = utf8(appointment.getId());
+        byte[] subject = utf8(appointment.getSubject());
+        ByteBuffer buffer = ByteBuffer.allocate(size(id) + 8 + 4 + size(subject) + 4);
+        putString(buffer, id);
+        buffer.putLong(toEpochSecond(appointment.getStartTime()));
+        buffer.putInt((int) appointment.getDurationMinutes());
+        putString(buffer, subject);
+        buffer.putInt(inviteeNumber);
+        return buffer.flip();
+    }
+
+    static String getString(ByteBuffer buffer) {
+        return getString(buffer, new byte[0]);
+    }
+
+    /** Decodes through {@code scratch} when it is large enough, so only the String itself is allocated. */
+    static String getString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static LocalTime getTime(ByteBuffer buffer) {
+        return LocalTime.ofSecondOfDay(buffer.getInt());
+    }
+
+    static long getEpochSecond(ByteBuffer buffer) {
+        return buffer.getLong();
+    }
+
+    static Duration getDuration(ByteBuffer buffer) {
+        return Duration.ofMinutes(buffer.getInt());
+    }
+
+    static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    static long toEpochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static Set<DayOfWeek> getOffDays(ByteBuffer buffer) {
+        byte mask = buffer.get();
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << day.ordinal())) != 0) days.add(day);
+        }
+        return days;
+    }
+
+    private static byte offDayMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) mask |= 1 << day.ordinal();
+        return (byte) mask;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int size(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Rebuilds owners, calendars and invitees from snapshot and journal records, in order. Appointments
+ * that have ended by {@code now} are skipped, as the background expiry would have removed them.
+ *
+ * <p>A snapshot may already contain some of the changes journaled after its position, so applying
+ * a record twice must be harmless: owner records carry the full owner state, and an appointment
+ * whose time is already booked is one the snapshot had.
+ */
+final class JournalReplay implements BookingJournal.RecordHandler {
+
+    // Appointments ending at or before this (epoch seconds, as journaled) have ended
+    private final long endedCutoff;
+    private final CalendarStorage storage; // for the calendars rebuilt
+    private final byte[] scratch = new byte[256];
+    private final Map<String, CalendarOwner> ownersById = new HashMap<>();
+    private final Map<String, Invitee> inviteesById = new HashMap<>();
+    private final List<Invitee> snapshotInvitees = new ArrayList<>();
+    private CalendarOwner lastOwner; // owner of the snapshot's calendar appointments that follow
+    // Collected per invitee and added once at the end: the invitee's list is copy-on-write
+    private final Map<Invitee, List<Appointment>> appointmentsByInvitee = new HashMap<>();
+    private long records;
+    private long appointments;
+    private long series;
+
+    JournalReplay(LocalDateTime now, CalendarStorage storage) {
+        this.endedCutoff = JournalRecords.toEpochSecond(now);
+        this.storage = storage;
+    }
+
+    @Override
+    public void accept(byte type, ByteBuffer payload) {
+        records++;
+        switch (type) {
+            case JournalRecords.OWNER -> applyOwner(payload);
+            case JournalRecords.APPOINTMENT -> applyAppointment(payload, false);
+            case JournalRecords.TIMED_APPOINTMENT -> applyAppointment(payload, true);
+            case JournalRecords.INVITEE -> applyInvitee(payload);
+            case JournalRecords.CALENDAR_APPOINTMENT -> applyCalendarAppointment(payload, false);
+            case JournalRecords.TIMED_CALENDAR_APPOINTMENT -> applyCalendarAppointment(payload, true);
+            case JournalRecords.SERIES -> applySeries(payload);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    /** The rebuilt owners; call once, after the replay. */
+    Collection<CalendarOwner> finish() {
+        appointmentsByInvitee.forEach((invitee, booked) -> invitee.getAppointments().addAll(booked));
+        appointmentsByInvitee.clear();
+        snapshotInvitees.clear();
+        return ownersById.values();
+    }
+
+    long records() { return records; }
+
+    long appointments() { return appointments; }
+
+    long series() { return series; }
+
+    private void applyOwner(ByteBuffer payload) {
+        String id = JournalRecords.getString(payload);
+        String name = JournalRecords.getString(payload);
+        String email = JournalRecords.getString(payload);
+        String calendarId = JournalRecords.getString(payload);
+        LocalTime start = JournalRecords.getTime(payload);
+        LocalTime end = JournalRecords.getTime(payload);
+
+        CalendarOwner owner = ownersById.get(id);
+        if (owner == null) {
+            owner = new CalendarOwner(id, name, email);
+            owner.setCalendar(new Calendar(calendarId, storage));
+            ownersById.put(id, owner);
+        } else {
+            owner.setName(name);
+            owner.setEmail(email);
+            if (!Objects.equals(owner.getCalendar().getId(), calendarId)) {
+                owner.setCalendar(new Calendar(calendarId, storage));
+            }
+        }
+        // Snapshots from before work weeks were published whole can hold a torn pair; the update's own record follows
+        Set<DayOfWeek> offDays = JournalRecords.getOffDays(payload);
+        if (!end.isBefore(start)) {
+            owner.setWorkDetails(start, end, offDays);
+        } else {
+            owner.setOffDays(offDays);
+        }
+        lastOwner = owner;
+    }
+
+    private void applyAppointment(ByteBuffer payload, boolean timed) {
+        String id = JournalRecords.getString(payload, scratch);
+        CalendarOwner owner = ownersById.get(JournalRecords.getString(payload, scratch));
+        long start = JournalRecords.getEpochSecond(payload);
+        Duration duration = timed ? JournalRecords.getDuration(payload) : Appointment.DEFAULT_DURATION;
+        if (owner == null || start + duration.toSeconds() <= endedCutoff) return;
+
+        String subject = JournalRecords.getString(payload, scratch);
+        String inviteeId = JournalRecords.getString(payload, scratch);
+        Invitee invitee = inviteeId == null ? null : inviteesById.get(inviteeId);
+        // Name and email are only decoded the first time an invitee is seen
+        if (invitee == null && inviteeId != null) {
+            invitee = new Invitee(inviteeId, JournalRecords.getString(payload), JournalRecords.getString(payload));
+            inviteesById.put(inviteeId, invitee);
+        }
+
+        add(owner, id, start, duration, subject, invitee);
+    }
+
+    // The latest record of a series carries all of its cancellations, so it simply replaces the earlier state
+    private void applySeries(ByteBuffer payload) {
+        String id = JournalRecords.getString(payload);
+        CalendarOwner owner = ownersById.get(JournalRecords.getString(payload, scratch));
+        LocalDateTime firstStart = JournalRecords.toDateTime(JournalRecords.getEpochSecond(payload));
+        Duration duration = JournalRecords.getDuration(payload);
+        RecurrenceRule rule = JournalRecords.getRule(payload);
+        String subject = JournalRecords.getString(payload);
+        String inviteeId = JournalRecords.getString(payload, scratch);
+        String inviteeName = JournalRecords.getString(payload);
+        String inviteeEmail = JournalRecords.getString(payload);
+        List<LocalDate> cancelled = JournalRecords.getDates(payload);
+        if (owner == null) return;
+
+        Invitee invitee = inviteeId == null ? null
+                : inviteesById.computeIfAbsent(inviteeId, k -> new Invitee(k, inviteeName, inviteeEmail));
+        AppointmentSeries series = new AppointmentSeries(id, firstStart, duration, rule, subject, invitee, owner, cancelled);
+        if (JournalRecords.toEpochSecond(series.getLastEnd()) <= endedCutoff) return;
+        owner.getCalendar().addSeries(series);
+        this.series++;
+    }
+
+    private void applyInvitee(ByteBuffer payload) {
+        String id = JournalRecords.getString(payload);
+        String name = JournalRecords.getString(payload);
+        String email = JournalRecords.getString(payload);
+        snapshotInvitees.add(inviteesById.computeIfAbsent(id, k -> new Invitee(k, name, email)));
+    }
+
+    private void applyCalendarAppointment(ByteBuffer payload, boolean timed) {
+        String id = JournalRecords.getString(payload, scratch);
+        long start = JournalRecords.getEpochSecond(payload);
+        Duration duration = timed ? JournalRecords.getDuration(payload) : Appointment.DEFAULT_DURATION;
+        if (lastOwner == null || start + duration.toSeconds() <= endedCutoff) return;
+        String subject = JournalRecords.getString(payload, scratch);
+        int inviteeNumber = payload.getInt();
+        add(lastOwner, id, start, duration, subject, inviteeNumber < 0 ? null : snapshotInvitees.get(inviteeNumber));
+    }
+
+    private void add(CalendarOwner owner, String id, long start, Duration duration, String subject, Invitee invitee) {
+        LocalDateTime startTime = JournalRecords.toDateTime(start);
+        Calendar calendar = owner.getCalendar();
+        if (calendar.overlaps(startTime, startTime.plus(duration))) return; // already in the snapshot
+
+        Appointment appointment = new Appointment(id, startTime, duration, subject, invitee, owner);
+        calendar.addAppointment(appointment);
+        if (invitee != null) {
+            appointmentsByInvitee.computeIfAbsent(invitee, k -> new ArrayList<>()).add(appointment);
+        }
+        appointments++;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Point-in-time images of every owner and live appointment, stored next to the journal as
+ * {@code <journal position>.snapshot}. Startup loads the newest intact snapshot and replays only
+ * the journal after its position.
+ *
+ * <p>File layout: {@code [int magic][int format][long journal position]}, then records of
+ * {@code [int length][byte type][payload]}, a zero length, and a CRC32 of everything before it.
+ * Each owner record is followed by its calendar's appointments and then its series; invitees are
+ * written once and referred to by their number, so an appointment takes about a third of its
+ * journal record.
+ */
+final class JournalSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalSnapshots.class);
+
+    private static final int MAGIC = 0x43425353; // "CBSS"
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final String SUFFIX = ".snapshot";
+
+    private final Path directory;
+
+    JournalSnapshots(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Writes a snapshot of {@code owners} tagged with {@code journalPosition} and returns its size.
+     * The file only appears under its final name once it is complete and on disk.
+     */
+    long write(long journalPosition, Collection<CalendarOwner> owners) throws IOException {
+        Path target = directory.resolve(fileName(journalPosition));
+        Path temp = directory.resolve(fileName(journalPosition) + ".tmp");
+        Map<Invitee, Integer> inviteeNumbers = new IdentityHashMap<>();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer out = new Writer(channel);
+            out.header(journalPosition);
+            for (CalendarOwner owner : owners) {
+                out.record(JournalRecords.OWNER, JournalRecords.owner(owner));
+                // A weakly consistent walk: bookings landing meanwhile may or may not be included, and
+                // the journal tail replayed after this snapshot's position covers them either way
+                for (Appointment appointment : owner.getCalendar().getAppointments()) {
+                    Invitee invitee = appointment.getInvitee();
+                    int number = -1;
+                    if (invitee != null) {
+                        Integer known = inviteeNumbers.get(invitee);
+                        if (known == null) {
+                            known = inviteeNumbers.size();
+                            inviteeNumbers.put(invitee, known);
+                            out.record(JournalRecords.INVITEE, JournalRecords.invitee(invitee));
+                        }
+                        number = known;
+                    }
+                    out.record(JournalRecords.TIMED_CALENDAR_APPOINTMENT, JournalRecords.calendarAppointment(appointment, number));
+                }
+                for (AppointmentSeries series : owner.getCalendar().getSeries()) {
+                    out.record(JournalRecords.SERIES, JournalRecords.series(series));
+                }
+            }
+            out.finish();
+            channel.force(true);
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        return Files.size(target);
+    }
+
+    /**
+     * Hands the records of the newest intact snapshot to {@code handler} and returns the journal
+     * position to replay from, or 0 when there is no usable snapshot. A snapshot failing its
+     * checksum is skipped in favour of the one before it.
+     */
+    long loadLatest(BookingJournal.RecordHandler handler) throws IOException {
+        List<Long> positions = positions();
+        for (int i = positions.size() - 1; i >= 0; i--) {
+            Path file = directory.resolve(fileName(positions.get(i)));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (!intact(buffer)) {
+                    log.warn("Skipping damaged snapshot {}", file);
+                    continue;
+                }
+                long journalPosition = buffer.getLong(8);
+                int position = HEADER_BYTES;
+                int length;
+                while ((length = buffer.getInt(position)) > 0) {
+                    ByteBuffer body = buffer.duplicate().position(position + 4).limit(position + 4 + length);
+                    handler.accept(body.get(), body.slice());
+                    position += 4 + length;
+                }
+                return journalPosition;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Deletes all but the newest {@code keep} snapshots and returns the journal position of the
+     * oldest one kept: journal segments before it are no longer needed, even to fall back on.
+     */
+    long retainLatest(int keep) throws IOException {
+        List<Long> positions = positions();
+        int firstKept = Math.max(0, positions.size() - keep);
+        for (int i = 0; i < firstKept; i++) {
+            Files.deleteIfExists(directory.resolve(fileName(positions.get(i))));
+        }
+        return positions.isEmpty() ? 0 : positions.get(firstKept);
+    }
+
+    private List<Long> positions() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static boolean intact(ByteBuffer buffer) {
+        int size = buffer.capacity();
+        if (size < HEADER_BYTES + 4 + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) return false;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(0).limit(size - 4));
+        return (int) crc.getValue() == buffer.getInt(size - 4);
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true); // makes the rename itself durable
+        } catch (IOException e) {
+            // Not every platform can open a directory; the file contents are already on disk
+            log.debug("Could not sync journal directory {}", directory, e);
+        }
+    }
+
+    private static String fileName(long journalPosition) {
+        return String.format("%020d%s", journalPosition, SUFFIX);
+    }
+
+    /** Buffers records into a direct chunk and writes full chunks to the channel, checksumming as it goes. */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES);
+        private final CRC32 crc = new CRC32();
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void header(long journalPosition) {
+            chunk.putInt(MAGIC).putInt(FORMAT).putLong(journalPosition);
+        }
+
+        void record(byte type, ByteBuffer payload) throws IOException {
+            int length = 1 + payload.remaining();
+            if (chunk.remaining() < 4 + length) drain();
+            if (chunk.remaining() < 4 + length) {
+                throw new IllegalArgumentException("Snapshot record of " + length + " bytes exceeds the write buffer");
+            }
+            chunk.putInt(length).put(type).put(payload);
+        }
+
+        void finish() throws IOException {
+            if (chunk.remaining() < 8) drain();
+            chunk.putInt(0);
+            drain();
+            chunk.putInt((int) crc.getValue());
+            chunk.flip();
+            while (chunk.hasRemaining()) channel.write(chunk);
+        }
+
+        private void drain() throws IOException {
+            chunk.flip();
+            crc.update(chunk.duplicate());
+            while (chunk.hasRemaining()) channel.write(chunk);
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.event.SeriesChangedEvent;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal-backed store, selected with the {@code journal} profile. Owner saves (including work
+ * detail updates), bookings and series changes are appended to a {@link BookingJournal} and acknowledged once the
+ * journal is on disk; reads and slot claims are served by an in-memory
+ * {@link CalendarOwnerRepository}.
+ *
+ * <p>A snapshot of that state is written periodically in the background. Startup loads the newest
+ * snapshot and replays only the journal after it; journal segments older than the previous
+ * snapshot are deleted.
+ */
+@Repository
+@Profile("journal")
+public class JournaledCalendarOwnerRepository implements GenericRepository<CalendarOwner, String>, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    // The newest snapshot plus one to fall back on if the newest turns out damaged
+    private static final int SNAPSHOTS_KEPT = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledCalendarOwnerRepository.class);
+
+    private final CalendarOwnerRepository owners = new CalendarOwnerRepository();
+    private final BookingJournal journal;
+    private final JournalSnapshots snapshots;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    // Journaled bookings whose appointments may not be committed on their calendars yet, oldest first
+    private final Queue<PendingBooking> pending = new ConcurrentLinkedQueue<>();
+    private long lastSnapshotPosition;
+
+    public JournaledCalendarOwnerRepository(Path directory, int segmentSize) throws IOException {
+        this(directory, segmentSize, CalendarStorage.OBJECTS);
+    }
+
+    // Restored calendars keep their appointments in the given storage
+    @Autowired
+    public JournaledCalendarOwnerRepository(
+            @Value("${calendar.journal.dir:./data/journal}") Path directory,
+            @Value("${calendar.journal.segment-size:" + DEFAULT_SEGMENT_SIZE + "}") int segmentSize,
+            @Value("${calendar.storage:objects}") CalendarStorage storage) throws IOException {
+        long began = System.nanoTime();
+        JournalReplay replay = new JournalReplay(LocalDateTime.now(), storage);
+        Files.createDirectories(directory);
+        this.snapshots = new JournalSnapshots(directory);
+        this.lastSnapshotPosition = snapshots.loadLatest(replay);
+        this.journal = BookingJournal.open(directory, segmentSize, lastSnapshotPosition, replay);
+        replay.finish().forEach(owners::save);
+        log.info("Loaded {} snapshot and journal records (journal from position {}) into {} owners, {} upcoming appointments and {} series in {} ms",
+                replay.records(), lastSnapshotPosition, owners.findAll().size(), replay.appointments(), replay.series(),
+                (System.nanoTime() - began) / 1_000_000);
+    }
+
+    @Override
+    public List<CalendarOwner> findAll() {
+        return owners.findAll();
+    }
+
+    @Override
+    public CalendarOwner findById(String id) {
+        return owners.findById(id);
+    }
+
+    @Override
+    public List<CalendarOwner> findPage(String afterId, int limit) {
+        return owners.findPage(afterId, limit);
+    }
+
+    public CalendarOwner findByEmail(String email) {
+        return owners.findByEmail(email);
+    }
+
+    @Override
+    public void save(CalendarOwner owner) {
+        owners.save(owner); // rejects a duplicate email before anything is written
+        journal.awaitDurable(journal.append(JournalRecords.OWNER, JournalRecords.owner(owner)));
+    }
+
+    @Override
+    public boolean storesBookings() {
+        return true;
+    }
+
+    /**
+     * Appends one record per booked appointment and waits for a single flush covering all of them.
+     * The appointments are still only held on their calendars; an append or flush failure is
+     * rethrown so that the booking gives them back.
+     */
+    @EventListener
+    public void onAppointmentsBooked(AppointmentsBookedEvent event) {
+        PendingBooking booking = new PendingBooking(journal.position(), event.appointments());
+        pending.add(booking);
+        try {
+            long position = 0;
+            for (Appointment appointment : event.appointments()) {
+                position = journal.append(JournalRecords.TIMED_APPOINTMENT, JournalRecords.appointment(appointment));
+            }
+            journal.awaitDurable(position);
+        } catch (RuntimeException e) {
+            pending.remove(booking);
+            throw e;
+        }
+        PendingBooking oldest;
+        while ((oldest = pending.peek()) != null && !oldest.held()) {
+            pending.remove(oldest);
+        }
+    }
+
+    /**
+     * Appends the series' full state and waits for it to be on disk.
+     */
+    @EventListener
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        journal.awaitDurable(journal.append(JournalRecords.SERIES, JournalRecords.series(event.series())));
+    }
+
+    /**
+     * Writes a snapshot if anything was journaled since the last one, then prunes old snapshots and
+     * segments. Bookings carry on meanwhile. A booking is journaled before it is committed on its
+     * calendar, so the snapshot is tagged with the start of the oldest booking still held when the
+     * walk begins (or the current position if none is): anything journaled before that is in memory
+     * and in the snapshot, and whatever else the snapshot picks up is harmlessly replayed again from
+     * the journal tail.
+     */
+    @Scheduled(fixedDelayString = "${calendar.snapshot.interval-ms:300000}",
+            initialDelayString = "${calendar.snapshot.interval-ms:300000}")
+    public void takeSnapshot() throws IOException {
+        if (!snapshotLock.tryLock()) return;
+        try {
+            long position = journal.position();
+            if (position == lastSnapshotPosition) return;
+            long replayFrom = position;
+            for (PendingBooking booking : pending) {
+                if (booking.held()) replayFrom = Math.min(replayFrom, booking.from());
+            }
+
+            long began = System.nanoTime();
+            long bytes = snapshots.write(replayFrom, owners.findAll());
+            lastSnapshotPosition = position;
+            int deleted = journal.deleteSegmentsBefore(snapshots.retainLatest(SNAPSHOTS_KEPT));
+            log.info("Wrote {} byte snapshot at journal position {} in {} ms; deleted {} journal segments",
+                    bytes, replayFrom, (System.nanoTime() - began) / 1_000_000, deleted);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    // A booking's appointments and the journal position before their records
+    private record PendingBooking(long from, List<Appointment> appointments) {
+
+        boolean held() {
+            for (Appointment appointment : appointments) {
+                if (appointment.getOwner().getCalendar().isReserved(appointment)) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One booked appointment. The unique (calendar_id, start_time) constraint only stops the same start
+ * from being stored twice; the database does not enforce "no double booking" for appointments of
+ * different lengths that overlap. That is left to the calendar's interval index, which refuses
+ * overlaps before anything is written. The constraint's index also serves slot and range queries.
+ */
+@Entity
+@Table(name = "appointment",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_calendar_start",
+                columnNames = {"calendar_id", "start_time"}))
+public class AppointmentRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "calendar_id", length = 36, nullable = false)
+    private String calendarId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    private String subject;
+
+    @Column(name = "invitee_id", length = 36)
+    private String inviteeId;
+
+    protected AppointmentRecord() {}
+
+    static AppointmentRecord from(Appointment appointment) {
+        AppointmentRecord record = new AppointmentRecord();
+        record.id = appointment.getId();
+        record.calendarId = appointment.getOwner().getCalendar().getId();
+        record.startTime = appointment.getStartTime();
+        record.endTime = appointment.getEndTime();
+        record.subject = appointment.getSubject();
+        record.inviteeId = appointment.getInvitee() != null ? appointment.getInvitee().getId() : null;
+        return record;
+    }
+
+    public String getId() { return id; }
+    public String getCalendarId() { return calendarId; }
+    public LocalDateTime getStartTime() { return startTime; }
+    public LocalDateTime getEndTime() { return endTime; }
+    public String getSubject() { return subject; }
+    public String getInviteeId() { return inviteeId; }
+}
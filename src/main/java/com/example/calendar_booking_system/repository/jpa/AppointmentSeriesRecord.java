@@ -0,0 +1,91 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+import jakarta.persistence.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One recurring series: its rule in one row and only its cancelled dates in a side table, however
+ * many occurrences it has. {@code last_end} lets the startup load skip series that are over.
+ */
+@Entity
+@Table(name = "appointment_series",
+        indexes = @Index(name = "idx_appointment_series_last_end", columnList = "last_end"))
+public class AppointmentSeriesRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "calendar_id", length = 36, nullable = false)
+    private String calendarId;
+
+    @Column(name = "first_start", nullable = false)
+    private LocalDateTime firstStart;
+
+    @Column(name = "duration_minutes", nullable = false)
+    private int durationMinutes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 6, nullable = false)
+    private RecurrenceRule.Frequency frequency;
+
+    @Column(name = "recurrence_interval", nullable = false)
+    private int interval;
+
+    @Column(name = "until_date")
+    private LocalDate until;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private int count;
+
+    @Column(name = "last_end", nullable = false)
+    private LocalDateTime lastEnd;
+
+    private String subject;
+
+    @Column(name = "invitee_id", length = 36)
+    private String inviteeId;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "appointment_series_cancellation", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "occurrence_date")
+    private Set<LocalDate> cancelledDates = new HashSet<>();
+
+    protected AppointmentSeriesRecord() {}
+
+    static AppointmentSeriesRecord from(AppointmentSeries series) {
+        AppointmentSeriesRecord record = new AppointmentSeriesRecord();
+        RecurrenceRule rule = series.getRule();
+        record.id = series.getId();
+        record.calendarId = series.getOwner().getCalendar().getId();
+        record.firstStart = series.getFirstStart();
+        record.durationMinutes = (int) series.getDurationMinutes();
+        record.frequency = rule.getFrequency();
+        record.interval = rule.getInterval();
+        record.until = rule.getUntil();
+        record.count = rule.getCount();
+        record.lastEnd = series.getLastEnd();
+        record.subject = series.getSubject();
+        record.inviteeId = series.getInvitee() != null ? series.getInvitee().getId() : null;
+        record.cancelledDates = new HashSet<>(series.getCancelledDates());
+        return record;
+    }
+
+    AppointmentSeries toSeries(CalendarOwner owner, Invitee invitee) {
+        return new AppointmentSeries(id, firstStart, Duration.ofMinutes(durationMinutes),
+                new RecurrenceRule(frequency, interval, until, count), subject, invitee, owner, cancelledDates);
+    }
+
+    public String getId() { return id; }
+    public String getCalendarId() { return calendarId; }
+    public String getInviteeId() { return inviteeId; }
+}
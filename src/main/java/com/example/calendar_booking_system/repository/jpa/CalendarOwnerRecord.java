@@ -0,0 +1,58 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.WorkWeek;
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "calendar_owner",
+        uniqueConstraints = @UniqueConstraint(name = "uk_calendar_owner_email", columnNames = "email"))
+public class CalendarOwnerRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String name;
+
+    private String email;
+
+    @Column(name = "work_day_start")
+    private LocalTime workDayStart;
+
+    @Column(name = "work_day_end")
+    private LocalTime workDayEnd;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "calendar_owner_off_day", joinColumns = @JoinColumn(name = "owner_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", length = 9)
+    private Set<DayOfWeek> offDays = new HashSet<>();
+
+    protected CalendarOwnerRecord() {}
+
+    static CalendarOwnerRecord from(CalendarOwner owner) {
+        CalendarOwnerRecord record = new CalendarOwnerRecord();
+        record.id = owner.getId();
+        record.name = owner.getName();
+        record.email = owner.getEmail();
+        WorkWeek week = owner.workWeek(); // one read, so hours and off days belong together
+        record.workDayStart = week.getStart();
+        record.workDayEnd = week.getEnd();
+        record.offDays = new HashSet<>(week.getOffDays());
+        return record;
+    }
+
+    CalendarOwner toOwner() {
+        CalendarOwner owner = new CalendarOwner(id, name, email);
+        owner.setWorkDetails(workDayStart, workDayEnd, offDays);
+        return owner;
+    }
+
+    public String getId() { return id; }
+}
@@ -0,0 +1,26 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "calendar",
+        uniqueConstraints = @UniqueConstraint(name = "uk_calendar_owner", columnNames = "owner_id"))
+public class CalendarRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "owner_id", length = 36, nullable = false)
+    private String ownerId;
+
+    protected CalendarRecord() {}
+
+    CalendarRecord(String id, String ownerId) {
+        this.id = id;
+        this.ownerId = ownerId;
+    }
+
+    public String getId() { return id; }
+    public String getOwnerId() { return ownerId; }
+}
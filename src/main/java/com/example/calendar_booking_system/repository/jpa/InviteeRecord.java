@@ -0,0 +1,33 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.entity.Invitee;
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "invitee")
+public class InviteeRecord {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String name;
+
+    private String email;
+
+    protected InviteeRecord() {}
+
+    static InviteeRecord from(Invitee invitee) {
+        InviteeRecord record = new InviteeRecord();
+        record.id = invitee.getId();
+        record.name = invitee.getName();
+        record.email = invitee.getEmail();
+        return record;
+    }
+
+    Invitee toInvitee() {
+        return new Invitee(id, name, email);
+    }
+
+    public String getId() { return id; }
+}
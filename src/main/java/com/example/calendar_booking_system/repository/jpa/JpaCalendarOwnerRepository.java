@@ -0,0 +1,197 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.event.SeriesChangedEvent;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-through store over H2/JPA, selected with the {@code jpa} profile. Owners, calendars and
+ * upcoming appointments are loaded into an in-memory {@link CalendarOwnerRepository} on startup and
+ * served from there, so reads and slot claims stay in memory; owner saves, bookings and series
+ * changes are written to the database as they happen.
+ */
+@Repository
+@Profile("jpa")
+public class JpaCalendarOwnerRepository implements GenericRepository<CalendarOwner, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaCalendarOwnerRepository.class);
+
+    private final CalendarOwnerRepository owners = new CalendarOwnerRepository();
+    private final Set<String> storedInviteeIds = ConcurrentHashMap.newKeySet();
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactions;
+    private final CalendarStorage storage; // for the calendars loaded
+
+    public JpaCalendarOwnerRepository(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this(entityManager, transactionManager, CalendarStorage.OBJECTS);
+    }
+
+    @Autowired
+    public JpaCalendarOwnerRepository(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                      @Value("${calendar.storage:objects}") CalendarStorage storage) {
+        this.entityManager = entityManager;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.storage = storage;
+    }
+
+    @Override
+    public List<CalendarOwner> findAll() {
+        return owners.findAll();
+    }
+
+    @Override
+    public CalendarOwner findById(String id) {
+        return owners.findById(id);
+    }
+
+    @Override
+    public List<CalendarOwner> findPage(String afterId, int limit) {
+        return owners.findPage(afterId, limit);
+    }
+
+    public CalendarOwner findByEmail(String email) {
+        return owners.findByEmail(email);
+    }
+
+    @Override
+    public void save(CalendarOwner owner) {
+        owners.save(owner); // rejects a duplicate email before anything is written
+        transactions.executeWithoutResult(status -> {
+            entityManager.merge(CalendarOwnerRecord.from(owner));
+            if (owner.getCalendar() != null) {
+                entityManager.merge(new CalendarRecord(owner.getCalendar().getId(), owner.getId()));
+            }
+        });
+    }
+
+    @Override
+    public boolean storesBookings() {
+        return true;
+    }
+
+    /**
+     * Inserts the booked appointments in one transaction; the inserts go out as JDBC batches. An
+     * invitee seen for the first time is stored first, on its own.
+     */
+    @EventListener
+    public void onAppointmentsBooked(AppointmentsBookedEvent event) {
+        for (Appointment appointment : event.appointments()) {
+            Invitee invitee = appointment.getInvitee();
+            if (invitee != null && !storedInviteeIds.contains(invitee.getId())) storeInvitee(invitee);
+        }
+        transactions.executeWithoutResult(status -> {
+            for (Appointment appointment : event.appointments()) {
+                entityManager.persist(AppointmentRecord.from(appointment));
+            }
+        });
+    }
+
+    /**
+     * Writes the series' full state, inserting it on create and updating its cancellations later.
+     */
+    @EventListener
+    public void onSeriesChanged(SeriesChangedEvent event) {
+        Invitee invitee = event.series().getInvitee();
+        if (invitee != null && !storedInviteeIds.contains(invitee.getId())) storeInvitee(invitee);
+        transactions.executeWithoutResult(status -> entityManager.merge(AppointmentSeriesRecord.from(event.series())));
+    }
+
+    // Inserts the invitee unless it is already stored. Concurrent first bookings of one invitee race
+    // for the same row, and the loser finds it there, so its own booking still goes ahead
+    private void storeInvitee(Invitee invitee) {
+        try {
+            transactions.executeWithoutResult(status -> entityManager.merge(InviteeRecord.from(invitee)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Invitee {} was stored by a concurrent booking", invitee.getId());
+        }
+        storedInviteeIds.add(invitee.getId());
+    }
+
+    /**
+     * Rebuilds the in-memory owners and calendars from the database. Appointments that have already
+     * ended stay in the table but are not loaded, matching what the background expiry keeps in memory.
+     */
+    @PostConstruct
+    void load() {
+        LocalDateTime now = LocalDateTime.now();
+        transactions.executeWithoutResult(status -> {
+            Map<String, CalendarOwner> ownersById = new HashMap<>();
+            for (CalendarOwnerRecord record : entityManager
+                    .createQuery("select o from CalendarOwnerRecord o", CalendarOwnerRecord.class).getResultList()) {
+                ownersById.put(record.getId(), record.toOwner());
+            }
+
+            Map<String, CalendarOwner> ownersByCalendarId = new HashMap<>();
+            for (CalendarRecord record : entityManager
+                    .createQuery("select c from CalendarRecord c", CalendarRecord.class).getResultList()) {
+                CalendarOwner owner = ownersById.get(record.getOwnerId());
+                if (owner == null) continue;
+                owner.setCalendar(new Calendar(record.getId(), storage));
+                ownersByCalendarId.put(record.getId(), owner);
+            }
+
+            Map<String, Invitee> inviteesById = new HashMap<>();
+            for (InviteeRecord record : entityManager
+                    .createQuery("select i from InviteeRecord i", InviteeRecord.class).getResultList()) {
+                inviteesById.put(record.getId(), record.toInvitee());
+                storedInviteeIds.add(record.getId());
+            }
+
+            List<AppointmentRecord> upcoming = entityManager
+                    .createQuery("select a from AppointmentRecord a where a.endTime > :now order by a.startTime",
+                            AppointmentRecord.class)
+                    .setParameter("now", now)
+                    .getResultList();
+            for (AppointmentRecord record : upcoming) {
+                CalendarOwner owner = ownersByCalendarId.get(record.getCalendarId());
+                if (owner == null) continue;
+                Invitee invitee = inviteesById.get(record.getInviteeId());
+                Appointment appointment = new Appointment(record.getId(), record.getStartTime(),
+                        Duration.between(record.getStartTime(), record.getEndTime()), record.getSubject(), invitee, owner);
+                owner.getCalendar().addAppointment(appointment);
+                if (invitee != null) invitee.addAppointment(appointment);
+            }
+
+            List<AppointmentSeriesRecord> series = entityManager
+                    .createQuery("select s from AppointmentSeriesRecord s where s.lastEnd > :now", AppointmentSeriesRecord.class)
+                    .setParameter("now", now)
+                    .getResultList();
+            for (AppointmentSeriesRecord record : series) {
+                CalendarOwner owner = ownersByCalendarId.get(record.getCalendarId());
+                if (owner == null) continue;
+                owner.getCalendar().addSeries(record.toSeries(owner, inviteesById.get(record.getInviteeId())));
+            }
+
+            ownersById.values().forEach(owners::save);
+            log.info("Loaded {} owners, {} upcoming appointments and {} series",
+                    ownersById.size(), upcoming.size(), series.size());
+        });
+    }
+}
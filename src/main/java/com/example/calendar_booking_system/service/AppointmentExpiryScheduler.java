@@ -0,0 +1,64 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Retires ended appointments in the background so read paths never have to.
+ * Each run sweeps the next batch of owners in id order, wrapping around once every owner has been
+ * visited; owners saved meanwhile neither shift the cursor nor get swept twice in a round.
+ */
+@Component
+public class AppointmentExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentExpiryScheduler.class);
+
+    private final GenericRepository<CalendarOwner, String> calendarOwnerRepository;
+    private final CalendarService calendarService;
+    private final int batchSize;
+
+    private String lastId; // last owner swept, null to start from the first; only touched by the scheduler thread
+
+    public AppointmentExpiryScheduler(GenericRepository<CalendarOwner, String> calendarOwnerRepository,
+                                      CalendarService calendarService,
+                                      @Value("${calendar.expiry.batch-size:500}") int batchSize) {
+        this.calendarOwnerRepository = calendarOwnerRepository;
+        this.calendarService = calendarService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${calendar.expiry.interval-ms:1000}")
+    public void sweepNextBatch() {
+        List<CalendarOwner> batch = calendarOwnerRepository.findPage(lastId, batchSize);
+        // A short page reached the end of the ids, so the next run starts over from the first
+        lastId = batch.size() < batchSize ? null : batch.get(batch.size() - 1).getId();
+        if (batch.isEmpty()) return;
+
+        int removed = sweep(batch);
+        if (removed > 0) {
+            log.debug("Expired {} appointments from {} owners", removed, batch.size());
+        }
+    }
+
+    /**
+     * Removes ended appointments from the given owners' calendars. Returns the number removed.
+     */
+    public int sweep(List<CalendarOwner> owners) {
+        int removed = 0;
+        for (CalendarOwner owner : owners) {
+            Calendar calendar = owner.getCalendar();
+            if (calendar != null) {
+                removed += calendarService.cleanupPastAppointments(calendar);
+            }
+        }
+        return removed;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.calendar_booking_system.service;
 
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
@@ -12,7 +13,11 @@ public interface CalendarOwnerService {
 
     ResponseEntity<?> createOwner(String name, String email);
 
-    ResponseEntity<?> getAllOwners();
+    /**
+     * One page of owners in id order, without their calendars. Pass the previous page's
+     * {@code nextCursor} to continue; a null cursor starts from the first owner.
+     */
+    ResponseEntity<?> getOwners(String cursor, int limit);
 
     ResponseEntity<?> getWorkDetails(String ownerId);
 
@@ -21,4 +26,14 @@ public interface CalendarOwnerService {
     ResponseEntity<?> getFullSummary(String ownerId);
 
     ResponseEntity<?> getTodaySummary(String ownerId);
+
+    /**
+     * The full summary as JSON, streamed one day group at a time.
+     */
+    ResponseEntity<StreamingResponseBody> streamFullSummary(String ownerId);
+
+    /**
+     * Today's summary as JSON, streamed one day group at a time.
+     */
+    ResponseEntity<StreamingResponseBody> streamTodaySummary(String ownerId);
 }
\ No newline at end of file
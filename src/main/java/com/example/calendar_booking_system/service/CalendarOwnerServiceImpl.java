@@ -1,32 +1,63 @@
 package com.example.calendar_booking_system.service;
 
+import com.example.calendar_booking_system.datatransferobject.OwnerPage;
 import com.example.calendar_booking_system.entity.Appointment;
 import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.WorkWeek;
+import com.example.calendar_booking_system.metrics.BookingMetrics;
 import com.example.calendar_booking_system.repository.GenericRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import com.example.calendar_booking_system.entity.Calendar;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class CalendarOwnerServiceImpl implements CalendarOwnerService {
 
     private final GenericRepository<CalendarOwner, String> calendarOwnerRepository;
     private final CalendarService calendarService;
+    private final BookingMetrics metrics;
+    private final SummaryCache summaryCache;
+    // How the calendars of new owners keep their appointments (calendar.storage)
+    private final CalendarStorage storage;
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM");
+    private static final JsonFactory JSON = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 
     public CalendarOwnerServiceImpl(GenericRepository<CalendarOwner, String> calendarOwnerRepository,
                                     CalendarService calendarService) {
+        this(calendarOwnerRepository, calendarService, BookingMetrics.standalone(),
+                new SummaryCache(SummaryCache.DEFAULT_MAX_ENTRIES), CalendarStorage.OBJECTS);
+    }
+
+    @Autowired
+    public CalendarOwnerServiceImpl(GenericRepository<CalendarOwner, String> calendarOwnerRepository,
+                                    CalendarService calendarService,
+                                    BookingMetrics metrics,
+                                    SummaryCache summaryCache,
+                                    @Value("${calendar.storage:objects}") CalendarStorage storage) {
         this.calendarOwnerRepository = calendarOwnerRepository;
         this.calendarService = calendarService;
+        this.metrics = metrics;
+        this.summaryCache = summaryCache;
+        this.storage = storage;
     }
 
     @Override
@@ -37,14 +68,31 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
         if (email == null || email.isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Email is required"));
         }
-        CalendarOwner owner = new CalendarOwner(name, email);
-        calendarOwnerRepository.save(owner);
+        CalendarOwner owner = new CalendarOwner(name, email, storage);
+        try {
+            calendarOwnerRepository.save(owner);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         return ResponseEntity.ok(owner);
     }
 
     @Override
-    public ResponseEntity<?> getAllOwners() {
-        return ResponseEntity.ok(new HashSet<>(calendarOwnerRepository.findAll()));
+    public ResponseEntity<?> getOwners(String cursor, int limit) {
+        if (limit < 1 || limit > OwnerPage.MAX_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + OwnerPage.MAX_SIZE));
+        }
+        String after = cursor == null || cursor.isBlank() ? null : cursor;
+        // One extra owner tells whether another page follows without a separate count
+        List<CalendarOwner> owners = calendarOwnerRepository.findPage(after, limit + 1);
+        int size = Math.min(limit, owners.size());
+        List<OwnerPage.Owner> page = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            page.add(new OwnerPage.Owner(owners.get(i)));
+        }
+        String next = owners.size() > limit ? owners.get(limit - 1).getId() : null;
+        return ResponseEntity.ok(new OwnerPage(page, next));
     }
 
     @Override
@@ -57,13 +105,14 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "Owner not found with id: " + ownerId));
         }
+        WorkWeek week = owner.workWeek();
         return ResponseEntity.ok(String.format(
                 "The work details of owner with id = %s are as follows: " +
                         "Working hours: %s to %s, Off days: %s",
                 ownerId,
-                owner.getWorkDayStart() != null ? owner.getWorkDayStart() : "Not set",
-                owner.getWorkDayEnd() != null ? owner.getWorkDayEnd() : "Not set",
-                (owner.getOffDays() != null && !owner.getOffDays().isEmpty()) ? owner.getOffDays() : "None"
+                week.getStart(),
+                week.getEnd(),
+                !week.getOffDays().isEmpty() ? week.getOffDays() : "None"
         ));
     }
 
@@ -98,7 +147,6 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
         if (!start.isBefore(end)) {
             return ResponseEntity.badRequest().body(Map.of("error", "Start time must be before end time"));
         }
-        owner.setWorkHours(start, end);
 
         // Off days
         Set<DayOfWeek> offDays = new HashSet<>();
@@ -114,7 +162,9 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
                 }
             }
         }
-        owner.setOffDays(offDays);
+        // Everything is validated, so hours and off days are compiled and published in one step
+        owner.setWorkDetails(start, end, offDays);
+        calendarOwnerRepository.save(owner);
 
         return ResponseEntity.ok(String.format(
                 "The work details of owner with id = %s have been updated and are as follows: " +
@@ -136,16 +186,22 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
                     .body(Map.of("error", "Calendar not found for owner with id: " + ownerId));
         }
 
-        calendarService.cleanupPastAppointments(calendar);
-
-        if (calendar.getAppointments().isEmpty()) {
-            return ResponseEntity.ok("You have no upcoming appointments.");
-        }
-
-        LocalDate today = LocalDate.now();
+        // Ended appointments are retired in the background; here they are only filtered out
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
         LocalDate cutoff = today.plusDays(15);
 
-        return ResponseEntity.ok(buildSummary(calendar, today, cutoff));
+        long version = calendar.getVersion();
+        SummaryCache.Summary summary = summaryCache.entry(ownerId, today, cutoff, version, now, () -> {
+            if (calendar.getAppointmentsBetween(today, cutoff).stream().noneMatch(app -> app.getEndTime().isAfter(now))) {
+                return new SummaryCache.Summary("You have no upcoming appointments.", null);
+            }
+            return metrics.summaryBuild().record(() -> buildSummary(calendar, today, cutoff, now));
+        });
+        // Spring answers a matching If-None-Match on this GET with 304 and no body
+        return ResponseEntity.ok()
+                .eTag(ETags.summary("text", version, today, cutoff, summary.validUntil()))
+                .body(summary.text());
     }
 
     @Override
@@ -161,65 +217,200 @@ public class CalendarOwnerServiceImpl implements CalendarOwnerService {
                     .body(Map.of("error", "Calendar not found for owner with id: " + ownerId));
         }
 
-        calendarService.cleanupPastAppointments(calendar);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        long version = calendar.getVersion();
+        SummaryCache.Summary summary = summaryCache.entry(ownerId, today, today, version, now,
+                () -> metrics.summaryBuild().record(() -> buildSummary(calendar, today, today, now)));
+        return ResponseEntity.ok()
+                .eTag(ETags.summary("text", version, today, today, summary.validUntil()))
+                .body(summary.text());
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamFullSummary(String ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        return streamSummary(ownerId, today, today.plusDays(15), now);
+    }
 
-        LocalDate today = LocalDate.now();
-        return ResponseEntity.ok(buildSummary(calendar, today, today));
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamTodaySummary(String ownerId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        return streamSummary(ownerId, today, today, now);
     }
 
     // ----------------- helper -----------------
-    private String buildSummary(Calendar calendar, LocalDate from, LocalDate to) {
-        Set<Appointment> snapshot;
-        synchronized (calendar.getAppointments()) {
-            snapshot = new TreeSet<>(calendar.getAppointments());
+    private SummaryCache.Summary buildSummary(Calendar calendar, LocalDate from, LocalDate to, LocalDateTime now) {
+        // Walks the ordered range in place; only the current day's appointments are held at a time
+        StringBuilder sb = new StringBuilder();
+        List<Appointment> day = new ArrayList<>();
+        LocalDateTime firstEnd = null; // the text goes stale once the earliest listed appointment ends
+        for (Appointment app : calendar.getAppointmentsBetween(from, to)) {
+            if (!app.getEndTime().isAfter(now)) continue;
+            if (firstEnd == null || app.getEndTime().isBefore(firstEnd)) firstEnd = app.getEndTime();
+            if (!day.isEmpty() && !day.get(0).getStartTime().toLocalDate().equals(app.getStartTime().toLocalDate())) {
+                appendDay(sb, day, from.equals(to));
+                day.clear();
+            }
+            day.add(app);
         }
+        if (!day.isEmpty()) appendDay(sb, day, from.equals(to));
 
-        Map<LocalDate, List<Appointment>> grouped = snapshot.stream()
-                .filter(app -> {
-                    LocalDate d = app.getStartTime().toLocalDate();
-                    return !d.isBefore(from) && !d.isAfter(to);
-                })
-                .collect(Collectors.groupingBy(
-                        app -> app.getStartTime().toLocalDate(),
-                        TreeMap::new,
-                        Collectors.toList()
-                ));
+        if (sb.length() == 0) {
+            if (from.equals(to)) return new SummaryCache.Summary("You have no appointments today.", null);
+            return new SummaryCache.Summary("You have no appointments in the given range.", null);
+        }
+        return new SummaryCache.Summary(sb.toString(), firstEnd);
+    }
 
-        if (grouped.isEmpty()) {
-            if (from.equals(to)) return "You have no appointments today.";
-            return "You have no appointments in the given range.";
+    private static void appendDay(StringBuilder sb, List<Appointment> apps, boolean today) {
+        if (today) {
+            sb.append("Today you have ").append(apps.size())
+                    .append(" meeting").append(apps.size() > 1 ? "s" : "")
+                    .append(" in the following order:\n");
+        } else {
+            sb.append("On ").append(apps.get(0).getStartTime().toLocalDate().format(DATE_FORMATTER))
+                    .append(" you have ").append(apps.size())
+                    .append(" meeting").append(apps.size() > 1 ? "s" : "")
+                    .append(":\n");
         }
 
-        StringBuilder sb = new StringBuilder();
-        for (Map.Entry<LocalDate, List<Appointment>> entry : grouped.entrySet()) {
-            LocalDate date = entry.getKey();
-            List<Appointment> apps = entry.getValue();
-
-            if (from.equals(to)) {
-                sb.append("Today you have ").append(apps.size())
-                        .append(" meeting").append(apps.size() > 1 ? "s" : "")
-                        .append(" in the following order:\n");
-            } else {
-                sb.append("On ").append(date.format(DATE_FORMATTER))
-                        .append(" you have ").append(apps.size())
-                        .append(" meeting").append(apps.size() > 1 ? "s" : "")
-                        .append(":\n");
+        int idx = 1;
+        for (Appointment app : apps) {
+            sb.append(idx++)
+                    .append(". At ")
+                    .append(app.getStartTime().format(TIME_FORMATTER))
+                    .append(" an appointment with ")
+                    .append(app.getInvitee().getName())
+                    .append(" on the subject ")
+                    .append(app.getSubject())
+                    .append("\n");
+        }
+        sb.append("\n");
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamSummary(String ownerId, LocalDate from, LocalDate to,
+                                                                LocalDateTime now) {
+        CalendarOwner owner = calendarOwnerRepository.findById(ownerId);
+        if (owner == null) {
+            return streamError(HttpStatus.NOT_FOUND, "Calendar owner not found for id: " + ownerId);
+        }
+        Calendar calendar = owner.getCalendar();
+        if (calendar == null) {
+            return streamError(HttpStatus.NOT_FOUND, "Calendar not found for owner with id: " + ownerId);
+        }
+
+        long version = calendar.getVersion();
+        LocalDateTime validUntil = summaryCache.streamedValidUntil(ownerId, from, to, version, now,
+                () -> earliestEnd(calendar, from, to, now));
+        String etag = ETags.summary("json", version, from, to, validUntil);
+        StreamingResponseBody body = out -> writeSummary(ownerId, calendar, from, to, now, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(etag).body(body);
+    }
+
+    // The end of the first listed appointment to finish, when the streamed summary next changes on its own
+    private static LocalDateTime earliestEnd(Calendar calendar, LocalDate from, LocalDate to, LocalDateTime now) {
+        LocalDateTime first = null;
+        for (Appointment app : calendar.getAppointmentsBetween(from, to)) {
+            LocalDateTime end = app.getEndTime();
+            if (end.isAfter(now) && (first == null || end.isBefore(first))) first = end;
+        }
+        return first;
+    }
+
+    // Streaming endpoints must hand back a StreamingResponseBody, so errors are written the same way
+    private static ResponseEntity<StreamingResponseBody> streamError(HttpStatus status, String message) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = JSON.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeStringField("error", message);
+                json.writeEndObject();
             }
+        };
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Writes {"ownerId", "from", "to", "days": [{"date", "appointments": [...]}]} while walking the
+     * ordered range, so each day group goes out as soon as it is complete.
+     */
+    private void writeSummary(String ownerId, Calendar calendar, LocalDate from, LocalDate to,
+                              LocalDateTime now, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start();
+        char[] buf = new char[16]; // reused for every date and time written below
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("ownerId", ownerId);
+            json.writeStringField("from", from.toString());
+            json.writeStringField("to", to.toString());
+            json.writeArrayFieldStart("days");
 
-            int idx = 1;
-            for (Appointment app : apps) {
-                sb.append(idx++)
-                        .append(". At ")
-                        .append(app.getStartTime().format(TIME_FORMATTER))
-                        .append(" an appointment with ")
-                        .append(app.getInvitee().getName())
-                        .append(" on the subject ")
-                        .append(app.getSubject())
-                        .append("\n");
+            LocalDate current = null;
+            for (Appointment app : calendar.getAppointmentsBetween(from, to)) {
+                if (!app.getEndTime().isAfter(now)) continue;
+                LocalDate date = app.getStartTime().toLocalDate();
+                if (!date.equals(current)) {
+                    if (current != null) {
+                        json.writeEndArray();
+                        json.writeEndObject();
+                    }
+                    json.writeStartObject();
+                    json.writeFieldName("date");
+                    json.writeString(buf, 0, formatDate(date, buf));
+                    json.writeArrayFieldStart("appointments");
+                    current = date;
+                }
+                json.writeStartObject();
+                json.writeStringField("id", app.getId());
+                json.writeFieldName("start");
+                json.writeString(buf, 0, formatDateTime(app.getStartTime(), buf));
+                json.writeFieldName("end");
+                json.writeString(buf, 0, formatDateTime(app.getEndTime(), buf));
+                json.writeStringField("subject", app.getSubject());
+                json.writeStringField("inviteeId", app.getInvitee().getId());
+                json.writeStringField("inviteeName", app.getInvitee().getName());
+                json.writeEndObject();
+            }
+            if (current != null) {
+                json.writeEndArray();
+                json.writeEndObject();
             }
-            sb.append("\n");
+
+            json.writeEndArray();
+            json.writeEndObject();
+        } finally {
+            sample.stop(metrics.summaryBuild());
         }
+    }
+
+    // ISO yyyy-MM-dd into buf without allocating; returns the length written (years 0..9999)
+    private static int formatDate(LocalDate date, char[] buf) {
+        int year = date.getYear();
+        buf[0] = (char) ('0' + year / 1000);
+        buf[1] = (char) ('0' + year / 100 % 10);
+        buf[2] = (char) ('0' + year / 10 % 10);
+        buf[3] = (char) ('0' + year % 10);
+        buf[4] = '-';
+        twoDigits(date.getMonthValue(), buf, 5);
+        buf[7] = '-';
+        twoDigits(date.getDayOfMonth(), buf, 8);
+        return 10;
+    }
+
+    // ISO yyyy-MM-ddTHH:mm into buf without allocating; returns the length written
+    private static int formatDateTime(LocalDateTime time, char[] buf) {
+        formatDate(time.toLocalDate(), buf);
+        buf[10] = 'T';
+        twoDigits(time.getHour(), buf, 11);
+        buf[13] = ':';
+        twoDigits(time.getMinute(), buf, 14);
+        return 16;
+    }
 
-        return sb.toString();
+    private static void twoDigits(int value, char[] buf, int at) {
+        buf[at] = (char) ('0' + value / 10);
+        buf[at + 1] = (char) ('0' + value % 10);
     }
-}
\ No newline at end of file
+}
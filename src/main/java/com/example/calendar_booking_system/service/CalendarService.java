@@ -3,8 +3,13 @@ package com.example.calendar_booking_system.service;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.entity.Calendar;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.SortedMap;
 
 public interface CalendarService {
 
@@ -14,8 +19,36 @@ public interface CalendarService {
      */
     List<Integer> getFreeSlots(CalendarOwner owner, LocalDate queryDate);
 
+    /**
+     * Returns the free hour slots of every day from {@code from} to {@code to} inclusive, in date order.
+     * Off days map to an empty list. Returns null if any part of the range is outside the booking window.
+     */
+    SortedMap<LocalDate, List<Integer>> getFreeSlots(CalendarOwner owner, LocalDate from, LocalDate to);
+
+    /**
+     * Returns, for every day from {@code from} to {@code to} inclusive, the hours that are free for all
+     * of the given owners: inside each one's work hours, not on any one's off day and not booked.
+     * Returns null if any part of the range is outside the booking window.
+     */
+    SortedMap<LocalDate, List<Integer>> getCommonFreeSlots(Collection<CalendarOwner> owners, LocalDate from, LocalDate to);
+
+    /**
+     * Returns the free stretches of at least {@code minLength} within the owner's working hours on
+     * the given date, as start time to end time, in order. Unlike the hour slots these start at any
+     * minute, including a working day that starts at half past. Off days have none. Returns null if
+     * the date is too far ahead.
+     */
+    SortedMap<LocalTime, LocalTime> getFreeGaps(CalendarOwner owner, LocalDate date, Duration minLength);
+
+    /**
+     * True if an appointment of the given length starting at {@code start} lies inside the booking
+     * window, on a working day and within the owner's working hours. Says nothing about other bookings.
+     */
+    boolean isWithinWorkingTime(CalendarOwner owner, LocalDateTime start, Duration duration);
+
     /**
      * Removes past appointments from a calendar.
+     * Returns the number of appointments removed.
      */
-    void cleanupPastAppointments(Calendar calendar);
+    int cleanupPastAppointments(Calendar calendar);
 }
\ No newline at end of file
@@ -1,66 +1,204 @@
 package com.example.calendar_booking_system.service;
 
+import com.example.calendar_booking_system.entity.Appointment;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.WorkWeek;
+import com.example.calendar_booking_system.metrics.BookingMetrics;
 import com.example.calendar_booking_system.repository.GenericRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class CalendarServiceImpl implements CalendarService {
 
+    // Below this many owners the per-owner work is too small to be worth splitting across threads
+    static final int PARALLEL_MIN_OWNERS = 128;
+
     // --- Changed from concrete repository to GenericRepository interface ---
     private final GenericRepository<CalendarOwner, String> calendarOwnerRepository;
 
+    private final BookingMetrics metrics;
+
     public CalendarServiceImpl(GenericRepository<CalendarOwner, String> calendarOwnerRepository) {
+        this(calendarOwnerRepository, BookingMetrics.standalone());
+    }
+
+    @Autowired
+    public CalendarServiceImpl(GenericRepository<CalendarOwner, String> calendarOwnerRepository,
+                               BookingMetrics metrics) {
         this.calendarOwnerRepository = calendarOwnerRepository;
+        this.metrics = metrics;
     }
 
     @Override
     public List<Integer> getFreeSlots(CalendarOwner owner, LocalDate queryDate) {
+        return metrics.freeSlots().record(() -> computeFreeSlots(owner, queryDate));
+    }
+
+    @Override
+    public SortedMap<LocalDate, List<Integer>> getFreeSlots(CalendarOwner owner, LocalDate from, LocalDate to) {
+        return metrics.freeSlots().record(() -> computeFreeSlots(owner, from, to));
+    }
+
+    @Override
+    public SortedMap<LocalDate, List<Integer>> getCommonFreeSlots(Collection<CalendarOwner> owners,
+                                                                  LocalDate from, LocalDate to) {
+        return metrics.commonFreeSlots().record(() -> computeCommonFreeSlots(owners, from, to));
+    }
+
+    @Override
+    public SortedMap<LocalTime, LocalTime> getFreeGaps(CalendarOwner owner, LocalDate date, Duration minLength) {
+        return metrics.freeSlots().record(() -> computeFreeGaps(owner, date, minLength));
+    }
+
+    @Override
+    public boolean isWithinWorkingTime(CalendarOwner owner, LocalDateTime start, Duration duration) {
+        LocalDate date = start.toLocalDate();
+        LocalDateTime end = start.plus(duration);
+        WorkWeek week = owner.workWeek();
+        return withinBookingWindow(date, date)
+                && owner.getCalendar() != null
+                && !week.isOffDay(date.getDayOfWeek())
+                && !start.isBefore(date.atTime(week.getStart()))
+                && !end.isAfter(date.atTime(week.getEnd()));
+    }
+
+    @Override
+    public int cleanupPastAppointments(Calendar calendar) {
+        int removed = metrics.cleanup().record(() -> calendar.removeEndedAppointments(LocalDateTime.now()));
+        metrics.appointmentsExpired(removed);
+        return removed;
+    }
+
+    private List<Integer> computeFreeSlots(CalendarOwner owner, LocalDate queryDate) {
         Calendar calendar = owner.getCalendar();
         if (calendar == null) return Collections.emptyList();
 
-        LocalDate today = LocalDate.now();
-        LocalDate cutoff = today.plusDays(15);
-        if (queryDate.isBefore(today) || queryDate.isAfter(cutoff)) return null; // too far
-        if (owner.getOffDays().contains(queryDate.getDayOfWeek())) return Collections.emptyList();
+        if (!withinBookingWindow(queryDate, queryDate)) return null; // too far
 
-        cleanupPastAppointments(calendar);
+        long workHours = owner.workWeek().hourMask(queryDate.getDayOfWeek()); // 0 on an off day
+        if (workHours == 0L) return Collections.emptyList();
+        return hoursOf(workHours & ~calendar.getOccupiedHours(queryDate));
+    }
 
-        LocalTime start = owner.getWorkDayStart(); // e.g., 09:30
-        int startHour = start.getHour();
-        int endHour = owner.getWorkDayEnd().getHour();
+    // Walks only the claims overlapping the working day, found through the calendar's interval index
+    private SortedMap<LocalTime, LocalTime> computeFreeGaps(CalendarOwner owner, LocalDate date, Duration minLength) {
+        if (!withinBookingWindow(date, date)) return null;
 
-        if (start.getMinute() > 0) {
-            startHour++;
+        SortedMap<LocalTime, LocalTime> gaps = new TreeMap<>();
+        Calendar calendar = owner.getCalendar();
+        WorkWeek week = owner.workWeek();
+        if (calendar == null || week.isOffDay(date.getDayOfWeek())) return gaps;
+
+        LocalDateTime dayStart = date.atTime(week.getStart());
+        LocalDateTime dayEnd = date.atTime(week.getEnd());
+        LocalDateTime free = dayStart;
+        for (Appointment taken : calendar.getClaimsOverlapping(dayStart, dayEnd)) {
+            if (Duration.between(free, taken.getStartTime()).compareTo(minLength) >= 0) {
+                gaps.put(free.toLocalTime(), taken.getStartTime().toLocalTime());
+            }
+            if (taken.getEndTime().isAfter(free)) free = taken.getEndTime();
+        }
+        if (Duration.between(free, dayEnd).compareTo(minLength) >= 0) {
+            gaps.put(free.toLocalTime(), dayEnd.toLocalTime());
+        }
+        return gaps;
+    }
+
+    // One walk over the range's day words; the work-hour mask is worked out once for all days
+    private SortedMap<LocalDate, List<Integer>> computeFreeSlots(CalendarOwner owner, LocalDate from, LocalDate to) {
+        if (!withinBookingWindow(from, to)) return null;
+
+        Calendar calendar = owner.getCalendar();
+        WorkWeek week = owner.workWeek();
+        SortedMap<LocalDate, List<Integer>> free = new TreeMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            long workHours = week.hourMask(date.getDayOfWeek());
+            if (calendar == null || workHours == 0L) {
+                free.put(date, Collections.emptyList());
+            } else {
+                free.put(date, hoursOf(workHours & ~calendar.getOccupiedHours(date)));
+            }
         }
+        return free;
+    }
 
-        Set<Integer> taken;
-        synchronized (calendar.getAppointments()) {
-            taken = calendar.getAppointments().stream()
-                    .filter(app -> app.getStartTime().toLocalDate().equals(queryDate))
-                    .map(app -> app.getStartTime().getHour())
-                    .collect(Collectors.toSet());
+    // One word per day, starting as "all hours" and ANDed down with each owner's free-hour mask
+    private SortedMap<LocalDate, List<Integer>> computeCommonFreeSlots(Collection<CalendarOwner> owners,
+                                                                      LocalDate from, LocalDate to) {
+        if (!withinBookingWindow(from, to)) return null;
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        long[] common;
+        if (owners.size() >= PARALLEL_MIN_OWNERS) {
+            common = owners.parallelStream()
+                    .map(owner -> andFreeHours(allHours(days), owner, from))
+                    .reduce((a, b) -> { for (int d = 0; d < days; d++) a[d] &= b[d]; return a; })
+                    .orElseGet(() -> allHours(days));
+        } else {
+            common = allHours(days);
+            for (CalendarOwner owner : owners) {
+                andFreeHours(common, owner, from);
+                if (allZero(common)) break; // no common hour left to find
+            }
         }
 
-        List<Integer> free = new ArrayList<>();
-        for (int h = startHour; h < endHour; h++) {
-            if (!taken.contains(h)) free.add(h);
+        SortedMap<LocalDate, List<Integer>> free = new TreeMap<>();
+        for (int d = 0; d < days; d++) {
+            free.put(from.plusDays(d), hoursOf(common[d]));
         }
         return free;
     }
 
-    @Override
-    public void cleanupPastAppointments(Calendar calendar) {
-        LocalDateTime now = LocalDateTime.now();
-        synchronized (calendar.getAppointments()) {
-            calendar.getAppointments().removeIf(app -> !app.getEndTime().isAfter(now));
+    // ANDs the owner's free hours for each day starting at from into masks, and returns masks
+    private static long[] andFreeHours(long[] masks, CalendarOwner owner, LocalDate from) {
+        Calendar calendar = owner.getCalendar();
+        WorkWeek week = owner.workWeek();
+        LocalDate date = from;
+        for (int d = 0; d < masks.length; d++, date = date.plusDays(1)) {
+            long workHours = week.hourMask(date.getDayOfWeek());
+            if (calendar == null || workHours == 0L) {
+                masks[d] = 0L;
+            } else {
+                masks[d] &= workHours & ~calendar.getOccupiedHours(date);
+            }
+        }
+        return masks;
+    }
+
+    private static long[] allHours(int days) {
+        long[] masks = new long[days];
+        Arrays.fill(masks, -1L);
+        return masks;
+    }
+
+    private static boolean allZero(long[] masks) {
+        for (long mask : masks) {
+            if (mask != 0L) return false;
+        }
+        return true;
+    }
+
+    private static boolean withinBookingWindow(LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate cutoff = today.plusDays(15);
+        return !from.isBefore(today) && !to.isAfter(cutoff);
+    }
+
+    private static List<Integer> hoursOf(long mask) {
+        List<Integer> hours = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            hours.add(Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
         }
+        return hours;
     }
 }
\ No newline at end of file
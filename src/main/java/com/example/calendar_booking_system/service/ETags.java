@@ -0,0 +1,38 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.WorkWeek;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Strong entity tags derived from the state a response is computed from instead of from its bytes,
+ * so an unchanged poll can be answered with 304 without rendering anything. Callers read the
+ * calendar version before computing the response, so a tag is never newer than its body.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    /**
+     * A summary of one calendar version and date range changes only when its earliest listed
+     * appointment ends, so that end (null once nothing is listed) completes the tag.
+     */
+    static String summary(String format, long version, LocalDate from, LocalDate to, LocalDateTime validUntil) {
+        return "\"" + format + "-" + version + "-" + from.toEpochDay() + "-" + to.toEpochDay() + "-"
+                + (validUntil == null ? "0" : Long.toString(validUntil.toEpochSecond(ZoneOffset.UTC))) + "\"";
+    }
+
+    /**
+     * Free hours depend on the calendar and on the owner's working hours and off days, which are
+     * kept on the owner rather than the calendar and so are not covered by its version.
+     */
+    static String freeSlots(long version, LocalDate from, LocalDate to, CalendarOwner owner) {
+        WorkWeek week = owner.workWeek();
+        return "\"slots-" + version + "-" + from.toEpochDay() + "-" + to.toEpochDay() + "-"
+                + week.getStart().toSecondOfDay() + "-" + week.getEnd().toSecondOfDay()
+                + "-" + week.getOffDayBits() + "\"";
+    }
+}
@@ -2,20 +2,55 @@ package com.example.calendar_booking_system.service;
 
 import com.example.calendar_booking_system.datatransferobject.SlotRequest;
 import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsRequest;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsRequest;
+import com.example.calendar_booking_system.datatransferobject.SeriesRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeRequest;
 import com.example.calendar_booking_system.entity.Invitee;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
+
 public interface InviteeService {
 
     ResponseEntity<?> createInvitee(Invitee invitee);
 
-    ResponseEntity<?> getInvitee();
+    ResponseEntity<?> getInvitee(String inviteeId);
 
     ResponseEntity<String> getAvailableSlots(SlotRequest request);
 
+    /**
+     * Free hours for every day of a date range, as structured JSON.
+     */
+    ResponseEntity<?> getAvailableSlotRange(SlotRangeRequest request);
+
+    /**
+     * Hours free for every one of several owners on each day of a date range.
+     */
+    ResponseEntity<?> getCommonAvailableSlots(CommonSlotsRequest request);
+
+    /**
+     * Free stretches of at least the requested length on one day, at minute resolution.
+     */
+    ResponseEntity<?> getFreeGaps(FreeGapsRequest request);
+
     ResponseEntity<?> bookAppointment(AppointmentRequest request);
 
-    ResponseEntity<?> getOwner(String ownerId);
+    /**
+     * Books every entry of the batch or none of them.
+     */
+    ResponseEntity<?> bookAppointments(BatchAppointmentRequest request);
+
+    /**
+     * Books a recurring appointment as one series, if none of its occurrences clashes.
+     */
+    ResponseEntity<?> bookSeries(SeriesRequest request);
 
-    ResponseEntity<?> getMeetingInvitee();
+    /**
+     * Cancels a single occurrence of a series, leaving the rest of it booked.
+     */
+    ResponseEntity<?> cancelSeriesOccurrence(String ownerId, String seriesId, LocalDate date);
+
+    ResponseEntity<?> getOwner(String ownerId);
 }
\ No newline at end of file
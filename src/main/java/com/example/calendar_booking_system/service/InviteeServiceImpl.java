@@ -2,36 +2,72 @@ package com.example.calendar_booking_system.service;
 
 import com.example.calendar_booking_system.datatransferobject.SlotRequest;
 import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsResponse;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsRequest;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsResponse;
+import com.example.calendar_booking_system.datatransferobject.SeriesRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeResponse;
+import com.example.calendar_booking_system.entity.Calendar;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.entity.Invitee;
 import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.event.SeriesChangedEvent;
+import com.example.calendar_booking_system.metrics.BookingMetrics;
 import com.example.calendar_booking_system.repository.GenericRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 public class InviteeServiceImpl implements InviteeService {
 
-    private Invitee invitee;
+    static final int MAX_BATCH_SIZE = 100;
+    static final int MAX_COMMON_OWNERS = 500;
+    static final int SLOT_STEP_MINUTES = 15;
+    static final int MAX_DURATION_MINUTES = 8 * 60;
+    static final int MAX_SERIES_INTERVAL = 52;
+    static final int MAX_SERIES_OCCURRENCES = 260;
+
+    private static final String BAD_DURATION = "Appointments start on a quarter hour and last "
+            + SLOT_STEP_MINUTES + " to " + MAX_DURATION_MINUTES + " minutes in " + SLOT_STEP_MINUTES + "-minute steps.";
+    private static final String INVITEE_ID_REQUIRED = "An inviteeId is required. Create an invitee and pass its id.";
 
     private final GenericRepository<CalendarOwner, String> calendarOwnerRepository;
     private final CalendarService calendarService;
-    private final ReentrantLock lock = new ReentrantLock();
-
-    private String lastLookupOwnerId;
-    private LocalDate lastLookupDate;
-    private Set<Integer> lastAvailableSlots = new HashSet<>();
+    private final BookingMetrics metrics;
+    private final InviteeSessionStore sessions;
+    private final ApplicationEventPublisher events;
 
     public InviteeServiceImpl(CalendarService calendarService,
                               GenericRepository<CalendarOwner, String> calendarOwnerRepository) {
+        this(calendarService, calendarOwnerRepository, BookingMetrics.standalone(),
+                new InviteeSessionStore(InviteeSessionStore.DEFAULT_MAX_SESSIONS), event -> {});
+    }
+
+    @Autowired
+    public InviteeServiceImpl(CalendarService calendarService,
+                              GenericRepository<CalendarOwner, String> calendarOwnerRepository,
+                              BookingMetrics metrics,
+                              InviteeSessionStore sessions,
+                              ApplicationEventPublisher events) {
         this.calendarService = calendarService;
         this.calendarOwnerRepository = calendarOwnerRepository;
+        this.metrics = metrics;
+        this.sessions = sessions;
+        this.events = events;
     }
 
     @Override
@@ -42,20 +78,97 @@ public class InviteeServiceImpl implements InviteeService {
         if (requestInvitee.getEmail() == null || requestInvitee.getEmail().isBlank()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Email must not be empty"));
         }
-        this.invitee = new Invitee(requestInvitee.getName(), requestInvitee.getEmail());
-        return ResponseEntity.ok(this.invitee);
+        Invitee invitee = new Invitee(requestInvitee.getName(), requestInvitee.getEmail());
+        sessions.create(invitee);
+        return ResponseEntity.ok(invitee);
     }
 
     @Override
-    public ResponseEntity<?> getInvitee() {
-        if (invitee == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "No invitee created yet"));
+    public ResponseEntity<?> getInvitee(String inviteeId) {
+        if (missing(inviteeId)) {
+            return ResponseEntity.badRequest().body(Map.of("error", INVITEE_ID_REQUIRED));
         }
-        return ResponseEntity.ok(invitee);
+        InviteeSession session = sessions.find(inviteeId);
+        if (session == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Invitee not found for id: " + inviteeId));
+        }
+        return ResponseEntity.ok(session.getInvitee());
     }
 
     @Override
     public ResponseEntity<String> getAvailableSlots(SlotRequest req) {
+        return metrics.availableSlots().record(() -> lookupAvailableSlots(req));
+    }
+
+    @Override
+    public ResponseEntity<?> getAvailableSlotRange(SlotRangeRequest req) {
+        return metrics.availableSlots().record(() -> lookupAvailableSlotRange(req));
+    }
+
+    @Override
+    public ResponseEntity<?> getCommonAvailableSlots(CommonSlotsRequest req) {
+        List<String> ownerIds = req.getOwnerIds() == null ? List.of() : req.getOwnerIds().stream().distinct().toList();
+        if (ownerIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Please provide at least one owner id."));
+        }
+        if (ownerIds.size() > MAX_COMMON_OWNERS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "At most " + MAX_COMMON_OWNERS + " owners can be compared at once."));
+        }
+
+        List<CalendarOwner> owners = new ArrayList<>(ownerIds.size());
+        for (String ownerId : ownerIds) {
+            CalendarOwner owner = calendarOwnerRepository.findById(ownerId);
+            if (owner == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "CalendarOwner not found for id: " + ownerId));
+            }
+            owners.add(owner);
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate from = req.getFrom() != null ? req.getFrom() : today;
+        LocalDate to = req.getTo() != null ? req.getTo() : today.plusDays(15);
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "The range start must not be after its end."));
+        }
+
+        SortedMap<LocalDate, List<Integer>> freeSlots = calendarService.getCommonFreeSlots(owners, from, to);
+        if (freeSlots == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Please choose dates between today and the next 15 days."));
+        }
+
+        List<CommonSlotsResponse.DaySlots> days = new ArrayList<>(freeSlots.size());
+        freeSlots.forEach((date, hours) -> days.add(new CommonSlotsResponse.DaySlots(date, hours)));
+        return ResponseEntity.ok(new CommonSlotsResponse(ownerIds, from, to, days));
+    }
+
+    @Override
+    public ResponseEntity<?> getFreeGaps(FreeGapsRequest req) {
+        return metrics.availableSlots().record(() -> lookupFreeGaps(req));
+    }
+
+    @Override
+    public ResponseEntity<?> bookAppointment(AppointmentRequest req) {
+        return metrics.booking().record(() -> book(req));
+    }
+
+    @Override
+    public ResponseEntity<?> bookAppointments(BatchAppointmentRequest req) {
+        return metrics.batchBooking().record(() -> bookBatch(req));
+    }
+
+    private ResponseEntity<String> lookupAvailableSlots(SlotRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(INVITEE_ID_REQUIRED);
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
+            return ResponseEntity.badRequest().body("Invitee not found for id: " + req.getInviteeId());
+        }
+
         CalendarOwner owner = calendarOwnerRepository.findById(req.getOwnerId());
         if (owner == null) {
             throw new RuntimeException("CalendarOwner not found");
@@ -71,9 +184,9 @@ public class InviteeServiceImpl implements InviteeService {
 
         List<Integer> freeSlots = calendarService.getFreeSlots(owner, queryDate);
 
-        lastLookupOwnerId = owner.getId();
-        lastLookupDate = queryDate;
-        lastAvailableSlots = freeSlots != null ? new HashSet<>(freeSlots) : new HashSet<>();
+        Set<Integer> slots = ConcurrentHashMap.newKeySet();
+        if (freeSlots != null) slots.addAll(freeSlots);
+        session.setLastLookup(new InviteeSession.SlotLookup(owner.getId(), Map.of(queryDate, slots)));
 
         if (freeSlots == null) {
             return ResponseEntity.ok("Too far ahead. Please choose a date within the next 15 days.");
@@ -92,13 +205,98 @@ public class InviteeServiceImpl implements InviteeService {
                 freeSlots.stream().map(Object::toString).collect(Collectors.joining(", ")));
     }
 
-    @Override
-    public ResponseEntity<?> bookAppointment(AppointmentRequest req) {
-        if (invitee == null) {
+    private ResponseEntity<?> lookupAvailableSlotRange(SlotRangeRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(Map.of("error", INVITEE_ID_REQUIRED));
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invitee not found for id: " + req.getInviteeId()));
+        }
+
+        CalendarOwner owner = calendarOwnerRepository.findById(req.getOwnerId());
+        if (owner == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "CalendarOwner not found for id: " + req.getOwnerId()));
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate from = req.getFrom() != null ? req.getFrom() : today;
+        LocalDate to = req.getTo() != null ? req.getTo() : today.plusDays(15);
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "The range start must not be after its end."));
+        }
+
+        String etag = ETags.freeSlots(owner.getCalendar() != null ? owner.getCalendar().getVersion() : 0L, from, to, owner);
+        SortedMap<LocalDate, List<Integer>> freeSlots = calendarService.getFreeSlots(owner, from, to);
+        if (freeSlots == null) {
             return ResponseEntity.badRequest()
-                    .body("Invitee not created yet. Please create invitee before booking.");
+                    .body(Map.of("error", "Please choose dates between today and the next 15 days."));
+        }
+
+        List<SlotRangeResponse.DaySlots> days = new ArrayList<>(freeSlots.size());
+        Map<LocalDate, Set<Integer>> slotsByDate = new HashMap<>();
+        freeSlots.forEach((date, hours) -> {
+            days.add(new SlotRangeResponse.DaySlots(date, owner.getOffDays().contains(date.getDayOfWeek()), hours));
+            Set<Integer> slots = ConcurrentHashMap.newKeySet();
+            slots.addAll(hours);
+            slotsByDate.put(date, slots);
+        });
+        session.setLastLookup(new InviteeSession.SlotLookup(owner.getId(), slotsByDate));
+
+        // The session lookup above is recorded even when Spring turns this into a 304
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(new SlotRangeResponse(owner.getId(), from, to, days));
+    }
+
+    private ResponseEntity<?> lookupFreeGaps(FreeGapsRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(Map.of("error", INVITEE_ID_REQUIRED));
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invitee not found for id: " + req.getInviteeId()));
         }
 
+        CalendarOwner owner = calendarOwnerRepository.findById(req.getOwnerId());
+        if (owner == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "CalendarOwner not found for id: " + req.getOwnerId()));
+        }
+
+        int minutes = req.getDurationMinutes() == 0 ? SLOT_STEP_MINUTES : req.getDurationMinutes();
+        if (!validDuration(minutes)) {
+            return ResponseEntity.badRequest().body(Map.of("error", BAD_DURATION));
+        }
+        LocalDate date = req.getDate() != null ? req.getDate() : LocalDate.now();
+
+        SortedMap<LocalTime, LocalTime> gaps = calendarService.getFreeGaps(owner, date, Duration.ofMinutes(minutes));
+        if (gaps == null) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Please choose a date between today and the next 15 days."));
+        }
+        // Counts as an availability check for the date, so any of the gaps can be booked next
+        Set<Integer> slots = ConcurrentHashMap.newKeySet();
+        slots.addAll(calendarService.getFreeSlots(owner, date));
+        session.setLastLookup(new InviteeSession.SlotLookup(owner.getId(), Map.of(date, slots)));
+
+        List<FreeGapsResponse.Gap> body = new ArrayList<>(gaps.size());
+        gaps.forEach((start, end) -> body.add(new FreeGapsResponse.Gap(start, end)));
+        return ResponseEntity.ok(new FreeGapsResponse(owner.getId(), date, minutes, body));
+    }
+
+    private ResponseEntity<?> book(AppointmentRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(INVITEE_ID_REQUIRED);
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
+            return ResponseEntity.badRequest()
+                    .body("Invitee not found for id: " + req.getInviteeId() + ". Please create invitee before booking.");
+        }
+        Invitee invitee = session.getInvitee();
+
         CalendarOwner owner = calendarOwnerRepository.findById(req.getOwnerId());
         if (owner == null) {
             return ResponseEntity.badRequest().body("CalendarOwner not found for id: " + req.getOwnerId());
@@ -106,70 +304,297 @@ public class InviteeServiceImpl implements InviteeService {
 
         LocalDateTime appointmentTime;
         try {
-            appointmentTime = LocalDateTime.of(req.getYear(), req.getMonth(), req.getDay(), req.getHour(), 0);
+            appointmentTime = LocalDateTime.of(req.getYear(), req.getMonth(), req.getDay(), req.getHour(), req.getMinute());
         } catch (DateTimeException e) {
             return ResponseEntity.badRequest().body("Invalid date/time provided.");
         }
+        Duration duration = requestedDuration(req);
+        if (duration == null) {
+            return ResponseEntity.badRequest().body(BAD_DURATION);
+        }
 
-        if (!req.getOwnerId().equals(lastLookupOwnerId)) {
+        InviteeSession.SlotLookup lookup = session.getLastLookup();
+        if (lookup == null || !req.getOwnerId().equals(lookup.ownerId())) {
             return ResponseEntity.badRequest()
                     .body("Please check availability before booking appointment for this owner.");
         }
 
-        if (!appointmentTime.toLocalDate().equals(lastLookupDate)) {
+        Set<Integer> availableSlots = lookup.availableSlots(appointmentTime.toLocalDate());
+        if (availableSlots == null) {
             return ResponseEntity.badRequest()
                     .body("Please check availability before booking appointment for this date.");
         }
 
-        if (lastAvailableSlots.isEmpty()) {
+        if (isWholeHour(appointmentTime, duration)) {
+            if (availableSlots.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body("No available slots on this date. Try another date.");
+            }
+
+            if (!availableSlots.contains(appointmentTime.getHour())) {
+                return ResponseEntity.badRequest()
+                        .body("No booking for this time. Book appointment in one of the available slots.");
+            }
+        } else if (!calendarService.isWithinWorkingTime(owner, appointmentTime, duration)) {
+            // Shorter or longer meetings can use part of an hour, so they are checked against the working day instead
             return ResponseEntity.badRequest()
-                    .body("No available slots on this date. Try another date.");
+                    .body("No booking for this time. The appointment must fall within the owner's working hours.");
+        }
+
+        Appointment appt = new Appointment(appointmentTime, duration, req.getSubject(), invitee, owner);
+
+        // One O(log n) overlap check in the calendar's interval index: the losing racer finds the time taken.
+        // When the booking is also stored, the time is only held until that succeeds and given back if it fails;
+        // otherwise it is claimed and booked in one step
+        Calendar calendar = owner.getCalendar();
+        List<Appointment> held = List.of(appt);
+        Calendar.LockTimings lock = metrics.bookingLock();
+        boolean stored = calendarOwnerRepository.storesBookings();
+        boolean claimed = metrics.bookingClaim().record(() -> stored ? calendar.tryReserve(held, lock) : calendar.tryBook(appt, lock));
+        if (!claimed) {
+            metrics.bookingRejectedOccupied();
+            return ResponseEntity.badRequest().body("Already occupied, try another slot.");
+        }
+        if (stored) {
+            try {
+                events.publishEvent(new AppointmentsBookedEvent(held));
+            } catch (RuntimeException e) {
+                calendar.releaseReservation(held, lock);
+                throw e;
+            }
+            calendar.commitReservation(held, lock);
+        } else {
+            events.publishEvent(new AppointmentsBookedEvent(held));
         }
 
-        if (!lastAvailableSlots.contains(appointmentTime.getHour())) {
+        invitee.addAppointment(appt);
+        availableSlots.removeAll(hoursOf(appt));
+
+        return ResponseEntity.ok(appt);
+    }
+
+    private ResponseEntity<?> bookBatch(BatchAppointmentRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(INVITEE_ID_REQUIRED);
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
             return ResponseEntity.badRequest()
-                    .body("No booking for this time. Book appointment in one of the available slots.");
+                    .body("Invitee not found for id: " + req.getInviteeId() + ". Please create invitee before booking.");
         }
+        Invitee invitee = session.getInvitee();
 
-        Appointment appt = new Appointment(appointmentTime, req.getSubject(), invitee, owner);
+        List<AppointmentRequest> entries = req.getAppointments();
+        if (entries == null || entries.isEmpty()) {
+            return ResponseEntity.badRequest().body("No appointments to book.");
+        }
+        if (entries.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_SIZE + " appointments can be booked at once.");
+        }
 
-        lock.lock();
-        try {
-            boolean isSlotTaken = owner.getCalendar().getAppointments().stream()
-                    .anyMatch(app -> app.getStartTime().toLocalDate().equals(appointmentTime.toLocalDate())
-                            && app.getStartTime().getHour() == appointmentTime.getHour());
-            if (isSlotTaken) {
+        // Validate every entry before claiming anything; each owner and owner-day is looked up once
+        Map<String, CalendarOwner> owners = new HashMap<>();
+        Map<String, List<Integer>> freeSlotsByOwnerDay = new HashMap<>();
+        Set<String> requestedSlots = new HashSet<>();
+        Map<Calendar, List<Appointment>> byCalendar = new LinkedHashMap<>();
+        List<Appointment> booked = new ArrayList<>(entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            AppointmentRequest entry = entries.get(i);
+            CalendarOwner owner = entry.getOwnerId() == null ? null
+                    : owners.computeIfAbsent(entry.getOwnerId(), calendarOwnerRepository::findById);
+            if (owner == null) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": CalendarOwner not found for id: " + entry.getOwnerId());
+            }
+
+            LocalDateTime appointmentTime;
+            try {
+                appointmentTime = LocalDateTime.of(entry.getYear(), entry.getMonth(), entry.getDay(), entry.getHour(), entry.getMinute());
+            } catch (DateTimeException e) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": Invalid date/time provided.");
+            }
+            Duration duration = requestedDuration(entry);
+            if (duration == null) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": " + BAD_DURATION);
+            }
+
+            LocalDate date = appointmentTime.toLocalDate();
+            List<Integer> freeSlots = freeSlotsByOwnerDay.computeIfAbsent(owner.getId() + "|" + date,
+                    k -> calendarService.getFreeSlots(owner, date));
+            if (freeSlots == null) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": Too far ahead. Please choose a date within the next 15 days.");
+            }
+            if (isWholeHour(appointmentTime, duration) ? !freeSlots.contains(appointmentTime.getHour())
+                    : !calendarService.isWithinWorkingTime(owner, appointmentTime, duration)) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": No booking for this time. Book appointment in one of the available slots.");
+            }
+            if (!requestedSlots.add(owner.getId() + "|" + appointmentTime)) {
+                return ResponseEntity.badRequest().body("Entry " + i + ": The same slot appears more than once in the batch.");
+            }
+
+            Appointment appt = new Appointment(appointmentTime, duration, entry.getSubject(), invitee, owner);
+            byCalendar.computeIfAbsent(owner.getCalendar(), c -> new ArrayList<>()).add(appt);
+            booked.add(appt);
+        }
+
+        // Claim each calendar's times (one index update per calendar); undo everything on the first conflict
+        List<Map.Entry<Calendar, List<Appointment>>> reserved = new ArrayList<>(byCalendar.size());
+        for (Map.Entry<Calendar, List<Appointment>> entry : byCalendar.entrySet()) {
+            if (!entry.getKey().tryReserve(entry.getValue(), metrics.bookingLock())) {
+                for (Map.Entry<Calendar, List<Appointment>> done : reserved) {
+                    done.getKey().releaseReservation(done.getValue(), metrics.bookingLock());
+                }
+                metrics.bookingRejectedOccupied();
                 return ResponseEntity.badRequest().body("Already occupied, try another slot.");
             }
+            reserved.add(entry);
+        }
 
-            invitee.addAppointment(appt);
-            owner.getCalendar().addAppointment(appt);
-            lastAvailableSlots.remove(appointmentTime.getHour());
-        } finally {
-            lock.unlock();
+        // Stored while the times are held; a failure gives all of them back
+        try {
+            events.publishEvent(new AppointmentsBookedEvent(booked));
+        } catch (RuntimeException e) {
+            for (Map.Entry<Calendar, List<Appointment>> entry : reserved) {
+                entry.getKey().releaseReservation(entry.getValue(), metrics.bookingLock());
+            }
+            throw e;
         }
+        for (Map.Entry<Calendar, List<Appointment>> entry : reserved) {
+            entry.getKey().commitReservation(entry.getValue(), metrics.bookingLock());
+        }
+        invitee.getAppointments().addAll(booked); // one copy of the invitee's list for the whole batch
 
-        return ResponseEntity.ok(appt);
+        return ResponseEntity.ok(booked);
+    }
+
+    // Length of the requested appointment, or null unless it starts on a quarter hour and lasts a whole number of steps
+    private static Duration requestedDuration(AppointmentRequest req) {
+        int minutes = req.getDurationMinutes() == 0 ? (int) Appointment.DEFAULT_DURATION.toMinutes() : req.getDurationMinutes();
+        if (req.getMinute() % SLOT_STEP_MINUTES != 0 || !validDuration(minutes)) return null;
+        return Duration.ofMinutes(minutes);
+    }
+
+    private static boolean validDuration(int minutes) {
+        return minutes >= SLOT_STEP_MINUTES && minutes <= MAX_DURATION_MINUTES && minutes % SLOT_STEP_MINUTES == 0;
+    }
+
+    // The classic one-hour slot on the hour, which the hour lists of the availability checks describe exactly
+    private static boolean isWholeHour(LocalDateTime start, Duration duration) {
+        return start.getMinute() == 0 && duration.equals(Appointment.DEFAULT_DURATION);
+    }
+
+    // Hours of its day the appointment overlaps
+    private static List<Integer> hoursOf(Appointment appt) {
+        List<Integer> hours = new ArrayList<>();
+        int last = appt.getEndTime().toLocalDate().isAfter(appt.getStartTime().toLocalDate())
+                ? 23 : appt.getEndTime().minusNanos(1).getHour();
+        for (int hour = appt.getStartTime().getHour(); hour <= last; hour++) hours.add(hour);
+        return hours;
     }
 
     @Override
-    public ResponseEntity<?> getOwner(String ownerId) {
+    public ResponseEntity<?> bookSeries(SeriesRequest req) {
+        return metrics.booking().record(() -> bookRecurring(req));
+    }
+
+    private ResponseEntity<?> bookRecurring(SeriesRequest req) {
+        if (missing(req.getInviteeId())) {
+            return ResponseEntity.badRequest().body(INVITEE_ID_REQUIRED);
+        }
+        InviteeSession session = sessions.find(req.getInviteeId());
+        if (session == null) {
+            return ResponseEntity.badRequest()
+                    .body("Invitee not found for id: " + req.getInviteeId() + ". Please create invitee before booking.");
+        }
+
+        CalendarOwner owner = calendarOwnerRepository.findById(req.getOwnerId());
+        if (owner == null) {
+            return ResponseEntity.badRequest().body("CalendarOwner not found for id: " + req.getOwnerId());
+        }
+
+        LocalDateTime firstStart;
+        try {
+            firstStart = LocalDateTime.of(req.getYear(), req.getMonth(), req.getDay(), req.getHour(), req.getMinute());
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().body("Invalid date/time provided.");
+        }
+        Duration duration = requestedDuration(req);
+        if (duration == null) {
+            return ResponseEntity.badRequest().body(BAD_DURATION);
+        }
+
+        RecurrenceRule.Frequency frequency;
+        try {
+            frequency = RecurrenceRule.Frequency.valueOf(String.valueOf(req.getFrequency()).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Frequency must be DAILY or WEEKLY.");
+        }
+        int interval = req.getInterval() == 0 ? 1 : req.getInterval();
+        if (interval < 1 || interval > MAX_SERIES_INTERVAL || req.getCount() < 0) {
+            return ResponseEntity.badRequest().body("Interval must be 1 to " + MAX_SERIES_INTERVAL + " and count must not be negative.");
+        }
+        if (req.getUntil() == null && req.getCount() == 0) {
+            return ResponseEntity.badRequest().body("A series needs an end: an until date, a count, or both.");
+        }
+        RecurrenceRule rule = new RecurrenceRule(frequency, interval, req.getUntil(), req.getCount());
+        int occurrences = rule.occurrenceCount(firstStart.toLocalDate());
+        if (occurrences == 0 || occurrences > MAX_SERIES_OCCURRENCES) {
+            return ResponseEntity.badRequest().body("A series has 1 to " + MAX_SERIES_OCCURRENCES + " occurrences.");
+        }
+
+        if (!calendarService.isWithinWorkingTime(owner, firstStart, duration)) {
+            return ResponseEntity.badRequest()
+                    .body("The first occurrence must be within the next 15 days and the owner's working hours.");
+        }
+        AppointmentSeries series = new AppointmentSeries(firstStart, duration, rule, req.getSubject(), session.getInvitee(), owner);
+        for (Appointment occurrence : series.occurrencesBetween(firstStart.toLocalDate(), series.getLastDate())) {
+            if (owner.getOffDays().contains(occurrence.getStartTime().getDayOfWeek())) {
+                return ResponseEntity.badRequest()
+                        .body("The occurrence on " + occurrence.getStartTime().toLocalDate() + " falls on an off day.");
+            }
+        }
+
+        boolean claimed = metrics.bookingClaim().record(() -> owner.getCalendar().tryAddSeries(series, metrics.bookingLock()));
+        if (!claimed) {
+            metrics.bookingRejectedOccupied();
+            return ResponseEntity.badRequest().body("Already occupied, try another slot.");
+        }
+        events.publishEvent(new SeriesChangedEvent(series));
+        return ResponseEntity.ok(series);
+    }
+
+    @Override
+    public ResponseEntity<?> cancelSeriesOccurrence(String ownerId, String seriesId, LocalDate date) {
         CalendarOwner owner = calendarOwnerRepository.findById(ownerId);
         if (owner == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", "CalendarOwner not found for id: " + ownerId));
         }
-        return ResponseEntity.ok(owner);
+        AppointmentSeries series = owner.getCalendar().findSeries(seriesId);
+        if (series == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Series not found for id: " + seriesId));
+        }
+        if (!owner.getCalendar().cancelOccurrence(series, date)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "The series has no occurrence on " + date + " to cancel."));
+        }
+        events.publishEvent(new SeriesChangedEvent(series));
+        return ResponseEntity.ok(series);
     }
 
     @Override
-    public ResponseEntity<?> getMeetingInvitee(){
-        if (invitee == null) {
-            // No invitee created yet
+    public ResponseEntity<?> getOwner(String ownerId) {
+        CalendarOwner owner = calendarOwnerRepository.findById(ownerId);
+        if (owner == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "No invitee created yet"));
+                    .body(Map.of("error", "CalendarOwner not found for id: " + ownerId));
         }
-        // Return the invitee object
-        return ResponseEntity.ok(invitee);
+        return ResponseEntity.ok(owner);
+    }
+
+    // Requests name their invitee; there is no current invitee to fall back on
+    private static boolean missing(String inviteeId) {
+        return inviteeId == null || inviteeId.isBlank();
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.entity.Invitee;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-invitee booking state: who the invitee is and which owner and dates they last checked.
+ */
+public class InviteeSession {
+
+    /**
+     * Result of the invitee's most recent availability check, for one date or a range of dates.
+     * Slots are removed as they get booked.
+     */
+    public record SlotLookup(String ownerId, Map<LocalDate, Set<Integer>> availableSlotsByDate) {
+
+        /**
+         * Free hours seen for the date, or null if the check did not cover it.
+         */
+        public Set<Integer> availableSlots(LocalDate date) {
+            return availableSlotsByDate.get(date);
+        }
+    }
+
+    private final Invitee invitee;
+    private volatile SlotLookup lastLookup;
+
+    public InviteeSession(Invitee invitee) {
+        this.invitee = invitee;
+    }
+
+    public Invitee getInvitee() {
+        return invitee;
+    }
+
+    public SlotLookup getLastLookup() {
+        return lastLookup;
+    }
+
+    public void setLastLookup(SlotLookup lastLookup) {
+        this.lastLookup = lastLookup;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.cache.BoundedLruCache;
+import com.example.calendar_booking_system.entity.Invitee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one session per invitee id, evicting the least recently used sessions beyond the configured size.
+ */
+@Component
+public class InviteeSessionStore {
+
+    public static final int DEFAULT_MAX_SESSIONS = 10_000;
+
+    private final BoundedLruCache<String, InviteeSession> sessions;
+
+    public InviteeSessionStore(@Value("${calendar.sessions.max-size:" + DEFAULT_MAX_SESSIONS + "}") int maxSessions) {
+        this.sessions = new BoundedLruCache<>(maxSessions);
+    }
+
+    public InviteeSession create(Invitee invitee) {
+        InviteeSession session = new InviteeSession(invitee);
+        sessions.put(invitee.getId(), session);
+        return session;
+    }
+
+    /**
+     * Session for the given invitee id, or null if there is no such session (never created, or evicted).
+     */
+    public InviteeSession find(String inviteeId) {
+        return inviteeId != null ? sessions.get(inviteeId) : null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.cache.BoundedLruCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Rendered summaries keyed by owner, date range and calendar version.
+ * A booking or removal bumps the calendar version, so stale entries are simply never asked for
+ * again and age out of the LRU. Keys carry the queried dates, so a new day starts with new keys.
+ * Free slots are not cached: they are one mask operation on the day's occupancy word, which is
+ * cheaper than a cache lookup.
+ */
+@Component
+public class SummaryCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    /**
+     * A rendered summary that stays correct until validUntil (when its earliest listed appointment
+     * ends and drops out), or until the calendar changes if validUntil is null.
+     */
+    public record Summary(String text, LocalDateTime validUntil) {}
+
+    private record SummaryKey(String ownerId, LocalDate from, LocalDate to, long version) {}
+
+    // Stands in for "nothing listed" among the streamed summaries' validities, which the LRU cannot hold as null
+    private static final LocalDateTime NOTHING_LISTED = LocalDateTime.MAX;
+
+    private final BoundedLruCache<SummaryKey, Summary> summaries;
+    private final BoundedLruCache<SummaryKey, LocalDateTime> streamedValidity;
+
+    public SummaryCache(@Value("${calendar.summary-cache.max-size:" + DEFAULT_MAX_ENTRIES + "}") int maxEntries) {
+        this.summaries = new BoundedLruCache<>(maxEntries);
+        this.streamedValidity = new BoundedLruCache<>(maxEntries);
+    }
+
+    /**
+     * Cached summary for the owner and range at the given calendar version, built on a miss or once
+     * the cached text has expired at {@code now}.
+     */
+    public String summary(String ownerId, LocalDate from, LocalDate to, long version, LocalDateTime now,
+                          Supplier<Summary> build) {
+        return entry(ownerId, from, to, version, now, build).text();
+    }
+
+    /**
+     * As {@link #summary}, but with the validity that goes with the text, from which callers derive an ETag.
+     */
+    public Summary entry(String ownerId, LocalDate from, LocalDate to, long version, LocalDateTime now,
+                         Supplier<Summary> build) {
+        SummaryKey key = new SummaryKey(ownerId, from, to, version);
+        Summary cached = summaries.get(key);
+        if (cached != null && (cached.validUntil() == null || now.isBefore(cached.validUntil()))) {
+            return cached;
+        }
+        Summary built = build.get();
+        summaries.put(key, built);
+        return built;
+    }
+
+    /**
+     * When the streamed summary for the owner and range at the given calendar version next changes
+     * on its own: the end of its earliest listed appointment, or null if nothing is listed. Streamed
+     * summaries are written straight to the response rather than cached, so only this is kept, and
+     * an unchanged poll is tagged without walking the calendar. Found on a miss or once it has passed.
+     */
+    public LocalDateTime streamedValidUntil(String ownerId, LocalDate from, LocalDate to, long version,
+                                            LocalDateTime now, Supplier<LocalDateTime> earliestEnd) {
+        SummaryKey key = new SummaryKey(ownerId, from, to, version);
+        LocalDateTime cached = streamedValidity.get(key);
+        if (cached != null && now.isBefore(cached)) {
+            return cached == NOTHING_LISTED ? null : cached;
+        }
+        LocalDateTime found = earliestEnd.get();
+        streamedValidity.put(key, found == null ? NOTHING_LISTED : found);
+        return found;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.calendar_booking_system;
+
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires the same burst of availability lookups, bookings and summary reads at the app served by
+ * the platform-thread Tomcat pool and, on Java 21+ (the {@code java21} profile), by virtual
+ * threads. Both runs must finish without server errors and without double bookings. It starts the
+ * app and sends a thousand requests per mode, so it only runs in the {@code loadgen} profile
+ * ({@code mvn -Ploadgen test}), where the load generator also compares throughput and latency.
+ */
+@Tag("load")
+class WebTierLoadTest {
+
+    private static final int CLIENTS = 100;
+    private static final int ITERATIONS_PER_CLIENT = 10;
+    private static final int OWNERS = 20;
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void testPlatformThreadsUnderBurstLoad() throws Exception {
+        run("platform", false);
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void testVirtualThreadsUnderBurstLoad() throws Exception {
+        run("virtual", true);
+    }
+
+    private void run(String mode, boolean virtualThreads) throws Exception {
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(CalendarBookingSystemApplication.class)
+                        .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads)
+                        .run()) {
+            Executor workers = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector()
+                    .getProtocolHandler().getExecutor();
+            assertEquals(virtualThreads, workers instanceof VirtualThreadExecutor, mode + ": request executor " + workers);
+            String base = "http://localhost:" + context.getWebServer().getPort();
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            List<String> ownerIds = new ArrayList<>();
+            for (int i = 0; i < OWNERS; i++) {
+                Map<?, ?> owner = json.readValue(post(http, base + "/api/owners",
+                        Map.of("name", "Owner " + i, "email", "owner" + i + "@example.com")).body(), Map.class);
+                ownerIds.add((String) owner.get("id"));
+            }
+
+            AtomicInteger booked = new AtomicInteger();
+            AtomicInteger serverErrors = new AtomicInteger();
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                String inviteeId = (String) json.readValue(post(http, base + "/api/invitees",
+                        Map.of("name", "Client " + c, "email", "client" + c + "@example.com")).body(), Map.class).get("id");
+                done.add(clients.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ITERATIONS_PER_CLIENT; i++) {
+                        String ownerId = ownerIds.get(random.nextInt(ownerIds.size()));
+                        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(15));
+
+                        HttpResponse<String> lookup = post(http, base + "/api/invitees/available-slots", Map.of(
+                                "inviteeId", inviteeId, "ownerId", ownerId,
+                                "year", date.getYear(), "month", date.getMonthValue(), "day", date.getDayOfMonth()));
+                        if (lookup.statusCode() >= 500) serverErrors.incrementAndGet();
+
+                        HttpResponse<String> response = i % 5 == 4
+                                ? get(http, base + "/api/owners/" + ownerId + "/appointments/summary")
+                                : post(http, base + "/api/invitees/book-appointment", Map.of(
+                                        "inviteeId", inviteeId, "ownerId", ownerId, "subject", "Load",
+                                        "year", date.getYear(), "month", date.getMonthValue(),
+                                        "day", date.getDayOfMonth(), "hour", 9 + random.nextInt(8)));
+                        if (response.statusCode() >= 500) serverErrors.incrementAndGet();
+                        else if (i % 5 != 4 && response.statusCode() == 200) booked.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> f : done) f.get();
+            clients.shutdown();
+
+            assertEquals(0, serverErrors.get(), mode + ": server errors");
+            @SuppressWarnings("unchecked")
+            GenericRepository<CalendarOwner, String> repository = (GenericRepository<CalendarOwner, String>)
+                    context.getBeanProvider(ResolvableType.forClassWithGenerics(GenericRepository.class,
+                            CalendarOwner.class, String.class)).getObject();
+            int stored = repository.findAll().stream().mapToInt(o -> o.getCalendar().getAppointments().size()).sum();
+            assertEquals(booked.get(), stored, mode + ": every accepted booking is stored exactly once");
+        }
+    }
+
+    private HttpResponse<String> post(HttpClient http, String url, Map<String, ?> body) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(HttpClient http, String url) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
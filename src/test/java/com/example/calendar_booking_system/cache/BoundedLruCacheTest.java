@@ -0,0 +1,50 @@
+package com.example.calendar_booking_system.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2, 1);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");      // "b" is now the eldest
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testSizeStaysBoundedUnderConcurrentWrites() throws InterruptedException {
+        BoundedLruCache<Integer, Integer> cache = new BoundedLruCache<>(1000);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = t * 10_000;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) cache.put(base + i, i);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertTrue(cache.size() <= 1000 + 16, "size " + cache.size());
+    }
+
+    @Test
+    void testRemove() {
+        BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(10);
+        cache.put("a", 1);
+        assertEquals(1, cache.remove("a"));
+        assertNull(cache.get("a"));
+    }
+}
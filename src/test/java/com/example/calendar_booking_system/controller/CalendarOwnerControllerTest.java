@@ -1,5 +1,6 @@
 package com.example.calendar_booking_system.controller;
 
+import com.example.calendar_booking_system.datatransferobject.OwnerPage;
 import com.example.calendar_booking_system.entity.Appointment;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.entity.Invitee;
@@ -9,15 +10,30 @@ import com.example.calendar_booking_system.service.CalendarOwnerServiceImpl;
 import com.example.calendar_booking_system.service.CalendarServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class CalendarOwnerControllerTest {
 
@@ -65,17 +81,45 @@ class CalendarOwnerControllerTest {
         controller.createOwner(Map.of("name", "Alice", "email", "alice@example.com"));
         controller.createOwner(Map.of("name", "Bob", "email", "bob@example.com"));
 
-        // Get all owners via controller
-        ResponseEntity<?> response = controller.getAllOwners();
-        Set<CalendarOwner> owners = (Set<CalendarOwner>) response.getBody();
+        // Get the first page via controller
+        ResponseEntity<?> response = controller.getOwners(null, OwnerPage.DEFAULT_SIZE);
+        OwnerPage page = (OwnerPage) response.getBody();
 
-        assertEquals(2, owners.size());
+        assertEquals(2, page.getOwners().size());
+        assertNull(page.getNextCursor());
 
-        Set<String> names = owners.stream().map(CalendarOwner::getName).collect(Collectors.toSet());
+        Set<String> names = page.getOwners().stream().map(OwnerPage.Owner::getName).collect(Collectors.toSet());
         assertTrue(names.contains("Alice"));
         assertTrue(names.contains("Bob"));
     }
 
+    @Test
+    void testGetOwnersPagesThroughEveryOwnerOnceInIdOrder() {
+        for (int i = 0; i < 7; i++) {
+            controller.createOwner(Map.of("name", "Owner " + i, "email", "owner" + i + "@example.com"));
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OwnerPage page = (OwnerPage) controller.getOwners(cursor, 3).getBody();
+            assertTrue(page.getOwners().size() <= 3);
+            page.getOwners().forEach(o -> seen.add(o.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(repository.findAll().stream().map(CalendarOwner::getId).sorted().toList(), seen);
+    }
+
+    @Test
+    void testGetOwnersRejectsOutOfRangeLimit() {
+        assertEquals(400, controller.getOwners(null, 0).getStatusCodeValue());
+        assertEquals(400, controller.getOwners(null, OwnerPage.MAX_SIZE + 1).getStatusCodeValue());
+    }
+
     @Test
     void testGetWorkDetails() {
         CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
@@ -127,6 +171,22 @@ class CalendarOwnerControllerTest {
         assertEquals(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), owner.getOffDays());
     }
 
+    @Test
+    void testUpdateWorkDetails_InvalidDayLeavesWorkWeekUntouched() {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+
+        Map<String, Object> updateRequest = new HashMap<>();
+        updateRequest.put("id", owner.getId());
+        updateRequest.put("start", "08:30");
+        updateRequest.put("end", "16:30");
+        updateRequest.put("offDays", List.of("MONDAY", "FUNDAY"));
+
+        assertEquals(400, controller.updateWorkDetails(updateRequest).getStatusCodeValue());
+        assertEquals(LocalTime.of(9,0), owner.getWorkDayStart());
+        assertEquals(LocalTime.of(17,0), owner.getWorkDayEnd());
+        assertTrue(owner.getOffDays().isEmpty());
+    }
+
     @Test
     void testUpdateWorkDetails_OwnerNotFound() {
         Map<String, Object> updateRequest = new HashMap<>();
@@ -197,4 +257,146 @@ class CalendarOwnerControllerTest {
         Map<?, ?> body = (Map<?, ?>) response.getBody();
         assertTrue(((String) body.get("error")).contains("Calendar owner not found for id: invalid-id"));
     }
+
+    @Test
+    void testGetFullSummary_GroupsDaysInOrder() {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.plusDays(1).atTime(9, 0), "Later", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(11, 0), "Second", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(10, 0), "First", invitee, owner));
+
+        String result = (String) controller.getFullSummary(owner.getId()).getBody();
+        assertTrue(result.contains("you have 2 meetings:\n1. At 10:00 an appointment with Bob on the subject First\n"
+                + "2. At 11:00 an appointment with Bob on the subject Second\n"));
+        assertTrue(result.indexOf("Second") < result.indexOf("you have 1 meeting:\n1. At 09:00"));
+    }
+
+    @Test
+    void testGetFullSummary_ReflectsBookingAfterCachedRead() {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(10, 0), "First", invitee, owner));
+
+        String before = (String) controller.getFullSummary(owner.getId()).getBody();
+        assertSame(before, controller.getFullSummary(owner.getId()).getBody());
+
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(11, 0), "Second", invitee, owner));
+        String after = (String) controller.getFullSummary(owner.getId()).getBody();
+        assertFalse(before.contains("Second"));
+        assertTrue(after.contains("Second"));
+    }
+
+    // --- Streamed JSON summary tests ---
+
+    @Test
+    void testStreamFullSummary_WritesDayGroups() throws IOException {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(10, 0), "First", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(11, 0), "Second", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.plusDays(1).atTime(9, 0), "Later", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.plusDays(20).atTime(9, 0), "Beyond", invitee, owner));
+
+        ResponseEntity<?> response = controller.streamFullSummary(owner.getId(), webRequest());
+        assertEquals(200, response.getStatusCodeValue());
+        JsonNode json = readStreamed(response);
+
+        assertEquals(owner.getId(), json.get("ownerId").asText());
+        JsonNode days = json.get("days");
+        assertEquals(2, days.size());
+        assertEquals(tomorrow.toString(), days.get(0).get("date").asText());
+        assertEquals("First", days.get(0).get("appointments").get(0).get("subject").asText());
+        assertEquals("Second", days.get(0).get("appointments").get(1).get("subject").asText());
+        assertEquals("Bob", days.get(0).get("appointments").get(1).get("inviteeName").asText());
+        assertEquals(1, days.get(1).get("appointments").size());
+    }
+
+    @Test
+    void testStreamTodaySummary_NoAppointments() throws IOException {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","David","email","david@example.com")).getBody();
+        JsonNode json = readStreamed(controller.streamTodaySummary(owner.getId(), webRequest()));
+        assertEquals(0, json.get("days").size());
+    }
+
+    @Test
+    void testStreamFullSummary_InvalidId() throws IOException {
+        ResponseEntity<?> response = controller.streamFullSummary("invalid-id", webRequest());
+        assertEquals(404, response.getStatusCodeValue());
+        assertEquals("Calendar owner not found for id: invalid-id", readStreamed(response).get("error").asText());
+    }
+
+    // --- Conditional GET tests ---
+
+    @Test
+    void testSummariesAnswerNotModifiedUntilCalendarChanges() throws Exception {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(10, 0), "First", invitee, owner));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        for (String url : List.of("/api/owners/" + owner.getId() + "/appointments/summary",
+                "/api/owners/" + owner.getId() + "/appointments/today")) {
+            String etag = mvc.perform(get(url)).andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag, url);
+            mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        String url = "/api/owners/" + owner.getId() + "/appointments/summary";
+        String etag = mvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        owner.getCalendar().addAppointment(new Appointment(tomorrow.atTime(11, 0), "Second", invitee, owner));
+        String body = mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.contains("Second"));
+    }
+
+    @Test
+    void testSummaryETagsDifferByRangeAndFormat() {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        owner.getCalendar().addAppointment(new Appointment(LocalDate.now().plusDays(1).atTime(10, 0), "Next", invitee, owner));
+
+        String etag = controller.getFullSummary(owner.getId()).getHeaders().getETag();
+        assertEquals(etag, controller.getFullSummary(owner.getId()).getHeaders().getETag());
+        assertNotEquals(etag, controller.getTodaySummary(owner.getId()).getHeaders().getETag());
+        assertNotEquals(etag, controller.streamFullSummary(owner.getId(), webRequest()).getHeaders().getETag());
+    }
+
+    @Test
+    void testStreamedSummaryAnswersNotModifiedForCurrentETag() throws Exception {
+        CalendarOwner owner = (CalendarOwner) controller.createOwner(Map.of("name","Alice","email","alice@example.com")).getBody();
+        Invitee invitee = new Invitee("Bob","bob@example.com");
+        owner.getCalendar().addAppointment(new Appointment(LocalDate.now().plusDays(1).atTime(10, 0), "First", invitee, owner));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+        String url = "/api/owners/" + owner.getId() + "/appointments/summary?format=json";
+
+        String etag = mvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        owner.getCalendar().addAppointment(new Appointment(LocalDate.now().plusDays(1).atTime(11, 0), "Second", invitee, owner));
+        assertNotEquals(etag, mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    private static JsonNode readStreamed(ResponseEntity<?> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
 }
@@ -2,7 +2,16 @@ package com.example.calendar_booking_system.controller;
 
 import com.example.calendar_booking_system.datatransferobject.SlotRequest;
 import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsRequest;
+import com.example.calendar_booking_system.datatransferobject.CommonSlotsResponse;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsRequest;
+import com.example.calendar_booking_system.datatransferobject.FreeGapsResponse;
+import com.example.calendar_booking_system.datatransferobject.SeriesRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRangeResponse;
 import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
 import com.example.calendar_booking_system.entity.CalendarOwner;
 import com.example.calendar_booking_system.entity.Invitee;
 import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
@@ -13,7 +22,10 @@ import com.example.calendar_booking_system.service.InviteeService;
 import com.example.calendar_booking_system.service.InviteeServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.*;
 import java.time.temporal.TemporalAdjusters;
@@ -22,6 +34,9 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class InviteeControllerTest {
 
@@ -31,6 +46,7 @@ class InviteeControllerTest {
     private InviteeService inviteeService;
     private CalendarOwner owner;
     private Invitee invitee;
+    private String inviteeId;
 
     @BeforeEach
     void setUp() {
@@ -47,13 +63,13 @@ class InviteeControllerTest {
 
         // Create an invitee
         invitee = new Invitee("Bob", "bob@example.com");
-        controller.createInvitee(invitee);
+        inviteeId = ((Invitee) controller.createInvitee(invitee).getBody()).getId();
     }
 
     // ---------------- Invitee Tests ----------------
     @Test
     void testCreateAndGetInvitee() {
-        ResponseEntity<?> response = controller.getInvitee();
+        ResponseEntity<?> response = controller.getInvitee(inviteeId);
         assertNotNull(response);
         Invitee returnedInvitee = (Invitee) response.getBody();
         assertNotNull(returnedInvitee);
@@ -69,7 +85,7 @@ class InviteeControllerTest {
         owner.getCalendar().addAppointment(new Appointment(date.atTime(9, 0), "Meeting1", invitee, owner));
         owner.getCalendar().addAppointment(new Appointment(date.atTime(13, 0), "Meeting2", invitee, owner));
 
-        SlotRequest req = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        SlotRequest req = forInvitee(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
         ResponseEntity<String> response = controller.getAvailableSlots(req);
 
         String slotsPart = response.getBody().split(":")[1].trim();
@@ -86,8 +102,8 @@ class InviteeControllerTest {
     @Test
     void testAvailableSlotsOffDay() {
         LocalDate nextSaturday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
-        SlotRequest req = new SlotRequest(owner.getId(), nextSaturday.getYear(),
-                nextSaturday.getMonthValue(), nextSaturday.getDayOfMonth());
+        SlotRequest req = forInvitee(new SlotRequest(owner.getId(), nextSaturday.getYear(),
+                nextSaturday.getMonthValue(), nextSaturday.getDayOfMonth()));
         ResponseEntity<String> response = controller.getAvailableSlots(req);
         assertEquals("It’s an off day. No appointment possible.", response.getBody());
     }
@@ -95,15 +111,15 @@ class InviteeControllerTest {
     @Test
     void testAvailableSlotsTooFarAhead() {
         LocalDate farDate = LocalDate.now().plusDays(16);
-        SlotRequest req = new SlotRequest(owner.getId(), farDate.getYear(),
-                farDate.getMonthValue(), farDate.getDayOfMonth());
+        SlotRequest req = forInvitee(new SlotRequest(owner.getId(), farDate.getYear(),
+                farDate.getMonthValue(), farDate.getDayOfMonth()));
         ResponseEntity<String> response = controller.getAvailableSlots(req);
         assertEquals("Too far ahead. Please choose a date within the next 15 days.", response.getBody());
     }
 
     @Test
     void testAvailableSlotsInvalidDateFormat() {
-        SlotRequest req = new SlotRequest(owner.getId(), 2025, 13, 40);
+        SlotRequest req = forInvitee(new SlotRequest(owner.getId(), 2025, 13, 40));
         ResponseEntity<String> response = controller.getAvailableSlots(req);
         assertEquals("Invalid date provided. Please provide a valid year, month, and day.", response.getBody());
     }
@@ -114,7 +130,7 @@ class InviteeControllerTest {
         for (int h = 9; h < 17; h++) {
             owner.getCalendar().addAppointment(new Appointment(date.atTime(h, 0), "Full", invitee, owner));
         }
-        SlotRequest req = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        SlotRequest req = forInvitee(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
         ResponseEntity<String> response = controller.getAvailableSlots(req);
         assertEquals("No free slots available on " + date + ".", response.getBody());
     }
@@ -124,14 +140,14 @@ class InviteeControllerTest {
     void testScheduleAppointmentAlreadyOccupied() {
         LocalDate date = LocalDate.now().plusDays(1);
 
-        controller.getAvailableSlots(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        controller.getAvailableSlots(forInvitee(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth())));
 
         // Book first appointment at 11
-        controller.bookAppointment(new AppointmentRequest(owner.getId(), "First Meeting", date.getDayOfMonth(),
-                date.getMonthValue(), date.getYear(), 11));
+        controller.bookAppointment(forInvitee(new AppointmentRequest(owner.getId(), "First Meeting", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), 11)));
 
-        AppointmentRequest req2 = new AppointmentRequest(owner.getId(), "Second Meeting", date.getDayOfMonth(),
-                date.getMonthValue(), date.getYear(), 11);
+        AppointmentRequest req2 = forInvitee(new AppointmentRequest(owner.getId(), "Second Meeting", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), 11));
         ResponseEntity<?> response = controller.bookAppointment(req2);
 
         assertEquals("No booking for this time. Book appointment in one of the available slots.", response.getBody());
@@ -140,10 +156,10 @@ class InviteeControllerTest {
     @Test
     void testScheduleAppointmentOutsideWorkingHours() {
         LocalDate date = LocalDate.now().plusDays(1);
-        controller.getAvailableSlots(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        controller.getAvailableSlots(forInvitee(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth())));
 
-        AppointmentRequest req = new AppointmentRequest(owner.getId(), "Early Meeting", date.getDayOfMonth(),
-                date.getMonthValue(), date.getYear(), 8);
+        AppointmentRequest req = forInvitee(new AppointmentRequest(owner.getId(), "Early Meeting", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), 8));
 
         ResponseEntity<?> response = controller.bookAppointment(req);
         assertEquals("No booking for this time. Book appointment in one of the available slots.", response.getBody());
@@ -152,10 +168,10 @@ class InviteeControllerTest {
     @Test
     void testScheduleAppointmentOnOffDay() {
         LocalDate nextSaturday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
-        controller.getAvailableSlots(new SlotRequest(owner.getId(), nextSaturday.getYear(), nextSaturday.getMonthValue(), nextSaturday.getDayOfMonth()));
+        controller.getAvailableSlots(forInvitee(new SlotRequest(owner.getId(), nextSaturday.getYear(), nextSaturday.getMonthValue(), nextSaturday.getDayOfMonth())));
 
-        AppointmentRequest req = new AppointmentRequest(owner.getId(), "Weekend Meeting", nextSaturday.getDayOfMonth(),
-                nextSaturday.getMonthValue(), nextSaturday.getYear(), 10);
+        AppointmentRequest req = forInvitee(new AppointmentRequest(owner.getId(), "Weekend Meeting", nextSaturday.getDayOfMonth(),
+                nextSaturday.getMonthValue(), nextSaturday.getYear(), 10));
 
         ResponseEntity<?> response = controller.bookAppointment(req);
         assertEquals("No available slots on this date. Try another date.", response.getBody());
@@ -164,10 +180,10 @@ class InviteeControllerTest {
     @Test
     void testScheduleAppointmentAt15DayLimit() {
         LocalDate limitDate = LocalDate.now().plusDays(15);
-        controller.getAvailableSlots(new SlotRequest(owner.getId(), limitDate.getYear(), limitDate.getMonthValue(), limitDate.getDayOfMonth()));
+        controller.getAvailableSlots(forInvitee(new SlotRequest(owner.getId(), limitDate.getYear(), limitDate.getMonthValue(), limitDate.getDayOfMonth())));
 
-        AppointmentRequest req = new AppointmentRequest(owner.getId(), "Limit Meeting", limitDate.getDayOfMonth(),
-                limitDate.getMonthValue(), limitDate.getYear(), 16);
+        AppointmentRequest req = forInvitee(new AppointmentRequest(owner.getId(), "Limit Meeting", limitDate.getDayOfMonth(),
+                limitDate.getMonthValue(), limitDate.getYear(), 16));
 
         ResponseEntity<?> response = controller.bookAppointment(req);
         Appointment appt = (Appointment) response.getBody();
@@ -178,15 +194,15 @@ class InviteeControllerTest {
     @Test
     void testConcurrentBookingSameSlot() throws InterruptedException {
         LocalDate date = LocalDate.now().plusDays(1);
-        controller.getAvailableSlots(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+        controller.getAvailableSlots(forInvitee(new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth())));
 
         int threadCount = 5;
         CountDownLatch latch = new CountDownLatch(threadCount);
         AtomicInteger successCount = new AtomicInteger(0);
 
         Runnable bookTask = () -> {
-            AppointmentRequest req = new AppointmentRequest(owner.getId(), "Concurrent Meeting", date.getDayOfMonth(),
-                    date.getMonthValue(), date.getYear(), 10);
+            AppointmentRequest req = forInvitee(new AppointmentRequest(owner.getId(), "Concurrent Meeting", date.getDayOfMonth(),
+                    date.getMonthValue(), date.getYear(), 10));
 
             ResponseEntity<?> resp = controller.bookAppointment(req);
             if (resp.getStatusCode().is2xxSuccessful()) {
@@ -202,6 +218,408 @@ class InviteeControllerTest {
         assertEquals(1, owner.getCalendar().getAppointments().size());
     }
 
+    @Test
+    void testInviteeSessionsDoNotOverwriteEachOther() {
+        CalendarOwner otherOwner = new CalendarOwner("Carol", "carol@example.com");
+        otherOwner.setOffDays(Set.of());
+        calendarOwnerRepository.save(otherOwner);
+        LocalDate date = LocalDate.now().plusDays(1);
+        while (owner.getOffDays().contains(date.getDayOfWeek())) date = date.plusDays(1);
+
+        String first = ((Invitee) controller.createInvitee(new Invitee("Dan", "dan@example.com")).getBody()).getId();
+        String second = ((Invitee) controller.createInvitee(new Invitee("Erin", "erin@example.com")).getBody()).getId();
+
+        // Interleaved lookups for different owners
+        SlotRequest firstLookup = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        firstLookup.setInviteeId(first);
+        SlotRequest secondLookup = new SlotRequest(otherOwner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        secondLookup.setInviteeId(second);
+        controller.getAvailableSlots(firstLookup);
+        controller.getAvailableSlots(secondLookup);
+
+        AppointmentRequest firstBooking = new AppointmentRequest(owner.getId(), "Dan's meeting",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10);
+        firstBooking.setInviteeId(first);
+        AppointmentRequest secondBooking = new AppointmentRequest(otherOwner.getId(), "Erin's meeting",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10);
+        secondBooking.setInviteeId(second);
+
+        Appointment a = (Appointment) controller.bookAppointment(firstBooking).getBody();
+        Appointment b = (Appointment) controller.bookAppointment(secondBooking).getBody();
+        assertEquals("Dan", a.getInvitee().getName());
+        assertEquals("Erin", b.getInvitee().getName());
+        assertEquals("Dan", ((Invitee) controller.getInvitee(first).getBody()).getName());
+    }
+
+    @Test
+    void testUnknownInviteeIdRejected() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        AppointmentRequest req = new AppointmentRequest(owner.getId(), "Ghost", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), 10);
+        req.setInviteeId("missing");
+
+        ResponseEntity<?> response = controller.bookAppointment(req);
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(404, controller.getInvitee("missing").getStatusCode().value());
+    }
+
+    @Test
+    void testRequestsWithoutInviteeIdRejected() {
+        LocalDate date = nextWorkday();
+        // Another invitee created later must not stand in for a request that names none
+        controller.createInvitee(new Invitee("Eve", "eve@example.com"));
+
+        assertEquals(400, controller.findInvitee(null).getStatusCode().value());
+        assertEquals(400, controller.getMeetingInvitee(null).getStatusCode().value());
+        assertEquals(400, controller.getAvailableSlots(
+                new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth())).getStatusCode().value());
+        assertEquals(400, controller.getAvailableSlotRange(new SlotRangeRequest(owner.getId(), date, date)).getStatusCode().value());
+        assertEquals(400, controller.getFreeGaps(new FreeGapsRequest(owner.getId(), date, 30)).getStatusCode().value());
+
+        controller.getAvailableSlots(forInvitee(
+                new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth())));
+        assertEquals(400, controller.bookAppointment(new AppointmentRequest(owner.getId(), "Nobody",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10)).getStatusCode().value());
+        assertEquals(400, controller.bookAppointments(new BatchAppointmentRequest(null, List.of(new AppointmentRequest(
+                owner.getId(), "Nobody", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10)))).getStatusCode().value());
+        assertEquals(400, controller.bookSeries(new SeriesRequest(owner.getId(), "Nobody", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), 10, "WEEKLY", 1, null, 2)).getStatusCode().value());
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+        assertTrue(owner.getCalendar().getSeries().isEmpty());
+    }
+
+    // ---------------- Available Slot Range Tests ----------------
+    @Test
+    void testAvailableSlotRangeReturnsEveryDay() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(6);
+        LocalDate workday = nextWorkday();
+        owner.getCalendar().addAppointment(new Appointment(workday.atTime(9, 0), "Meeting1", invitee, owner));
+
+        ResponseEntity<?> response = controller.getAvailableSlotRange(forInvitee(new SlotRangeRequest(owner.getId(), from, to)));
+        assertEquals(200, response.getStatusCode().value());
+        SlotRangeResponse body = (SlotRangeResponse) response.getBody();
+
+        assertEquals(7, body.getDays().size());
+        for (SlotRangeResponse.DaySlots day : body.getDays()) {
+            boolean weekend = day.getDate().getDayOfWeek() == DayOfWeek.SATURDAY
+                    || day.getDate().getDayOfWeek() == DayOfWeek.SUNDAY;
+            assertEquals(weekend, day.isOffDay());
+            if (weekend) {
+                assertTrue(day.getFreeHours().isEmpty());
+            } else if (day.getDate().equals(workday)) {
+                assertEquals(List.of(10, 11, 12, 13, 14, 15, 16), day.getFreeHours());
+            } else {
+                assertEquals(List.of(9, 10, 11, 12, 13, 14, 15, 16), day.getFreeHours());
+            }
+        }
+    }
+
+    @Test
+    void testBookingMeetingsOfAnyQuarterHourLength() {
+        LocalDate date = nextWorkday();
+        FreeGapsResponse before = (FreeGapsResponse) controller.getFreeGaps(
+                forInvitee(new FreeGapsRequest(owner.getId(), date, 30))).getBody();
+        assertEquals(1, before.getGaps().size());
+        assertEquals(LocalTime.of(9, 0), before.getGaps().get(0).getStart());
+
+        assertEquals(200, book(date, 9, 15, 30).getStatusCode().value());
+        assertEquals(200, book(date, 9, 45, 45).getStatusCode().value());
+        // 9:45-10:30 took part of hour 10, so the whole hour is gone
+        assertEquals(400, book(date, 10, 0, 0).getStatusCode().value());
+        assertEquals(200, book(date, 10, 30, 90).getStatusCode().value());
+        assertEquals("Already occupied, try another slot.", book(date, 11, 45, 15).getBody());
+
+        FreeGapsResponse after = (FreeGapsResponse) controller.getFreeGaps(
+                forInvitee(new FreeGapsRequest(owner.getId(), date, 15))).getBody();
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(12, 0)),
+                after.getGaps().stream().map(FreeGapsResponse.Gap::getStart).toList());
+        assertEquals(List.of(LocalTime.of(9, 15), LocalTime.of(17, 0)),
+                after.getGaps().stream().map(FreeGapsResponse.Gap::getEnd).toList());
+        assertEquals(90, owner.getCalendar().getAppointments().last().getDurationMinutes());
+    }
+
+    @Test
+    void testBookingRejectsOddLengthsAndOverrunningWorkHours() {
+        LocalDate date = nextWorkday();
+        controller.getFreeGaps(forInvitee(new FreeGapsRequest(owner.getId(), date, 0)));
+
+        assertEquals(400, book(date, 10, 0, 20).getStatusCode().value());
+        assertEquals(400, book(date, 10, 10, 30).getStatusCode().value());
+        assertEquals(400, book(date, 10, 0, 9 * 60).getStatusCode().value());
+        assertEquals(400, book(date, 16, 30, 60).getStatusCode().value());
+        assertEquals(400, controller.getFreeGaps(forInvitee(new FreeGapsRequest(owner.getId(), date, 25))).getStatusCode().value());
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+    }
+
+    @Test
+    void testInMemoryBookingClaimsAndBooksInOneStep() {
+        LocalDate date = nextWorkday();
+        controller.getFreeGaps(forInvitee(new FreeGapsRequest(owner.getId(), date, 0)));
+        long before = owner.getCalendar().getVersion();
+
+        assertEquals(200, book(date, 10, 0, 30).getStatusCode().value());
+
+        // Nothing stores the booking, so it is not held and then committed in two steps
+        assertEquals(before + 1, owner.getCalendar().getVersion());
+        assertEquals(1, owner.getCalendar().getAppointments().size());
+    }
+
+    private ResponseEntity<?> book(LocalDate date, int hour, int minute, int durationMinutes) {
+        return controller.bookAppointment(forInvitee(new AppointmentRequest(owner.getId(), "Meeting", date.getDayOfMonth(),
+                date.getMonthValue(), date.getYear(), hour, minute, durationMinutes)));
+    }
+
+    @Test
+    void testBookAndCancelSeriesOccurrence() {
+        LocalDate first = nextWorkday();
+        ResponseEntity<?> response = controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "1:1",
+                first.getDayOfMonth(), first.getMonthValue(), first.getYear(), 14, "weekly", 1, null, 2)));
+        assertEquals(200, response.getStatusCode().value());
+        AppointmentSeries series = (AppointmentSeries) response.getBody();
+        assertEquals(first.plusWeeks(1), series.getLastDate());
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+
+        // The second occurrence shows up as taken in the range lookup, and cannot be booked over
+        SlotRangeResponse range = (SlotRangeResponse) controller.getAvailableSlotRange(
+                forInvitee(new SlotRangeRequest(owner.getId(), first.plusWeeks(1), first.plusWeeks(1)))).getBody();
+        assertFalse(range.getDays().get(0).getFreeHours().contains(14));
+
+        LocalDate second = first.plusWeeks(1);
+        assertEquals(400, controller.cancelSeriesOccurrence(series.getId(), owner.getId(), second.plusDays(1)).getStatusCode().value());
+        assertEquals(404, controller.cancelSeriesOccurrence("missing", owner.getId(), second).getStatusCode().value());
+        assertEquals(200, controller.cancelSeriesOccurrence(series.getId(), owner.getId(), second).getStatusCode().value());
+        assertEquals(400, controller.cancelSeriesOccurrence(series.getId(), owner.getId(), second).getStatusCode().value());
+        assertFalse(owner.getCalendar().isHourOccupied(second, 14));
+        assertTrue(owner.getCalendar().isHourOccupied(first, 14));
+    }
+
+    @Test
+    void testBookSeriesRejectsUnboundedClashingAndOffDayRules() {
+        LocalDate first = nextWorkday();
+        int d = first.getDayOfMonth(), m = first.getMonthValue(), y = first.getYear();
+        assertEquals(400, controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Forever", d, m, y, 9, "WEEKLY", 1, null, 0)))
+                .getStatusCode().value());
+        assertEquals(400, controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Monthly", d, m, y, 9, "MONTHLY", 1, null, 3)))
+                .getStatusCode().value());
+        assertEquals(400, controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Long", d, m, y, 9, "DAILY", 1, null, 1000)))
+                .getStatusCode().value());
+        assertEquals(400, controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Endless", d, m, y, 9, "DAILY", 1, LocalDate.MAX, 0)))
+                .getStatusCode().value());
+        // Daily for a week always reaches the owner's weekend
+        assertEquals(400, controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Daily", d, m, y, 9, "DAILY", 1, null, 7)))
+                .getStatusCode().value());
+
+        owner.getCalendar().addAppointment(new Appointment(first.plusWeeks(2).atTime(9, 0), "Taken", invitee, owner));
+        ResponseEntity<?> clash = controller.bookSeries(forInvitee(new SeriesRequest(owner.getId(), "Weekly", d, m, y, 9, "WEEKLY", 1, null, 3)));
+        assertEquals("Already occupied, try another slot.", clash.getBody());
+        assertTrue(owner.getCalendar().getSeries().isEmpty());
+    }
+
+    @Test
+    void testBookingAfterRangeLookup() {
+        LocalDate first = nextWorkday();
+        LocalDate second = first.plusDays(1);
+        while (owner.getOffDays().contains(second.getDayOfWeek())) second = second.plusDays(1);
+        controller.getAvailableSlotRange(forInvitee(new SlotRangeRequest(owner.getId(), first, second)));
+
+        ResponseEntity<?> response = controller.bookAppointment(forInvitee(new AppointmentRequest(owner.getId(), "Planning",
+                second.getDayOfMonth(), second.getMonthValue(), second.getYear(), 15)));
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(owner.getCalendar().isHourOccupied(second, 15));
+    }
+
+    @Test
+    void testAvailableSlotRangeRejectsBadRanges() {
+        LocalDate today = LocalDate.now();
+        assertEquals(400, controller.getAvailableSlotRange(
+                forInvitee(new SlotRangeRequest(owner.getId(), today.plusDays(3), today.plusDays(1)))).getStatusCode().value());
+        assertEquals(400, controller.getAvailableSlotRange(
+                forInvitee(new SlotRangeRequest(owner.getId(), today, today.plusDays(30)))).getStatusCode().value());
+        assertEquals(404, controller.getAvailableSlotRange(
+                forInvitee(new SlotRangeRequest("invalid-id", today, today))).getStatusCode().value());
+    }
+
+    @Test
+    void testAvailableSlotRangeETagFollowsCalendarAndWorkDetails() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(6);
+        SlotRangeRequest req = forInvitee(new SlotRangeRequest(owner.getId(), from, to));
+
+        String first = controller.getAvailableSlotRange(req).getHeaders().getETag();
+        assertNotNull(first);
+        assertEquals(first, controller.getAvailableSlotRange(req).getHeaders().getETag());
+        assertNotEquals(first, controller.getAvailableSlotRange(
+                forInvitee(new SlotRangeRequest(owner.getId(), from, to.minusDays(1)))).getHeaders().getETag());
+
+        owner.getCalendar().addAppointment(new Appointment(nextWorkday().atTime(9, 0), "Meeting1", invitee, owner));
+        String booked = controller.getAvailableSlotRange(req).getHeaders().getETag();
+        assertNotEquals(first, booked);
+
+        owner.setWorkHours(LocalTime.of(10, 0), LocalTime.of(17, 0));
+        String shorterDay = controller.getAvailableSlotRange(req).getHeaders().getETag();
+        assertNotEquals(booked, shorterDay);
+
+        owner.setOffDays(Set.of(DayOfWeek.SUNDAY));
+        assertNotEquals(shorterDay, controller.getAvailableSlotRange(req).getHeaders().getETag());
+    }
+
+    @Test
+    void testAvailableSlotRangeAnswersNotModifiedForCurrentETag() throws Exception {
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+        LocalDate from = LocalDate.now().plusDays(1);
+        String url = "/api/invitees/available-slots/range?ownerId=" + owner.getId()
+                + "&from=" + from + "&to=" + from.plusDays(6) + "&inviteeId=" + inviteeId;
+
+        String etag = mvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        owner.getCalendar().addAppointment(new Appointment(nextWorkday().atTime(9, 0), "Meeting1", invitee, owner));
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+    }
+
+    // ---------------- Common Availability Tests ----------------
+    @Test
+    void testCommonAvailableSlotsAcrossOwners() {
+        CalendarOwner otherOwner = new CalendarOwner("Carol", "carol@example.com");
+        otherOwner.setWorkHours(LocalTime.of(13, 0), LocalTime.of(18, 0));
+        calendarOwnerRepository.save(otherOwner);
+        LocalDate date = nextWorkday();
+        otherOwner.getCalendar().addAppointment(new Appointment(date.atTime(14, 0), "Busy", invitee, otherOwner));
+
+        ResponseEntity<?> response = controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(List.of(owner.getId(), otherOwner.getId(), owner.getId()), date, date));
+        assertEquals(200, response.getStatusCode().value());
+        CommonSlotsResponse body = (CommonSlotsResponse) response.getBody();
+
+        assertEquals(List.of(owner.getId(), otherOwner.getId()), body.getOwnerIds());
+        assertEquals(1, body.getDays().size());
+        assertEquals(List.of(13, 15, 16), body.getDays().get(0).getFreeHours());
+    }
+
+    @Test
+    void testCommonAvailableSlotsRejectsBadInput() {
+        LocalDate today = LocalDate.now();
+        assertEquals(400, controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(List.of(), today, today)).getStatusCode().value());
+        assertEquals(404, controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(List.of(owner.getId(), "invalid-id"), today, today)).getStatusCode().value());
+        assertEquals(400, controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(List.of(owner.getId()), today.plusDays(2), today)).getStatusCode().value());
+        assertEquals(400, controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(List.of(owner.getId()), today, today.plusDays(30))).getStatusCode().value());
+
+        List<String> tooMany = new ArrayList<>();
+        for (int i = 0; i <= 500; i++) tooMany.add("owner-" + i);
+        assertEquals(400, controller.getCommonAvailableSlots(
+                new CommonSlotsRequest(tooMany, today, today)).getStatusCode().value());
+    }
+
+    // ---------------- Batch Booking Tests ----------------
+    @Test
+    void testBatchBookingAcrossOwners() {
+        CalendarOwner otherOwner = new CalendarOwner("Carol", "carol@example.com");
+        otherOwner.setOffDays(Set.of());
+        calendarOwnerRepository.save(otherOwner);
+        LocalDate date = nextWorkday();
+
+        BatchAppointmentRequest req = new BatchAppointmentRequest(inviteeId, List.of(
+                new AppointmentRequest(owner.getId(), "Kickoff", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10),
+                new AppointmentRequest(owner.getId(), "Review", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 11),
+                new AppointmentRequest(otherOwner.getId(), "Sync", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10)));
+
+        ResponseEntity<?> response = controller.bookAppointments(req);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(3, ((List<?>) response.getBody()).size());
+        assertEquals(2, owner.getCalendar().getAppointments().size());
+        assertEquals(1, otherOwner.getCalendar().getAppointments().size());
+        assertEquals(3, ((Invitee) controller.getInvitee(inviteeId).getBody()).getAppointments().size());
+    }
+
+    @Test
+    void testBatchBookingIsAllOrNothing() {
+        CalendarOwner otherOwner = new CalendarOwner("Carol", "carol@example.com");
+        otherOwner.setOffDays(Set.of());
+        calendarOwnerRepository.save(otherOwner);
+        LocalDate date = nextWorkday();
+        otherOwner.getCalendar().addAppointment(new Appointment(date.atTime(10, 0), "Taken", invitee, otherOwner));
+
+        BatchAppointmentRequest req = new BatchAppointmentRequest(inviteeId, List.of(
+                new AppointmentRequest(owner.getId(), "Kickoff", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10),
+                new AppointmentRequest(otherOwner.getId(), "Sync", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10)));
+
+        ResponseEntity<?> response = controller.bookAppointments(req);
+        assertEquals(400, response.getStatusCode().value());
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+        assertFalse(owner.getCalendar().isHourOccupied(date, 10));
+        assertTrue(((Invitee) controller.getInvitee(inviteeId).getBody()).getAppointments().isEmpty());
+    }
+
+    @Test
+    void testBatchBookingRejectsConflictBetweenClaimAndCommit() {
+        LocalDate date = nextWorkday();
+        // Another booking wins the hour after validation would have passed: the batch must release its other claims
+        Appointment rival = new Appointment(date.atTime(11, 0), "Rival", invitee, owner);
+        List<Appointment> batch = List.of(
+                new Appointment(date.atTime(10, 0), "Kickoff", invitee, owner),
+                new Appointment(date.atTime(11, 0), "Review", invitee, owner));
+        assertTrue(owner.getCalendar().tryBook(rival));
+
+        assertFalse(owner.getCalendar().tryReserve(batch));
+        assertFalse(owner.getCalendar().isHourOccupied(date, 10));
+        assertTrue(owner.getCalendar().isHourOccupied(date, 11));
+    }
+
+    @Test
+    void testBatchBookingRejectsDuplicateSlot() {
+        LocalDate date = nextWorkday();
+        BatchAppointmentRequest req = new BatchAppointmentRequest(inviteeId, List.of(
+                new AppointmentRequest(owner.getId(), "Kickoff", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10),
+                new AppointmentRequest(owner.getId(), "Again", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 10)));
+
+        ResponseEntity<?> response = controller.bookAppointments(req);
+        assertEquals(400, response.getStatusCode().value());
+        assertTrue(((String) response.getBody()).startsWith("Entry 1:"));
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+    }
+
+    @Test
+    void testBatchBookingRejectsEmptyBatch() {
+        ResponseEntity<?> response = controller.bookAppointments(new BatchAppointmentRequest(inviteeId, List.of()));
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    // Requests name the invitee created in setUp unless a test sets another
+    private <T extends AppointmentRequest> T forInvitee(T req) {
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+
+    private SlotRequest forInvitee(SlotRequest req) {
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+
+    private SlotRangeRequest forInvitee(SlotRangeRequest req) {
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+
+    private FreeGapsRequest forInvitee(FreeGapsRequest req) {
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+
+    private LocalDate nextWorkday() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        while (owner.getOffDays().contains(date.getDayOfWeek())) date = date.plusDays(1);
+        return date;
+    }
+
     // ---------------- Owner Info Tests ----------------
     @Test
     void testGetOwnerInfo() {
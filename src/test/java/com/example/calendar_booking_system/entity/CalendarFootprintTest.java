@@ -0,0 +1,94 @@
+package com.example.calendar_booking_system.entity;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books the same appointments into calendars of each storage and compares the heap each retains
+ * per booking. It forces collections and takes seconds, so it only runs in the {@code footprint}
+ * profile ({@code mvn -Pfootprint test}); add {@code -Dfootprint.bookings=1000000} to measure a full
+ * million. The {@code CalendarStorageBenchmark} in the {@code jmh} profile covers speed and collection time.
+ */
+@Tag("footprint")
+class CalendarFootprintTest {
+
+    private static final int BOOKINGS = Integer.getInteger("footprint.bookings", 200_000);
+    private static final int PER_CALENDAR = 400;
+    private static final int INVITEES = 500;
+    private static final int SUBJECTS = 20;
+
+    @Test
+    void testPrimitiveStoragesRetainFarLessHeapPerBooking() {
+        double objects = 0;
+        double compact = 0;
+        double offHeap = 0;
+        for (CalendarStorage storage : CalendarStorage.values()) {
+            long before = usedHeap();
+            long directBefore = usedDirect();
+            List<Calendar> calendars = book(storage);
+            long after = usedHeap();
+            double perBooking = (after - before) / (double) BOOKINGS;
+            if (storage == CalendarStorage.OFF_HEAP) {
+                assertTrue(usedDirect() > directBefore, "off-heap records live in direct memory");
+            }
+            Reference.reachabilityFence(calendars);
+
+            if (storage == CalendarStorage.OBJECTS) objects = perBooking;
+            if (storage == CalendarStorage.COMPACT) compact = perBooking;
+            if (storage == CalendarStorage.OFF_HEAP) offHeap = perBooking;
+        }
+        // All include the same per-day hour words; the compact rows alone are a tenth of the objects
+        assertTrue(compact < objects / 2, "compact " + compact + " vs objects " + objects + " bytes per booking");
+        assertTrue(offHeap < compact, "off-heap " + offHeap + " vs compact " + compact + " heap bytes per booking");
+    }
+
+    // Back-to-back 45-minute bookings, as an API client would send them: every subject a new string
+    private static List<Calendar> book(CalendarStorage storage) {
+        CalendarOwner owner = new CalendarOwner("Owner", "owner@example.com");
+        List<Invitee> invitees = new ArrayList<>();
+        for (int i = 0; i < INVITEES; i++) invitees.add(new Invitee("Invitee " + i, "invitee" + i + "@example.com"));
+
+        List<Calendar> calendars = new ArrayList<>();
+        LocalDate first = LocalDate.now().plusDays(1);
+        Calendar calendar = null;
+        for (int i = 0; i < BOOKINGS; i++) {
+            if (i % PER_CALENDAR == 0) {
+                calendar = new Calendar("calendar-" + i, storage);
+                calendars.add(calendar);
+            }
+            int slot = i % PER_CALENDAR;
+            Appointment appointment = new Appointment(first.plusDays(slot / 24).atTime(slot % 24, 0),
+                    Duration.ofMinutes(45), new String("Sync " + i % SUBJECTS), invitees.get(i % INVITEES), owner);
+            assertTrue(calendar.tryBook(appointment));
+        }
+        return calendars;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) return pool.getMemoryUsed();
+        }
+        return 0;
+    }
+}
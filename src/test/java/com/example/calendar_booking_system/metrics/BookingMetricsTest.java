@@ -0,0 +1,99 @@
+package com.example.calendar_booking_system.metrics;
+
+import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRequest;
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private CalendarOwnerRepository repository;
+    private CalendarService calendarService;
+    private BookingMetrics metrics;
+    private CalendarOwner owner;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new BookingMetrics(registry);
+        repository = new CalendarOwnerRepository();
+        calendarService = new CalendarServiceImpl(repository, metrics);
+        owner = new CalendarOwner("Alice", "alice@example.com");
+        repository.save(owner);
+    }
+
+    @Test
+    void testBookingPathIsTimedAndRejectionsCounted() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        InviteeService inviteeService = new InviteeServiceImpl(calendarService, repository, metrics, new InviteeSessionStore(100), event -> {});
+        String bob = createInvitee(inviteeService, "Bob");
+        String carol = createInvitee(inviteeService, "Carol");
+        inviteeService.getAvailableSlots(slotRequest(bob, date));
+        inviteeService.getAvailableSlots(slotRequest(carol, date));
+
+        // Both saw 10:00 as free; the second booking loses the claim
+        inviteeService.bookAppointment(bookingRequest(bob, "First", date, 10));
+        inviteeService.bookAppointment(bookingRequest(carol, "Second", date, 10));
+
+        assertEquals(2, registry.get("calendar.available_slots").timer().count());
+        assertEquals(2, registry.get("calendar.free_slots").timer().count());
+        assertEquals(2, registry.get("calendar.booking").timer().count());
+        assertEquals(2, registry.get("calendar.booking.claim").timer().count());
+        assertEquals(1.0, registry.get("calendar.booking.rejected").tag("reason", "occupied").counter().count());
+        // The losing booking saw the hour taken without waiting for the calendar's lock
+        assertEquals(1, registry.get("calendar.booking.lock.wait").timer().count());
+        assertEquals(1, registry.get("calendar.booking.lock.hold").timer().count());
+    }
+
+    @Test
+    void testCleanupCountsExpiredAppointments() {
+        Invitee invitee = new Invitee("Bob", "bob@example.com");
+        owner.getCalendar().addAppointment(new Appointment(LocalDateTime.now().minusHours(5), "Old", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(LocalDateTime.now().minusHours(3), "Older", invitee, owner));
+
+        calendarService.cleanupPastAppointments(owner.getCalendar());
+
+        assertEquals(1, registry.get("calendar.cleanup").timer().count());
+        assertEquals(2.0, registry.get("calendar.appointments.expired").counter().count());
+    }
+
+    @Test
+    void testSummaryBuildIsTimed() {
+        CalendarOwnerService ownerService = new CalendarOwnerServiceImpl(repository, calendarService, metrics, new SummaryCache(100),
+                CalendarStorage.OBJECTS);
+        ownerService.getTodaySummary(owner.getId());
+        ownerService.getFullSummary(owner.getId()); // empty calendar short-circuits before building
+
+        assertEquals(1, registry.get("calendar.summary.build").timer().count());
+    }
+
+    private String createInvitee(InviteeService inviteeService, String name) {
+        Invitee invitee = (Invitee) inviteeService.createInvitee(new Invitee(name, name.toLowerCase() + "@example.com")).getBody();
+        return invitee.getId();
+    }
+
+    private SlotRequest slotRequest(String inviteeId, LocalDate date) {
+        SlotRequest req = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+
+    private AppointmentRequest bookingRequest(String inviteeId, String subject, LocalDate date, int hour) {
+        AppointmentRequest req = new AppointmentRequest(owner.getId(), subject, date.getDayOfMonth(), date.getMonthValue(), date.getYear(), hour);
+        req.setInviteeId(inviteeId);
+        return req;
+    }
+}
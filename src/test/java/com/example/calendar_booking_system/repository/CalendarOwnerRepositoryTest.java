@@ -48,4 +48,60 @@ class CalendarOwnerRepositoryTest {
         assertTrue(allOwners.contains(owner1));
         assertTrue(allOwners.contains(owner2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindByEmail() {
+        CalendarOwner owner = new CalendarOwner("Alice", "Alice@Example.com");
+        repository.save(owner);
+
+        assertSame(owner, repository.findByEmail("alice@example.com"));
+        assertNull(repository.findByEmail("bob@example.com"));
+    }
+
+    @Test
+    void testDuplicateEmailRejected() {
+        repository.save(new CalendarOwner("Alice", "alice@example.com"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.save(new CalendarOwner("Alice Two", "alice@example.com")));
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void testSaveSameOwnerTwiceReplaces() {
+        CalendarOwner owner = new CalendarOwner("Alice", "alice@example.com");
+        repository.save(owner);
+        repository.save(owner);
+
+        assertEquals(1, repository.findAll().size());
+        assertSame(owner, repository.findById(owner.getId()));
+    }
+
+    @Test
+    void testFindAllSnapshotIsImmutableAndRefreshed() {
+        repository.save(new CalendarOwner("Alice", "alice@example.com"));
+        List<CalendarOwner> first = repository.findAll();
+        assertSame(first, repository.findAll());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new CalendarOwner()));
+
+        repository.save(new CalendarOwner("Bob", "bob@example.com"));
+        assertEquals(1, first.size());
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void testFindPageStartsAfterCursorInIdOrder() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(new CalendarOwner("Owner " + i, "owner" + i + "@example.com"));
+        }
+        List<String> ids = repository.findAll().stream().map(CalendarOwner::getId).sorted().toList();
+
+        assertEquals(ids.subList(0, 2), repository.findPage(null, 2).stream().map(CalendarOwner::getId).toList());
+        assertEquals(ids.subList(2, 5), repository.findPage(ids.get(1), 10).stream().map(CalendarOwner::getId).toList());
+        assertTrue(repository.findPage(ids.get(4), 10).isEmpty());
+
+        // Re-saving an owner does not list it twice
+        repository.save(repository.findById(ids.get(0)));
+        assertEquals(5, repository.findPage(null, 10).size());
+    }
+}
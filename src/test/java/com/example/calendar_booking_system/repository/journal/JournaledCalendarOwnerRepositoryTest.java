@@ -0,0 +1,401 @@
+package com.example.calendar_booking_system.repository.journal;
+
+import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRequest;
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.Calendar;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.event.SeriesChangedEvent;
+import com.example.calendar_booking_system.metrics.BookingMetrics;
+import com.example.calendar_booking_system.service.CalendarServiceImpl;
+import com.example.calendar_booking_system.service.InviteeService;
+import com.example.calendar_booking_system.service.InviteeServiceImpl;
+import com.example.calendar_booking_system.service.InviteeSessionStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledCalendarOwnerRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOwnersWorkDetailsAndBookingsSurviveRestart() throws IOException {
+        LocalDate date = LocalDate.now().plusDays(2);
+        CalendarOwner owner = new CalendarOwner("Alice", "alice@example.com");
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 4096)) {
+            repository.save(owner);
+            owner.setWorkHours(LocalTime.of(10, 0), LocalTime.of(18, 0));
+            owner.setOffDays(Set.of(DayOfWeek.SUNDAY, DayOfWeek.MONDAY));
+            repository.save(owner);
+
+            Invitee bob = new Invitee("Bob", "bob@example.com");
+            Appointment past = new Appointment(LocalDate.now().minusDays(1).atTime(9, 0), "Old", bob, owner);
+            Appointment first = new Appointment(date.atTime(11, 0), "Review", bob, owner);
+            Appointment second = new Appointment(date.atTime(12, 0), "Follow-up", bob, owner);
+            repository.onAppointmentsBooked(new AppointmentsBookedEvent(List.of(past)));
+            repository.onAppointmentsBooked(new AppointmentsBookedEvent(List.of(first, second)));
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 4096,
+                CalendarStorage.COMPACT)) {
+            CalendarOwner reloaded = restarted.findById(owner.getId());
+            assertNotNull(reloaded);
+            assertSame(reloaded, restarted.findByEmail("alice@example.com"));
+            assertEquals(owner.getCalendar().getId(), reloaded.getCalendar().getId());
+            assertEquals(CalendarStorage.COMPACT, reloaded.getCalendar().getStorage());
+            assertEquals(LocalTime.of(10, 0), reloaded.getWorkDayStart());
+            assertEquals(LocalTime.of(18, 0), reloaded.getWorkDayEnd());
+            assertEquals(Set.of(DayOfWeek.SUNDAY, DayOfWeek.MONDAY), reloaded.getOffDays());
+
+            assertEquals(List.of("Review", "Follow-up"), reloaded.getCalendar().getAppointments().stream()
+                    .map(Appointment::getSubject).toList());
+            assertTrue(reloaded.getCalendar().isHourOccupied(date, 11));
+            assertTrue(reloaded.getCalendar().isHourOccupied(date, 12));
+            Invitee invitee = reloaded.getCalendar().getAppointments().first().getInvitee();
+            assertEquals("Bob", invitee.getName());
+            assertEquals(2, invitee.getAppointments().size());
+        }
+    }
+
+    @Test
+    void testReplaySpansRolledSegments() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Carol", "carol@example.com");
+        Invitee invitee = new Invitee("Dan", "dan@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            repository.save(owner);
+            for (int day = 0; day < 10; day++) {
+                for (int hour = 0; hour < 24; hour++) {
+                    repository.onAppointmentsBooked(new AppointmentsBookedEvent(List.of(
+                            new Appointment(tomorrow.plusDays(day).atTime(hour, 0), "Slot", invitee, owner))));
+                }
+            }
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.count() > 1, "a small segment size forces a roll");
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            assertEquals(240, restarted.findById(owner.getId()).getCalendar().getAppointments().size());
+        }
+    }
+
+    @Test
+    void testStartupLoadsSnapshotThenJournalTail() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Erin", "erin@example.com");
+        Invitee invitee = new Invitee("Frank", "frank@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            repository.save(owner);
+            for (int hour = 0; hour < 24; hour++) {
+                book(repository, owner, tomorrow, hour, "Before", invitee);
+            }
+            repository.takeSnapshot();
+            repository.takeSnapshot(); // nothing new journaled, so no second snapshot
+
+            book(repository, owner, tomorrow.plusDays(1), 9, "After", invitee);
+            owner.setWorkHours(LocalTime.of(7, 0), LocalTime.of(15, 0));
+            repository.save(owner);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<String> names = files.map(p -> p.getFileName().toString()).toList();
+            assertEquals(1, names.stream().filter(n -> n.endsWith(".snapshot")).count());
+            assertFalse(names.contains(String.format("%020d.journal", 0)), "segments before the snapshot are gone");
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            CalendarOwner reloaded = restarted.findById(owner.getId());
+            assertEquals(25, reloaded.getCalendar().getAppointments().size());
+            assertEquals("After", reloaded.getCalendar().getAppointments().last().getSubject());
+            assertEquals(LocalTime.of(7, 0), reloaded.getWorkDayStart());
+            Invitee reloadedInvitee = reloaded.getCalendar().getAppointments().first().getInvitee();
+            assertEquals("Frank", reloadedInvitee.getName());
+            assertEquals(25, reloadedInvitee.getAppointments().size());
+        }
+    }
+
+    @Test
+    void testAppointmentLengthsSurviveSnapshotAndReplay() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Gail", "gail@example.com");
+        Invitee invitee = new Invitee("Hank", "hank@example.com");
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atStartOfDay();
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            repository.save(owner);
+            book(repository, new Appointment(tomorrow.plusMinutes(9 * 60 + 15), Duration.ofMinutes(30), "Sync", invitee, owner));
+            book(repository, new Appointment(tomorrow.plusHours(10), Duration.ofMinutes(90), "Workshop", invitee, owner));
+            repository.takeSnapshot();
+            book(repository, new Appointment(tomorrow.plusHours(12), Duration.ofMinutes(45), "Lunch", invitee, owner));
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            CalendarOwner reloaded = restarted.findById(owner.getId());
+            assertEquals(List.of(30L, 90L, 45L), reloaded.getCalendar().getAppointments().stream()
+                    .map(Appointment::getDurationMinutes).toList());
+            assertTrue(reloaded.getCalendar().overlaps(tomorrow.plusMinutes(11 * 60 + 15), tomorrow.plusMinutes(11 * 60 + 30)));
+            assertFalse(reloaded.getCalendar().overlaps(tomorrow.plusMinutes(11 * 60 + 30), tomorrow.plusHours(12)));
+        }
+    }
+
+    @Test
+    void testSeriesSurviveSnapshotAndReplayWithCancellations() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Jane", "jane@example.com");
+        Invitee invitee = new Invitee("Kurt", "kurt@example.com");
+        LocalDate first = LocalDate.now().plusDays(1);
+        AppointmentSeries weekly = new AppointmentSeries(first.atTime(9, 0), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, first.plusWeeks(9), 0), "1:1", invitee, owner);
+        AppointmentSeries daily = new AppointmentSeries(first.atTime(16, 0), Duration.ofMinutes(15),
+                new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 2, null, 5), "Standup", invitee, owner);
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            repository.save(owner);
+            assertTrue(owner.getCalendar().tryAddSeries(weekly));
+            repository.onSeriesChanged(new SeriesChangedEvent(weekly));
+            repository.takeSnapshot();
+            assertTrue(owner.getCalendar().cancelOccurrence(weekly, first.plusWeeks(2)));
+            repository.onSeriesChanged(new SeriesChangedEvent(weekly));
+            assertTrue(owner.getCalendar().tryAddSeries(daily));
+            repository.onSeriesChanged(new SeriesChangedEvent(daily));
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            Calendar calendar = restarted.findById(owner.getId()).getCalendar();
+            assertEquals(2, calendar.getSeries().size());
+            AppointmentSeries reloaded = calendar.findSeries(weekly.getId());
+            assertEquals(Set.of(first.plusWeeks(2)), reloaded.getCancelledDates());
+            assertEquals(first.plusWeeks(9), reloaded.getLastDate());
+            assertEquals("Kurt", reloaded.getInvitee().getName());
+            assertTrue(calendar.isHourOccupied(first.plusWeeks(1), 9));
+            assertFalse(calendar.isHourOccupied(first.plusWeeks(2), 9));
+            assertEquals(first.plusDays(8), calendar.findSeries(daily.getId()).getLastDate());
+        }
+    }
+
+    @Test
+    void testOneHourRecordsOfEarlierJournalsStillReplay() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Ivy", "ivy@example.com");
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(14, 0);
+        try (BookingJournal journal = BookingJournal.open(dir, 1024, 0, (type, payload) -> {})) {
+            journal.append(JournalRecords.OWNER, JournalRecords.owner(owner));
+            // The appointment layout before durations were journaled: no duration after the start
+            byte[][] strings = {"legacy-id".getBytes(StandardCharsets.UTF_8), owner.getId().getBytes(StandardCharsets.UTF_8)};
+            ByteBuffer payload = ByteBuffer.allocate(256);
+            for (byte[] string : strings) payload.putInt(string.length).put(string);
+            payload.putLong(JournalRecords.toEpochSecond(start));
+            payload.putInt(-1).putInt(-1).putInt(-1).putInt(-1); // subject and invitee id, name, email
+            journal.awaitDurable(journal.append(JournalRecords.APPOINTMENT, payload.flip()));
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            Appointment appointment = restarted.findById(owner.getId()).getCalendar().getAppointments().first();
+            assertEquals("legacy-id", appointment.getId());
+            assertEquals(start.plusHours(1), appointment.getEndTime());
+        }
+    }
+
+    @Test
+    void testSnapshotsTakenDuringBookingsLoseNothing() throws Exception {
+        int threads = 4;
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<CalendarOwner> owners = new ArrayList<>();
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 4096)) {
+            for (int t = 0; t < threads; t++) {
+                CalendarOwner owner = new CalendarOwner("Owner " + t, "owner" + t + "@example.com");
+                repository.save(owner);
+                owners.add(owner);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> done = new ArrayList<>();
+            for (CalendarOwner owner : owners) {
+                done.add(pool.submit(() -> {
+                    Invitee invitee = new Invitee("Guest", "guest@example.com");
+                    for (int day = 0; day < 10; day++) {
+                        for (int hour = 0; hour < 24; hour++) {
+                            book(repository, owner, tomorrow.plusDays(day), hour, "Load", invitee);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            while (done.stream().anyMatch(f -> !f.isDone())) {
+                repository.takeSnapshot();
+            }
+            for (Future<?> f : done) f.get();
+            pool.shutdown();
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 4096)) {
+            for (CalendarOwner owner : owners) {
+                assertEquals(240, restarted.findById(owner.getId()).getCalendar().getAppointments().size());
+            }
+        }
+    }
+
+    @Test
+    void testBookingsThatCannotBeJournaledGiveTheirSlotsBack() throws IOException {
+        LocalDate date = LocalDate.now().plusDays(1);
+        CalendarOwner owner = new CalendarOwner("Dana", "dana@example.com");
+        JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 4096);
+        repository.save(owner);
+        InviteeService inviteeService = new InviteeServiceImpl(new CalendarServiceImpl(repository), repository,
+                BookingMetrics.standalone(), new InviteeSessionStore(100),
+                event -> repository.onAppointmentsBooked((AppointmentsBookedEvent) event));
+        Invitee invitee = (Invitee) inviteeService.createInvitee(new Invitee("Eve", "eve@example.com")).getBody();
+        SlotRequest lookup = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        lookup.setInviteeId(invitee.getId());
+        inviteeService.getAvailableSlots(lookup);
+        repository.close(); // every append fails from here on
+
+        assertThrows(IllegalStateException.class, () -> inviteeService.bookAppointment(booking(invitee, owner, date, 10)));
+        assertThrows(IllegalStateException.class, () -> inviteeService.bookAppointments(new BatchAppointmentRequest(
+                invitee.getId(), List.of(booking(invitee, owner, date, 11), booking(invitee, owner, date, 12)))));
+
+        for (int hour = 10; hour <= 12; hour++) {
+            assertFalse(owner.getCalendar().isHourOccupied(date, hour));
+        }
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+        assertTrue(invitee.getAppointments().isEmpty());
+    }
+
+    @Test
+    void testDamagedNewestSnapshotFallsBackToPrevious() throws IOException {
+        CalendarOwner owner = new CalendarOwner("Gail", "gail@example.com");
+        Invitee invitee = new Invitee("Hank", "hank@example.com");
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        try (JournaledCalendarOwnerRepository repository = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            repository.save(owner);
+            book(repository, owner, tomorrow, 9, "First", invitee);
+            repository.takeSnapshot();
+            book(repository, owner, tomorrow, 10, "Second", invitee);
+            repository.takeSnapshot();
+            book(repository, owner, tomorrow, 11, "Third", invitee);
+        }
+
+        Path newest;
+        try (Stream<Path> files = Files.list(dir)) {
+            newest = files.filter(p -> p.toString().endsWith(".snapshot")).max(Path::compareTo).orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(newest.toFile(), "rw")) {
+            file.seek(20);
+            file.write(0x5A);
+        }
+
+        try (JournaledCalendarOwnerRepository restarted = new JournaledCalendarOwnerRepository(dir, 1024)) {
+            assertEquals(List.of("First", "Second", "Third"), restarted.findById(owner.getId()).getCalendar()
+                    .getAppointments().stream().map(Appointment::getSubject).toList());
+        }
+    }
+
+    @Test
+    void testTornTailIsDroppedAndOverwritten() throws IOException {
+        long afterSecond;
+        try (BookingJournal journal = BookingJournal.open(dir, 4096, 0, (type, payload) -> {})) {
+            journal.append((byte) 7, text("one"));
+            afterSecond = journal.append((byte) 7, text("two"));
+            journal.awaitDurable(journal.append((byte) 7, text("three")));
+        }
+
+        // Damage the third record as a crash in the middle of writing it would
+        try (RandomAccessFile file = new RandomAccessFile(dir.resolve(String.format("%020d.journal", 0)).toFile(), "rw")) {
+            file.seek(afterSecond + 10);
+            file.write(0x5A);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (BookingJournal journal = BookingJournal.open(dir, 4096, 0, (type, payload) -> replayed.add(read(payload)))) {
+            assertEquals(List.of("one", "two"), replayed);
+            assertEquals(afterSecond, journal.position());
+            journal.awaitDurable(journal.append((byte) 7, text("four")));
+        }
+
+        replayed.clear();
+        try (BookingJournal journal = BookingJournal.open(dir, 4096, 0, (type, payload) -> replayed.add(read(payload)))) {
+            assertEquals(List.of("one", "two", "four"), replayed);
+        }
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllDurable() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (BookingJournal journal = BookingJournal.open(dir, 64 * 1024, 0, (type, payload) -> {})) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        journal.awaitDurable(journal.append((byte) 7, text(thread + ":" + i)));
+                    }
+                }));
+            }
+            for (Future<?> f : done) f.get();
+            pool.shutdown();
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (BookingJournal journal = BookingJournal.open(dir, 64 * 1024, 0, (type, payload) -> replayed.add(read(payload)))) {
+            assertEquals(threads * perThread, replayed.size());
+            assertEquals(threads * perThread, Set.copyOf(replayed).size());
+        }
+    }
+
+    // Holds the hour in memory, journals it and then commits it, as InviteeServiceImpl does
+    private static void book(JournaledCalendarOwnerRepository repository, CalendarOwner owner, LocalDate date,
+                             int hour, String subject, Invitee invitee) {
+        List<Appointment> held = List.of(new Appointment(date.atTime(hour, 0), subject, invitee, owner));
+        assertTrue(owner.getCalendar().tryReserve(held));
+        repository.onAppointmentsBooked(new AppointmentsBookedEvent(held));
+        owner.getCalendar().commitReservation(held);
+        invitee.addAppointment(held.get(0));
+    }
+
+    private static AppointmentRequest booking(Invitee invitee, CalendarOwner owner, LocalDate date, int hour) {
+        AppointmentRequest request = new AppointmentRequest(owner.getId(), "Sync",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), hour);
+        request.setInviteeId(invitee.getId());
+        return request;
+    }
+
+    private static void book(JournaledCalendarOwnerRepository repository, Appointment appointment) {
+        assertTrue(appointment.getOwner().getCalendar().tryBook(appointment));
+        appointment.getInvitee().addAppointment(appointment);
+        repository.onAppointmentsBooked(new AppointmentsBookedEvent(List.of(appointment)));
+    }
+
+    private static ByteBuffer text(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
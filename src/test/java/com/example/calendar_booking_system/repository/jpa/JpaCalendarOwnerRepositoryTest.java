@@ -0,0 +1,222 @@
+package com.example.calendar_booking_system.repository.jpa;
+
+import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.BatchAppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRequest;
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+import com.example.calendar_booking_system.event.AppointmentsBookedEvent;
+import com.example.calendar_booking_system.event.SeriesChangedEvent;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import com.example.calendar_booking_system.service.CalendarOwnerService;
+import com.example.calendar_booking_system.service.InviteeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:jpa-repository-test;DB_CLOSE_DELAY=-1",
+        "calendar.storage=off_heap"})
+@ActiveProfiles("jpa")
+class JpaCalendarOwnerRepositoryTest {
+
+    @Autowired
+    private GenericRepository<CalendarOwner, String> repository;
+
+    @Autowired
+    private CalendarOwnerService calendarOwnerService;
+
+    @Autowired
+    private InviteeService inviteeService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testJpaProfileSelectsPersistentRepository() {
+        assertInstanceOf(JpaCalendarOwnerRepository.class, repository);
+    }
+
+    @Test
+    void testOwnersWorkDetailsAndBookingsSurviveReload() {
+        CalendarOwner owner = (CalendarOwner) calendarOwnerService.createOwner("Alice", "alice-reload@example.com").getBody();
+        calendarOwnerService.updateWorkDetails(Map.of("id", owner.getId(), "start", "10:00", "end", "18:00",
+                "offDays", List.of("SUNDAY")));
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        while (date.getDayOfWeek() == DayOfWeek.SUNDAY) date = date.plusDays(1);
+        String inviteeId = ((Invitee) inviteeService.createInvitee(new Invitee("Bob", "bob@example.com")).getBody()).getId();
+        SlotRequest lookup = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        lookup.setInviteeId(inviteeId);
+        inviteeService.getAvailableSlots(lookup);
+        AppointmentRequest booking = new AppointmentRequest(owner.getId(), "Review",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 11);
+        booking.setInviteeId(inviteeId);
+        assertEquals(200, inviteeService.bookAppointment(booking).getStatusCode().value());
+
+        // A fresh repository over the same database stands in for a restart
+        JpaCalendarOwnerRepository restarted = new JpaCalendarOwnerRepository(entityManager, transactionManager,
+                CalendarStorage.OFF_HEAP);
+        restarted.load();
+        CalendarOwner reloaded = restarted.findById(owner.getId());
+
+        assertNotNull(reloaded);
+        assertEquals(CalendarStorage.OFF_HEAP, owner.getCalendar().getStorage());
+        assertEquals(CalendarStorage.OFF_HEAP, reloaded.getCalendar().getStorage());
+        assertEquals(owner.getCalendar().getId(), reloaded.getCalendar().getId());
+        assertEquals(LocalTime.of(10, 0), reloaded.getWorkDayStart());
+        assertEquals(LocalTime.of(18, 0), reloaded.getWorkDayEnd());
+        assertEquals(Set.of(DayOfWeek.SUNDAY), reloaded.getOffDays());
+        assertEquals(1, reloaded.getCalendar().getAppointments().size());
+        Appointment appointment = reloaded.getCalendar().getAppointments().first();
+        assertEquals("Review", appointment.getSubject());
+        assertEquals("Bob", appointment.getInvitee().getName());
+        assertTrue(reloaded.getCalendar().isHourOccupied(date, 11));
+        assertSame(reloaded, restarted.findByEmail("alice-reload@example.com"));
+    }
+
+    @Test
+    void testEndedAppointmentsAreNotLoaded() {
+        CalendarOwner owner = new CalendarOwner("Carol", "carol-ended@example.com");
+        repository.save(owner);
+        Invitee invitee = new Invitee("Dan", "dan@example.com");
+        Appointment past = new Appointment(LocalDate.now().minusDays(2).atTime(9, 0), "Old", invitee, owner);
+        Appointment future = new Appointment(LocalDate.now().plusDays(2).atTime(9, 0), "New", invitee, owner);
+        ((JpaCalendarOwnerRepository) repository).onAppointmentsBooked(
+                new AppointmentsBookedEvent(List.of(past, future)));
+
+        JpaCalendarOwnerRepository restarted = new JpaCalendarOwnerRepository(entityManager, transactionManager);
+        restarted.load();
+
+        assertEquals(List.of("New"), restarted.findById(owner.getId()).getCalendar().getAppointments().stream()
+                .map(Appointment::getSubject).toList());
+    }
+
+    @Test
+    void testSeriesAndItsCancellationsSurviveReload() {
+        CalendarOwner owner = new CalendarOwner("Gail", "gail-series@example.com");
+        repository.save(owner);
+        Invitee invitee = new Invitee("Hank", "hank@example.com");
+        LocalDate first = LocalDate.now().plusDays(1);
+        AppointmentSeries series = new AppointmentSeries(first.atTime(9, 0), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, null, 4), "1:1", invitee, owner);
+        assertTrue(owner.getCalendar().tryAddSeries(series));
+        JpaCalendarOwnerRepository jpa = (JpaCalendarOwnerRepository) repository;
+        jpa.onSeriesChanged(new SeriesChangedEvent(series));
+        assertTrue(owner.getCalendar().cancelOccurrence(series, first.plusWeeks(1)));
+        jpa.onSeriesChanged(new SeriesChangedEvent(series));
+
+        JpaCalendarOwnerRepository restarted = new JpaCalendarOwnerRepository(entityManager, transactionManager);
+        restarted.load();
+
+        AppointmentSeries reloaded = restarted.findById(owner.getId()).getCalendar().findSeries(series.getId());
+        assertNotNull(reloaded);
+        assertEquals("Hank", reloaded.getInvitee().getName());
+        assertEquals(Set.of(first.plusWeeks(1)), reloaded.getCancelledDates());
+        assertEquals(3, reloaded.occurrencesBetween(first, first.plusWeeks(4)).size());
+    }
+
+    @Test
+    void testDatabaseRejectsDoubleBooking() {
+        CalendarOwner owner = new CalendarOwner("Erin", "erin-unique@example.com");
+        repository.save(owner);
+        Invitee invitee = new Invitee("Frank", "frank@example.com");
+        LocalDate date = LocalDate.now().plusDays(3);
+        Appointment first = new Appointment(date.atTime(10, 0), "First", invitee, owner);
+        Appointment clash = new Appointment(date.atTime(10, 0), "Clash", invitee, owner);
+
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        transactions.executeWithoutResult(status -> entityManager.persist(AppointmentRecord.from(first)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> transactions.executeWithoutResult(
+                status -> entityManager.persist(AppointmentRecord.from(clash))));
+    }
+
+    @Test
+    void testFailedInsertGivesTheSlotBack() {
+        CalendarOwner owner = (CalendarOwner) calendarOwnerService.createOwner("Gina", "gina-rollback@example.com").getBody();
+        calendarOwnerService.updateWorkDetails(Map.of("id", owner.getId(), "start", "10:00", "end", "18:00",
+                "offDays", List.of("SUNDAY")));
+        LocalDate date = LocalDate.now().plusDays(2);
+        while (date.getDayOfWeek() == DayOfWeek.SUNDAY) date = date.plusDays(1);
+
+        // A row the in-memory calendar does not know about makes the listener's insert hit the unique constraint
+        Appointment stray = new Appointment(date.atTime(11, 0), "Stray", null, owner);
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.persist(AppointmentRecord.from(stray)));
+
+        Invitee invitee = (Invitee) inviteeService.createInvitee(new Invitee("Hank", "hank@example.com")).getBody();
+        SlotRequest lookup = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+        lookup.setInviteeId(invitee.getId());
+        inviteeService.getAvailableSlots(lookup);
+        AppointmentRequest booking = new AppointmentRequest(owner.getId(), "Review",
+                date.getDayOfMonth(), date.getMonthValue(), date.getYear(), 11);
+        booking.setInviteeId(invitee.getId());
+
+        assertThrows(DataIntegrityViolationException.class, () -> inviteeService.bookAppointment(booking));
+        assertFalse(owner.getCalendar().overlaps(date.atTime(11, 0), date.atTime(12, 0)));
+        assertTrue(owner.getCalendar().getAppointments().isEmpty());
+        assertTrue(invitee.getAppointments().isEmpty());
+    }
+
+    @Test
+    void testNewInviteeBookingTwoOwnersAtOnceStoresBoth() throws Exception {
+        CalendarOwner first = (CalendarOwner) calendarOwnerService.createOwner("Ivy", "ivy-race@example.com").getBody();
+        CalendarOwner second = (CalendarOwner) calendarOwnerService.createOwner("Jay", "jay-race@example.com").getBody();
+        LocalDate date = LocalDate.now().plusDays(4);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Each round is a new invitee whose first two bookings race to insert it
+            for (int round = 0; round < 8; round++) {
+                Invitee invitee = (Invitee) inviteeService.createInvitee(
+                        new Invitee("Kim " + round, "kim" + round + "@example.com")).getBody();
+                int hour = 9 + round;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<ResponseEntity<?>>> bookings = new ArrayList<>();
+                for (CalendarOwner owner : List.of(first, second)) {
+                    AppointmentRequest entry = new AppointmentRequest(owner.getId(), "Race",
+                            date.getDayOfMonth(), date.getMonthValue(), date.getYear(), hour);
+                    bookings.add(pool.submit(() -> {
+                        start.await();
+                        return inviteeService.bookAppointments(new BatchAppointmentRequest(invitee.getId(), List.of(entry)));
+                    }));
+                }
+                start.countDown();
+                for (Future<ResponseEntity<?>> booking : bookings) {
+                    assertEquals(200, booking.get().getStatusCode().value());
+                }
+                assertTrue(first.getCalendar().isHourOccupied(date, hour));
+                assertTrue(second.getCalendar().isHourOccupied(date, hour));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentExpirySchedulerTest {
+
+    private CalendarOwnerRepository repository;
+    private AppointmentExpiryScheduler scheduler;
+    private Invitee invitee;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CalendarOwnerRepository();
+        scheduler = new AppointmentExpiryScheduler(repository, new CalendarServiceImpl(repository), 2);
+        invitee = new Invitee("Bob", "bob@example.com");
+    }
+
+    @Test
+    void testSweepRemovesOnlyEndedAppointments() {
+        CalendarOwner owner = newOwner(0);
+        owner.getCalendar().addAppointment(new Appointment(LocalDateTime.now().minusHours(3), "Old", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(LocalDateTime.now().plusHours(2), "Upcoming", invitee, owner));
+
+        int removed = scheduler.sweep(List.of(owner));
+
+        assertEquals(1, removed);
+        assertEquals(1, owner.getCalendar().getAppointments().size());
+        assertEquals("Upcoming", owner.getCalendar().getAppointments().first().getSubject());
+    }
+
+    @Test
+    void testBatchesEventuallyCoverEveryOwner() {
+        List<CalendarOwner> owners = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CalendarOwner owner = newOwner(i);
+            owner.getCalendar().addAppointment(new Appointment(LocalDateTime.now().minusDays(1), "Old", invitee, owner));
+            owners.add(owner);
+        }
+
+        // Batch size 2 over 5 owners: three runs visit everyone
+        scheduler.sweepNextBatch();
+        assertEquals(3, owners.stream().filter(o -> !o.getCalendar().getAppointments().isEmpty()).count());
+        scheduler.sweepNextBatch();
+        scheduler.sweepNextBatch();
+
+        assertTrue(owners.stream().allMatch(o -> o.getCalendar().getAppointments().isEmpty()));
+    }
+
+    @Test
+    void testOwnersSavedMidRoundAreNeitherSkippedNorSweptTwice() {
+        List<String> swept = new ArrayList<>();
+        AppointmentExpiryScheduler recording = new AppointmentExpiryScheduler(repository, new CalendarServiceImpl(repository), 2) {
+            @Override
+            public int sweep(List<CalendarOwner> owners) {
+                owners.forEach(owner -> swept.add(owner.getId()));
+                return super.sweep(owners);
+            }
+        };
+        List<CalendarOwner> owners = new ArrayList<>();
+        for (int i = 0; i < 5; i++) owners.add(newOwner(i));
+        List<String> ids = owners.stream().map(CalendarOwner::getId).sorted().toList();
+
+        recording.sweepNextBatch();
+        owners.forEach(repository::save); // work detail updates re-save owners mid-round
+        recording.sweepNextBatch();
+        recording.sweepNextBatch();
+        assertEquals(ids, swept);
+
+        // The short third page ended the round; the next starts over, and picks up a newly created owner
+        CalendarOwner added = newOwner(5);
+        for (int run = 0; run < 6; run++) recording.sweepNextBatch();
+        assertEquals(ids.get(0), swept.get(5));
+        assertTrue(swept.subList(5, swept.size()).contains(added.getId()));
+    }
+
+    private CalendarOwner newOwner(int i) {
+        CalendarOwner owner = new CalendarOwner("Owner " + i, "owner" + i + "@example.com");
+        repository.save(owner);
+        return owner;
+    }
+}
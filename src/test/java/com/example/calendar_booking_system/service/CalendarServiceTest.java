@@ -1,20 +1,30 @@
 package com.example.calendar_booking_system.service;
 
 import com.example.calendar_booking_system.entity.Appointment;
+import com.example.calendar_booking_system.entity.AppointmentSeries;
 import com.example.calendar_booking_system.entity.Calendar;
 import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.CalendarStorage;
 import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.entity.RecurrenceRule;
+import com.example.calendar_booking_system.entity.WorkWeek;
 import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
 import com.example.calendar_booking_system.repository.GenericRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,6 +79,59 @@ class CalendarServiceTest {
         assertTrue(freeSlots.isEmpty(), "Free slots should be empty on an off day");
     }
 
+    @Test
+    void testWorkWeekLeavesOutPartHoursAndOffDays() {
+        owner.setWorkDetails(LocalTime.of(9, 30), LocalTime.of(17, 30), Set.of(DayOfWeek.SUNDAY));
+        WorkWeek week = owner.workWeek();
+
+        assertEquals(0L, week.hourMask(DayOfWeek.SUNDAY));
+        assertTrue(week.isOffDay(DayOfWeek.SUNDAY));
+        assertFalse(week.isOffDay(DayOfWeek.SATURDAY));
+        LocalDate date = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+        assertEquals(List.of(10, 11, 12, 13, 14, 15, 16), calendarService.getFreeSlots(owner, date));
+    }
+
+    @Test
+    void testWorkWeekIsReplacedNotMutated() {
+        WorkWeek before = owner.workWeek();
+        owner.setWorkHours(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        owner.addOffDay(DayOfWeek.MONDAY);
+
+        assertEquals(LocalTime.of(9, 0), before.getStart());
+        assertEquals(Set.of(DayOfWeek.SATURDAY), before.getOffDays());
+        assertEquals(Set.of(DayOfWeek.SATURDAY, DayOfWeek.MONDAY), owner.getOffDays());
+        assertEquals(0b1100_0000_0000L, owner.workWeek().hourMask(DayOfWeek.TUESDAY));
+        assertThrows(UnsupportedOperationException.class, () -> owner.getOffDays().add(DayOfWeek.SUNDAY));
+        assertThrows(IllegalArgumentException.class, () -> owner.setWorkHours(LocalTime.of(12, 0), LocalTime.of(10, 0)));
+        assertEquals(LocalTime.of(10, 0), owner.getWorkDayStart());
+    }
+
+    @Test
+    void testReadersNeverSeeHalfUpdatedWorkWeek() throws InterruptedException {
+        WorkWeek early = new WorkWeek(LocalTime.of(6, 0), LocalTime.of(10, 0), Set.of(DayOfWeek.MONDAY));
+        WorkWeek late = new WorkWeek(LocalTime.of(14, 0), LocalTime.of(22, 0), Set.of(DayOfWeek.FRIDAY));
+        owner.setWorkDetails(early.getStart(), early.getEnd(), early.getOffDays());
+        AtomicInteger torn = new AtomicInteger();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                WorkWeek next = i % 2 == 0 ? early : late;
+                owner.setWorkDetails(next.getStart(), next.getEnd(), next.getOffDays());
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            WorkWeek week = owner.workWeek();
+            boolean isEarly = week.getStart().equals(early.getStart());
+            WorkWeek expected = isEarly ? early : late;
+            if (!week.getEnd().equals(expected.getEnd()) || !week.getOffDays().equals(expected.getOffDays())
+                    || week.hourMask(DayOfWeek.WEDNESDAY) != expected.hourMask(DayOfWeek.WEDNESDAY)) {
+                torn.incrementAndGet();
+            }
+        }
+        writer.join();
+        assertEquals(0, torn.get());
+    }
+
     @Test
     void testFreeSlotsWithNoAppointments() {
         LocalDate date = LocalDate.now().plusDays(1);
@@ -96,4 +159,365 @@ class CalendarServiceTest {
 
         assertNull(freeSlots, "Free slots should be null for dates in the past");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFreeSlotsIgnoreOtherDays() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = owner.getCalendar();
+
+        // Same hour on neighbouring days must not block the queried day
+        calendar.addAppointment(new Appointment(date.minusDays(1).atTime(11, 0), "Before", invitee, owner));
+        calendar.addAppointment(new Appointment(date.plusDays(1).atTime(11, 0), "After", invitee, owner));
+
+        List<Integer> freeSlots = calendarService.getFreeSlots(owner, date);
+        assertEquals(8, freeSlots.size());
+        assertTrue(freeSlots.contains(11));
+        assertTrue(calendar.isHourOccupied(date.plusDays(1), 11));
+    }
+
+    @Test
+    void testFreeSlotsRangeMatchesSingleDayQueries() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(9);
+        owner.getCalendar().addAppointment(new Appointment(from.atTime(10, 0), "Meeting1", invitee, owner));
+        owner.getCalendar().addAppointment(new Appointment(from.plusDays(3).atTime(16, 0), "Meeting2", invitee, owner));
+
+        SortedMap<LocalDate, List<Integer>> range = calendarService.getFreeSlots(owner, from, to);
+
+        assertEquals(10, range.size());
+        assertEquals(from, range.firstKey());
+        assertEquals(to, range.lastKey());
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            assertEquals(calendarService.getFreeSlots(owner, date), range.get(date), "mismatch on " + date);
+        }
+    }
+
+    @Test
+    void testFreeSlotsRangeOutsideWindow() {
+        LocalDate today = LocalDate.now();
+        assertNull(calendarService.getFreeSlots(owner, today.minusDays(1), today.plusDays(2)));
+        assertNull(calendarService.getFreeSlots(owner, today, today.plusDays(16)));
+        assertEquals(16, calendarService.getFreeSlots(owner, today, today.plusDays(15)).size());
+    }
+
+    @Test
+    void testVersionChangesOnlyWhenCalendarChanges() {
+        Calendar calendar = owner.getCalendar();
+        LocalDate date = LocalDate.now().plusDays(1);
+        long initial = calendar.getVersion();
+
+        assertTrue(calendar.tryBook(new Appointment(date.atTime(10, 0), "Meeting", invitee, owner)));
+        long afterBooking = calendar.getVersion();
+        assertTrue(afterBooking > initial);
+
+        assertFalse(calendar.tryBook(new Appointment(date.atTime(10, 0), "Clash", invitee, owner)));
+        calendarService.getFreeSlots(owner, date);
+        assertEquals(afterBooking, calendar.getVersion());
+
+        calendar.addAppointment(new Appointment(LocalDate.now().minusDays(1).atTime(10, 0), "Old", invitee, owner));
+        long beforeCleanup = calendar.getVersion();
+        calendarService.cleanupPastAppointments(calendar);
+        assertTrue(calendar.getVersion() > beforeCleanup);
+    }
+
+    @Test
+    void testCleanupReleasesOccupiedHours() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Calendar calendar = owner.getCalendar();
+        calendar.addAppointment(new Appointment(yesterday.atTime(10, 0), "Old", invitee, owner));
+        assertTrue(calendar.isHourOccupied(yesterday, 10));
+
+        calendarService.cleanupPastAppointments(calendar);
+
+        assertTrue(calendar.getAppointments().isEmpty());
+        assertFalse(calendar.isHourOccupied(yesterday, 10));
+    }
+
+    @Test
+    void testIntervalIndexRejectsOverlapsOfAnyLength() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = owner.getCalendar();
+
+        assertTrue(calendar.tryBook(new Appointment(date.atTime(10, 0), Duration.ofMinutes(30), "Standup", invitee, owner)));
+        assertFalse(calendar.tryBook(new Appointment(date.atTime(10, 15), Duration.ofMinutes(15), "Inside", invitee, owner)));
+        assertFalse(calendar.tryBook(new Appointment(date.atTime(9, 30), Duration.ofMinutes(45), "Runs into it", invitee, owner)));
+        assertFalse(calendar.tryBook(new Appointment(date.atTime(9, 0), Duration.ofMinutes(90), "Covers it", invitee, owner)));
+        assertTrue(calendar.tryBook(new Appointment(date.atTime(9, 30), Duration.ofMinutes(30), "Right before", invitee, owner)));
+        assertTrue(calendar.tryBook(new Appointment(date.atTime(10, 30), Duration.ofMinutes(90), "Right after", invitee, owner)));
+
+        assertEquals(3, calendar.getAppointments().size());
+        // Hours partly taken are no longer offered as whole-hour slots
+        assertEquals(List.of(12, 13, 14, 15, 16), calendarService.getFreeSlots(owner, date));
+    }
+
+    @Test
+    void testFreeGapsAtMinuteResolution() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        while (owner.getOffDays().contains(date.getDayOfWeek())) date = date.plusDays(1);
+        owner.setWorkHours(LocalTime.of(9, 30), LocalTime.of(17, 0));
+        Calendar calendar = owner.getCalendar();
+        calendar.addAppointment(new Appointment(date.atTime(10, 0), Duration.ofMinutes(30), "Standup", invitee, owner));
+        calendar.addAppointment(new Appointment(date.atTime(11, 0), Duration.ofMinutes(90), "Workshop", invitee, owner));
+        calendar.addAppointment(new Appointment(date.atTime(16, 45), Duration.ofMinutes(15), "Wrap-up", invitee, owner));
+
+        SortedMap<LocalTime, LocalTime> gaps = calendarService.getFreeGaps(owner, date, Duration.ofMinutes(30));
+        assertEquals(List.of(LocalTime.of(9, 30), LocalTime.of(10, 30), LocalTime.of(12, 30)), List.copyOf(gaps.keySet()));
+        assertEquals(List.of(LocalTime.of(10, 0), LocalTime.of(11, 0), LocalTime.of(16, 45)), List.copyOf(gaps.values()));
+
+        assertEquals(List.of(LocalTime.of(12, 30)),
+                List.copyOf(calendarService.getFreeGaps(owner, date, Duration.ofMinutes(45)).keySet()));
+        assertNull(calendarService.getFreeGaps(owner, LocalDate.now().plusDays(30), Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void testCleanupKeepsLongAppointmentThatOutlastsLaterOnes() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = owner.getCalendar();
+        calendar.addAppointment(new Appointment(date.atTime(9, 0), Duration.ofHours(4), "Offsite", invitee, owner));
+        calendar.addAppointment(new Appointment(date.atTime(10, 0), Duration.ofMinutes(15), "Check-in", invitee, owner));
+
+        // The check-in starts later but ends first
+        assertEquals(1, calendar.removeEndedAppointments(date.atTime(12, 0)));
+        assertEquals("Offsite", calendar.getAppointments().first().getSubject());
+        assertTrue(calendar.isHourOccupied(date, 10));
+
+        assertEquals(1, calendar.removeEndedAppointments(date.atTime(13, 0)));
+        assertTrue(calendar.getAppointments().isEmpty());
+        assertEquals(0L, calendar.getOccupiedHours(date));
+        assertFalse(calendar.overlaps(date.atTime(9, 0), date.atTime(15, 0)));
+    }
+
+    @Test
+    void testReleasingAShortAppointmentKeepsItsHourForTheOther() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = owner.getCalendar();
+        Appointment first = new Appointment(date.atTime(10, 0), Duration.ofMinutes(15), "First", invitee, owner);
+        Appointment second = new Appointment(date.atTime(10, 30), Duration.ofMinutes(15), "Second", invitee, owner);
+        assertTrue(calendar.tryBook(first));
+        assertTrue(calendar.tryReserve(List.of(second)));
+
+        calendar.releaseReservation(List.of(second));
+        assertTrue(calendar.isHourOccupied(date, 10));
+        assertFalse(calendar.overlaps(date.atTime(10, 30), date.atTime(10, 45)));
+    }
+
+    @Test
+    void testEveryStorageBooksListsAndExpiresAlike() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        for (CalendarStorage storage : CalendarStorage.values()) {
+            Calendar calendar = new Calendar("calendar-" + storage, storage);
+            Appointment standup = new Appointment(date.atTime(10, 0), Duration.ofMinutes(30), "Standup", invitee, owner);
+            assertTrue(calendar.tryBook(standup));
+            assertFalse(calendar.tryBook(new Appointment(date.atTime(10, 15), Duration.ofMinutes(15), "Inside", invitee, owner)));
+            // Booked ahead of the existing row, under an id that is not a UUID
+            assertTrue(calendar.tryBook(new Appointment("legacy-7", date.atTime(9, 0), Duration.ofMinutes(30), "Early", invitee, owner)));
+
+            Appointment held = new Appointment(date.atTime(14, 0), "Held", invitee, owner);
+            Appointment kept = new Appointment(date.atTime(15, 0), "Kept", invitee, owner);
+            assertTrue(calendar.tryReserve(List.of(kept, held)));
+            assertTrue(calendar.overlaps(date.atTime(14, 30), date.atTime(14, 45)), storage.name());
+            assertEquals(2, calendar.getAppointments().size(), storage + ": reserved times are not listed yet");
+            calendar.releaseReservation(List.of(held));
+            calendar.commitReservation(List.of(kept));
+            assertFalse(calendar.overlaps(date.atTime(14, 0), date.atTime(15, 0)), storage.name());
+
+            List<Appointment> listed = List.copyOf(calendar.getAppointmentsBetween(date, date));
+            assertEquals(List.of("Early", "Standup", "Kept"), listed.stream().map(Appointment::getSubject).toList(), storage.name());
+            assertEquals("legacy-7", listed.get(0).getId());
+            assertEquals(standup.getId(), listed.get(1).getId());
+            assertEquals(standup.getEndTime(), listed.get(1).getEndTime());
+            assertSame(invitee, listed.get(1).getInvitee());
+            assertSame(owner, listed.get(1).getOwner());
+            assertEquals((1L << 9) | (1L << 10) | (1L << 15), calendar.getOccupiedHours(date), storage.name());
+            // Query bounds finer than a minute still see the standup end at 10:30
+            assertEquals(List.of(standup.getId()), calendar.getClaimsOverlapping(date.atTime(10, 29, 30), date.atTime(10, 30))
+                    .stream().map(Appointment::getId).toList(), storage.name());
+            assertFalse(calendar.overlaps(date.atTime(10, 30), date.atTime(10, 30, 1)), storage.name());
+
+            assertEquals(2, calendar.removeEndedAppointments(date.atTime(10, 30)), storage.name());
+            assertEquals(List.of("Kept"), calendar.getAppointments().stream().map(Appointment::getSubject).toList());
+            assertEquals(1L << 15, calendar.getOccupiedHours(date), storage.name());
+        }
+    }
+
+    @Test
+    void testCompactStorageKeepsWholeMinutesOnly() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = new Calendar("compact", CalendarStorage.COMPACT);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.tryBook(new Appointment(date.atTime(10, 0, 30), "Odd", invitee, owner)));
+        assertTrue(calendar.getAppointments().isEmpty());
+        assertEquals(0L, calendar.getOccupiedHours(date));
+    }
+
+    @Test
+    void testOffHeapStorageKeepsLiveRecordsWhenItsArenaFillsUp() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = new Calendar("off-heap", CalendarStorage.OFF_HEAP);
+        Appointment standup = new Appointment(date.atTime(9, 0), Duration.ofMinutes(15), "Standup", invitee, owner);
+        assertTrue(calendar.tryBook(standup));
+
+        // Each released hold leaves a dead record behind, so the arena is compacted several times over
+        for (int i = 0; i < 200; i++) {
+            List<Appointment> hold = List.of(new Appointment(date.atTime(12, 0).plusMinutes(15 * (i % 8)),
+                    Duration.ofMinutes(15), "Hold", invitee, owner));
+            assertTrue(calendar.tryReserve(hold));
+            calendar.releaseReservation(hold);
+        }
+        Appointment review = new Appointment(date.atTime(11, 0), "Review", invitee, owner);
+        assertTrue(calendar.tryReserve(List.of(review)));
+        calendar.commitReservation(List.of(review));
+
+        assertEquals(List.of(standup.getId(), review.getId()),
+                calendar.getAppointments().stream().map(Appointment::getId).toList());
+        assertEquals((1L << 9) | (1L << 11), calendar.getOccupiedHours(date));
+        assertFalse(calendar.overlaps(date.atTime(12, 0), date.atTime(14, 0)));
+        assertTrue(calendar.overlaps(date.atTime(9, 10), date.atTime(9, 20)));
+    }
+
+    @Test
+    void testSeriesIsStoredOnceAndExpandedPerQuery() {
+        LocalDate first = LocalDate.now().plusDays(1);
+        while (owner.getOffDays().contains(first.getDayOfWeek())) first = first.plusDays(1);
+        Calendar calendar = owner.getCalendar();
+        AppointmentSeries weekly = new AppointmentSeries(first.atTime(10, 0), Duration.ofMinutes(60),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, null, 3), "1:1", invitee, owner);
+        assertTrue(calendar.tryAddSeries(weekly));
+
+        assertTrue(calendar.getAppointments().isEmpty());
+        assertFalse(calendarService.getFreeSlots(owner, first).contains(10));
+        assertFalse(calendarService.getFreeSlots(owner, first.plusWeeks(1)).contains(10));
+        assertTrue(calendarService.getFreeSlots(owner, first.plusDays(1)).contains(10));
+        assertEquals(List.of(first.plusWeeks(1).atTime(10, 0)), calendar.getAppointmentsBetween(first.plusDays(1), first.plusDays(13))
+                .stream().map(Appointment::getStartTime).toList());
+
+        Appointment clash = new Appointment(first.plusWeeks(1).atTime(10, 30), Duration.ofMinutes(15), "Clash", invitee, owner);
+        assertFalse(calendar.tryBook(clash));
+        assertTrue(calendar.cancelOccurrence(weekly, first.plusWeeks(1)));
+        assertFalse(calendar.cancelOccurrence(weekly, first.plusWeeks(1)));
+        assertFalse(calendar.cancelOccurrence(weekly, first.plusDays(1)));
+        assertTrue(calendar.tryBook(clash));
+
+        // A new series clashing with any occurrence, or with a single booking, is refused as a whole
+        assertFalse(calendar.tryAddSeries(new AppointmentSeries(first.atTime(9, 30), Duration.ofMinutes(45),
+                new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, first.plusDays(20), 0), "Daily", invitee, owner)));
+        assertFalse(calendar.tryAddSeries(new AppointmentSeries(first.plusWeeks(1).atTime(10, 15), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, null, 1), "Single", invitee, owner)));
+        assertEquals(1, calendar.getSeries().size());
+    }
+
+    @Test
+    void testRecurrenceRuleBounds() {
+        LocalDate first = LocalDate.of(2030, 1, 7);
+        assertEquals(3, new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, first.plusDays(20), 0).occurrenceCount(first));
+        assertEquals(2, new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 2, first.plusDays(20), 5).occurrenceCount(first));
+        assertEquals(4, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 3, null, 4).occurrenceCount(first));
+        assertEquals(0, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, first.minusDays(1), 0).occurrenceCount(first));
+        assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, null, 0));
+
+        // Bounded by count alone, or by an until too far off for the count to fit an int
+        assertEquals(Integer.MAX_VALUE, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, null, Integer.MAX_VALUE).occurrenceCount(first));
+        assertEquals(Integer.MAX_VALUE, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, LocalDate.MAX, 0).occurrenceCount(first));
+        assertEquals(10, new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, LocalDate.MAX, 10).occurrenceCount(first));
+
+        AppointmentSeries series = new AppointmentSeries(first.atTime(9, 0), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 2, null, 100), "Fortnightly", invitee, owner);
+        // A window deep into the series expands only the occurrences inside it
+        assertEquals(List.of(first.plusWeeks(100).atTime(9, 0), first.plusWeeks(102).atTime(9, 0)),
+                series.occurrencesBetween(first.plusWeeks(99), first.plusWeeks(103)).stream().map(Appointment::getStartTime).toList());
+        assertEquals(first.plusWeeks(198), series.getLastDate());
+    }
+
+    @Test
+    void testCleanupDropsSeriesOnlyAfterTheirLastOccurrence() {
+        LocalDate first = LocalDate.now().minusDays(10);
+        Calendar calendar = owner.getCalendar();
+        calendar.addSeries(new AppointmentSeries(first.atTime(9, 0), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, null, 5), "Over", invitee, owner));
+        calendar.addSeries(new AppointmentSeries(first.atTime(11, 0), Duration.ofMinutes(30),
+                new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, null, 4), "Running", invitee, owner));
+
+        assertEquals(1, calendarService.cleanupPastAppointments(calendar));
+        assertEquals(List.of("Running"), calendar.getSeries().stream().map(AppointmentSeries::getSubject).toList());
+    }
+
+    @Test
+    void testTryBookRaceHasSingleWinner() throws InterruptedException {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Calendar calendar = owner.getCalendar();
+
+        int threadCount = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Appointment appt = new Appointment(date.atTime(10, 0), "Race " + i, invitee, owner);
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (calendar.tryBook(appt)) winners.incrementAndGet();
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        assertEquals(1, winners.get());
+        assertEquals(1, calendar.getAppointments().size());
+        assertTrue(calendar.tryBook(new Appointment(date.atTime(11, 0), "Next hour", invitee, owner)));
+        assertFalse(calendarService.getFreeSlots(owner, date).contains(10));
+        assertFalse(calendarService.getFreeSlots(owner, date).contains(11));
+    }
+
+    @Test
+    void testCommonFreeSlotsIntersectsOwners() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.plusDays(1);
+        }
+        CalendarOwner other = new CalendarOwner("Carol", "carol@example.com");
+        other.setWorkHours(LocalTime.of(12, 0), LocalTime.of(20, 0));
+        other.setOffDays(Collections.singleton(date.plusDays(1).getDayOfWeek()));
+        owner.getCalendar().addAppointment(new Appointment(date.atTime(13, 0), "Busy", invitee, owner));
+        other.getCalendar().addAppointment(new Appointment(date.atTime(15, 0), "Busy", invitee, other));
+
+        SortedMap<LocalDate, List<Integer>> common = calendarService.getCommonFreeSlots(List.of(owner, other), date, date.plusDays(1));
+
+        assertEquals(List.of(date, date.plusDays(1)), new ArrayList<>(common.keySet()));
+        assertEquals(List.of(12, 14, 16), common.get(date)); // 12-17 shared, minus each one's booking
+        assertEquals(List.of(), common.get(date.plusDays(1)));  // Carol's off day
+        assertNull(calendarService.getCommonFreeSlots(List.of(owner, other), date, date.plusDays(30)));
+    }
+
+    @Test
+    void testCommonFreeSlotsParallelPathMatchesPerOwnerIntersection() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(6);
+        List<CalendarOwner> owners = new ArrayList<>();
+        for (int i = 0; i < CalendarServiceImpl.PARALLEL_MIN_OWNERS * 2; i++) {
+            CalendarOwner o = new CalendarOwner("Owner " + i, "owner" + i + "@example.com");
+            o.setWorkHours(LocalTime.of(8, 0), LocalTime.of(20, 0));
+            // Each owner books a different hour on a different day, leaving a known set of shared hours
+            LocalDate day = from.plusDays(i % 7);
+            o.getCalendar().addAppointment(new Appointment(day.atTime(8 + i % 5, 0), "Busy", invitee, o));
+            owners.add(o);
+        }
+
+        SortedMap<LocalDate, List<Integer>> common = calendarService.getCommonFreeSlots(owners, from, to);
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<Integer> expected = new ArrayList<>();
+            for (int hour = 8; hour < 20; hour++) {
+                boolean freeForAll = true;
+                for (CalendarOwner o : owners) freeForAll &= !o.getCalendar().isHourOccupied(date, hour);
+                if (freeForAll) expected.add(hour);
+            }
+            assertEquals(expected, common.get(date), date.toString());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.calendar_booking_system.service;
+
+import com.example.calendar_booking_system.datatransferobject.AppointmentRequest;
+import com.example.calendar_booking_system.datatransferobject.SlotRequest;
+import com.example.calendar_booking_system.entity.CalendarOwner;
+import com.example.calendar_booking_system.entity.Invitee;
+import com.example.calendar_booking_system.repository.CalendarOwnerRepository;
+import com.example.calendar_booking_system.repository.GenericRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books every free hour of the next 15 days for a set of owners, each thread working its own
+ * owners, and checks that every booking lands exactly once at each thread count. Owners are
+ * disjoint, so the threads never contend on the same calendar. How throughput scales with the
+ * thread count is measured by {@code BookingBenchmark.bookOwnOwner} in the {@code jmh} profile.
+ */
+class ConcurrentBookingTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int OWNERS_PER_THREAD = 4;
+
+    @Test
+    void testBookingsOnDisjointOwnersAllLandAtEveryThreadCount() throws Exception {
+        for (int threads : THREAD_COUNTS) {
+            GenericRepository<CalendarOwner, String> repo = new CalendarOwnerRepository();
+            CalendarService calendarService = new CalendarServiceImpl(repo);
+            InviteeService inviteeService = new InviteeServiceImpl(calendarService, repo);
+
+            List<List<CalendarOwner>> ownersPerThread = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<CalendarOwner> owners = new ArrayList<>();
+                for (int o = 0; o < OWNERS_PER_THREAD; o++) {
+                    CalendarOwner owner = new CalendarOwner("Owner " + t + "-" + o, "owner" + t + "-" + o + "@example.com");
+                    owner.setWorkHours(LocalTime.of(0, 0), LocalTime.of(23, 0));
+                    owner.setOffDays(new HashSet<>());
+                    repo.save(owner);
+                    owners.add(owner);
+                }
+                ownersPerThread.add(owners);
+            }
+
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (List<CalendarOwner> owners : ownersPerThread) {
+                // One invitee per thread, all going through the same service
+                Invitee invitee = (Invitee) inviteeService.createInvitee(new Invitee("Invitee", "invitee@example.com")).getBody();
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return bookEverything(inviteeService, invitee.getId(), owners);
+                }));
+            }
+
+            start.countDown();
+            int booked = 0;
+            for (Future<Integer> f : results) booked += f.get();
+            pool.shutdown();
+
+            int expectedPerOwner = 15 * 23; // next 15 days, hours 0..22
+            assertEquals(threads * OWNERS_PER_THREAD * expectedPerOwner, booked);
+            for (List<CalendarOwner> owners : ownersPerThread) {
+                for (CalendarOwner owner : owners) {
+                    assertEquals(expectedPerOwner, owner.getCalendar().getAppointments().size());
+                }
+            }
+        }
+    }
+
+    private int bookEverything(InviteeService inviteeService, String inviteeId, List<CalendarOwner> owners) {
+        int booked = 0;
+        LocalDate today = LocalDate.now();
+        for (CalendarOwner owner : owners) {
+            for (int d = 1; d <= 15; d++) {
+                LocalDate date = today.plusDays(d);
+                SlotRequest lookup = new SlotRequest(owner.getId(), date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+                lookup.setInviteeId(inviteeId);
+                inviteeService.getAvailableSlots(lookup);
+                for (int h = 0; h < 23; h++) {
+                    AppointmentRequest req = new AppointmentRequest(owner.getId(),
+                            "Sync", date.getDayOfMonth(), date.getMonthValue(), date.getYear(), h);
+                    req.setInviteeId(inviteeId);
+                    ResponseEntity<?> resp = inviteeService.bookAppointment(req);
+                    if (resp.getStatusCode().is2xxSuccessful()) booked++;
+                }
+            }
+        }
+        return booked;
+    }
+}
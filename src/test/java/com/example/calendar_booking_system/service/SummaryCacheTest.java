@@ -0,0 +1,91 @@
+package com.example.calendar_booking_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SummaryCacheTest {
+
+    private final SummaryCache cache = new SummaryCache(100);
+    private final AtomicInteger builds = new AtomicInteger();
+    private final LocalDate today = LocalDate.of(2030, 1, 10);
+    private final LocalDateTime now = today.atTime(9, 0);
+
+    @Test
+    void testRepeatReadsAtSameVersionBuildOnce() {
+        assertEquals("v1", cache.summary("owner", today, today, 1, now, () -> build("v1", null)));
+        assertEquals("v1", cache.summary("owner", today, today, 1, now.plusHours(1), () -> build("other", null)));
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void testNewVersionRebuilds() {
+        cache.summary("owner", today, today, 1, now, () -> build("v1", null));
+        assertEquals("v2", cache.summary("owner", today, today, 2, now, () -> build("v2", null)));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testEntryExpiresWhenFirstListedAppointmentEnds() {
+        LocalDateTime firstEnd = now.plusHours(2);
+        cache.summary("owner", today, today, 1, now, () -> build("before", firstEnd));
+
+        assertEquals("before", cache.summary("owner", today, today, 1, firstEnd.minusMinutes(1), () -> build("after", null)));
+        assertEquals("after", cache.summary("owner", today, today, 1, firstEnd, () -> build("after", null)));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testETagMovesWhenFirstListedAppointmentEndsAtSameVersion() {
+        LocalDateTime firstEnd = now.plusHours(2);
+        SummaryCache.Summary before = cache.entry("owner", today, today, 1, now, () -> build("before", firstEnd));
+        SummaryCache.Summary again = cache.entry("owner", today, today, 1, now.plusHours(1), () -> build("other", null));
+        SummaryCache.Summary after = cache.entry("owner", today, today, 1, firstEnd, () -> build("after", null));
+
+        String tag = ETags.summary("text", 1, today, today, before.validUntil());
+        assertEquals(tag, ETags.summary("text", 1, today, today, again.validUntil()));
+        assertNotEquals(tag, ETags.summary("text", 1, today, today, after.validUntil()));
+        assertNotEquals(tag, ETags.summary("text", 2, today, today, before.validUntil()));
+    }
+
+    @Test
+    void testNewDayUsesNewKey() {
+        LocalDate tomorrow = today.plusDays(1);
+        cache.summary("owner", today, today, 1, now, () -> build("today", null));
+        assertEquals("tomorrow", cache.summary("owner", tomorrow, tomorrow, 1, now.plusDays(1), () -> build("tomorrow", null)));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testOwnersAreCachedSeparately() {
+        cache.summary("alice", today, today, 1, now, () -> build("alice", null));
+        assertEquals("bob", cache.summary("bob", today, today, 1, now, () -> build("bob", null)));
+    }
+
+    @Test
+    void testStreamedValidityIsWorkedOutOncePerVersionUntilItPasses() {
+        LocalDateTime firstEnd = now.plusHours(2);
+        assertEquals(firstEnd, cache.streamedValidUntil("owner", today, today, 1, now, () -> find(firstEnd)));
+        assertEquals(firstEnd, cache.streamedValidUntil("owner", today, today, 1, now.plusHours(1), () -> find(null)));
+        assertEquals(1, builds.get());
+
+        assertNull(cache.streamedValidUntil("owner", today, today, 1, firstEnd, () -> find(null)));
+        assertNull(cache.streamedValidUntil("owner", today, today, 1, firstEnd.plusHours(1), () -> find(now)));
+        assertEquals(now, cache.streamedValidUntil("owner", today, today, 2, firstEnd, () -> find(now)));
+        assertEquals(3, builds.get());
+    }
+
+    private LocalDateTime find(LocalDateTime earliestEnd) {
+        builds.incrementAndGet();
+        return earliestEnd;
+    }
+
+    private SummaryCache.Summary build(String text, LocalDateTime validUntil) {
+        builds.incrementAndGet();
+        return new SummaryCache.Summary(text, validUntil);
+    }
+}